@@ -0,0 +1,166 @@
+package com.dishdash.restaurantservice.cache;
+
+import com.dishdash.restaurantservice.dto.PageDto;
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.enums.ChangeType;
+import com.dishdash.restaurantservice.event.RestaurantChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of the serialized UTF-8 JSON of each restaurant, keyed by id.
+ * Single restaurant responses are written straight from the cached bytes and list responses are assembled by joining
+ * the cached fragments, so a hot restaurant is serialized once instead of on every request. Each fragment carries the
+ * strong entity tag of the row version it was serialized from, so conditional requests are answered without a lookup.
+ * Updates and deletes drop the entry, a time to live bounds how long writes made by other instances stay invisible.
+ */
+@Component
+public class RestaurantJsonCache {
+
+    private static final byte[] CONTENT_PREFIX = "{\"content\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NEXT_PREFIX = "],\"next\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FACETS_PREFIX = ",\"facets\":".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${restaurants.json-cache.max-entries:10000}")
+    private int maxEntries = 10000;
+
+    @Value("${restaurants.json-cache.ttl-seconds:60}")
+    private long ttlSeconds = 60;
+
+    private final Map<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+//  Advanced by every invalidation, bytes serialized from a restaurant read before an invalidation are not stored.
+    private long generation;
+
+    /**
+     * Returns the JSON of the restaurant, loading and serializing it on a miss.
+     */
+    public Fragment get(long id, Supplier<ResponseDto> loader) {
+        Fragment fragment = cached(id);
+        if (fragment != null)
+            return fragment;
+        long loadGeneration = generation();
+        fragment = fragmentOf(loader.get());
+        store(id, fragment, loadGeneration);
+        return fragment;
+    }
+
+    /**
+     * Returns the entity tag of the cached JSON of the restaurant, or {@code null} if it is not cached.
+     */
+    public String etag(long id) {
+        Fragment fragment = cached(id);
+        return (fragment != null) ? fragment.etag : null;
+    }
+
+    /**
+     * Returns the strong entity tag of the JSON of a page, a digest of its bytes: the tag changes exactly when the body
+     * does, whichever cache or read model the page came from, and instances serving the same body agree on it.
+     */
+    public static String pageEtag(byte[] pageJson) {
+        try {
+            return "p" + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(pageJson), 0, 16);
+        }
+        catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Returns the JSON of a page, joining the cached fragment of every restaurant on it.
+     * Missing fragments are only stored if nothing was invalidated since {@code loadGeneration}, which the caller reads
+     * from {@link #generation()} before it queries the page.
+     */
+    public byte[] page(PageDto<ResponseDto> page, long loadGeneration) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(CONTENT_PREFIX);
+        boolean first = true;
+        for (ResponseDto restaurant : page.getContent()) {
+            if (!first)
+                out.write(',');
+            Fragment fragment = cached(restaurant.getId());
+            if (fragment == null) {
+                fragment = fragmentOf(restaurant);
+                store(restaurant.getId(), fragment, loadGeneration);
+            }
+            out.writeBytes(fragment.json);
+            first = false;
+        }
+        out.writeBytes(NEXT_PREFIX);
+        out.writeBytes(serialize(page.getNext()));
+        if (page.getFacets() != null) {
+            out.writeBytes(FACETS_PREFIX);
+            out.writeBytes(serialize(page.getFacets()));
+        }
+        out.write('}');
+        return out.toByteArray();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (event.getType() == ChangeType.CREATED)
+            return;
+        generation++;
+        entries.remove(event.getRestaurant().getId());
+    }
+
+    private synchronized Fragment cached(long id) {
+        Entry entry = entries.get(id);
+        if (entry == null)
+            return null;
+        if (entry.expiresAt < System.nanoTime()) {
+            entries.remove(id);
+            return null;
+        }
+        return entry.fragment;
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    private synchronized void store(long id, Fragment fragment, long loadGeneration) {
+        if (loadGeneration == generation)
+            entries.put(id, new Entry(fragment, System.nanoTime() + ttlSeconds * 1_000_000_000L));
+    }
+
+    private Fragment fragmentOf(ResponseDto restaurant) {
+        return new Fragment(serialize(restaurant), restaurant.getId() + "-" + restaurant.getVersion());
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        }
+        catch (JsonProcessingException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    public record Fragment(byte[] json, String etag) {
+    }
+
+    private record Entry(Fragment fragment, long expiresAt) {
+    }
+}
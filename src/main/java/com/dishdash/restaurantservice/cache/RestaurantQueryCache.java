@@ -0,0 +1,139 @@
+package com.dishdash.restaurantservice.cache;
+
+import com.dishdash.restaurantservice.dto.GeoPointDto;
+import com.dishdash.restaurantservice.dto.PageDto;
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.dto.RestaurantFilterDto;
+import com.dishdash.restaurantservice.enums.Cuisine;
+import com.dishdash.restaurantservice.enums.Facet;
+import com.dishdash.restaurantservice.enums.Sort;
+import com.dishdash.restaurantservice.event.RestaurantChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounded LRU cache of restaurant list pages keyed on the normalized query.
+ * Entries are grouped by their cuisine filter: a write only drops the pages of the cuisines the restaurant belonged to
+ * before and after the change, plus the unfiltered pages, which every restaurant can appear in. Every group carries a
+ * generation that writes advance, a page computed while its group changed is not stored. A time to live bounds how
+ * long writes made by other instances stay invisible.
+ */
+@Component
+public class RestaurantQueryCache {
+
+    @Value("${restaurants.query-cache.max-entries:500}")
+    private int maxEntries = 500;
+
+    @Value("${restaurants.query-cache.ttl-seconds:60}")
+    private long ttlSeconds = 60;
+
+    private final Map<QueryKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<Cuisine, Set<QueryKey>> keysByCuisine = new HashMap<>();
+
+    private final Map<Cuisine, Long> generations = new EnumMap<>(Cuisine.class);
+
+    private long unfilteredGeneration;
+
+    /**
+     * Returns the cached page of the query, or {@code null} if none is cached or it has expired.
+     */
+    public synchronized PageDto<ResponseDto> get(QueryKey key) {
+        Entry entry = entries.get(key);
+        if (entry == null)
+            return null;
+        if (entry.expiresAt < System.nanoTime()) {
+            evict(key);
+            return null;
+        }
+        return entry.page;
+    }
+
+    /**
+     * Returns the generation a query for the cuisine has to pass to {@link #put} once its page is computed.
+     */
+    public synchronized long generation(Cuisine cuisine) {
+        return (cuisine == null) ? unfilteredGeneration : generations.getOrDefault(cuisine, 0L);
+    }
+
+    public synchronized void put(QueryKey key, PageDto<ResponseDto> page, long generation) {
+        if (generation != generation(key.group()))
+            return;
+        entries.put(key, new Entry(page, System.nanoTime() + ttlSeconds * 1_000_000_000L));
+        keysByCuisine.computeIfAbsent(key.group(), cuisine -> new HashSet<>()).add(key);
+        Iterator<QueryKey> eldest = entries.keySet().iterator();
+        while (entries.size() > maxEntries) {
+            QueryKey evicted = eldest.next();
+            eldest.remove();
+            removeFromGroup(evicted);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRestaurantChanged(RestaurantChangedEvent event) {
+        invalidate(event.getRestaurant().getCuisine());
+        if (event.getPrevious() != null && event.getPrevious().getCuisine() != event.getRestaurant().getCuisine())
+            invalidate(event.getPrevious().getCuisine());
+    }
+
+    private void invalidate(Cuisine cuisine) {
+        unfilteredGeneration++;
+        evictGroup(null);
+        if (cuisine != null) {
+            generations.merge(cuisine, 1L, Long::sum);
+            evictGroup(cuisine);
+        }
+    }
+
+    private void evictGroup(Cuisine cuisine) {
+        Set<QueryKey> keys = keysByCuisine.remove(cuisine);
+        if (keys != null)
+            entries.keySet().removeAll(keys);
+    }
+
+    private void evict(QueryKey key) {
+        entries.remove(key);
+        removeFromGroup(key);
+    }
+
+    private void removeFromGroup(QueryKey key) {
+        Set<QueryKey> keys = keysByCuisine.get(key.group());
+        if (keys != null && keys.remove(key) && keys.isEmpty())
+            keysByCuisine.remove(key.group());
+    }
+
+    /**
+     * A list query after validation, so equivalent spellings of the same request share one entry.
+     */
+    public record QueryKey(RestaurantFilterDto filter, List<Sort> sorts, String search, boolean fuzzy, GeoPointDto deliversTo, Set<Facet> facets, int limit, String next) {
+
+        public static QueryKey of(RestaurantFilterDto filter, List<Sort> sorts, String search, boolean fuzzy, GeoPointDto deliversTo, Set<Facet> facets, int limit, String next) {
+            String normalizedSearch = (search != null) ? search.trim().toLowerCase(Locale.ROOT) : null;
+            return new QueryKey(filter, List.copyOf(sorts), normalizedSearch, fuzzy && normalizedSearch != null, deliversTo, Set.copyOf(facets), limit, next);
+        }
+
+        /**
+         * The cuisine group the page is invalidated with, pages covering more than one cuisine, and cuisine counts that
+         * cover every cuisine, go to the unfiltered group.
+         */
+        public Cuisine group() {
+            if (facets.contains(Facet.CUISINE) || filter == null || filter.getCuisines() == null || filter.getCuisines().size() != 1)
+                return null;
+            return filter.getCuisines().iterator().next();
+        }
+    }
+
+    private record Entry(PageDto<ResponseDto> page, long expiresAt) {
+    }
+}
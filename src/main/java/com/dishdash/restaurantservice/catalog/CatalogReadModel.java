@@ -0,0 +1,100 @@
+package com.dishdash.restaurantservice.catalog;
+
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.enums.ChangeType;
+import com.dishdash.restaurantservice.event.RestaurantChangedEvent;
+import com.dishdash.restaurantservice.pagination.Cursor;
+import com.dishdash.restaurantservice.repository.RestaurantRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Publishes the current {@link CatalogSnapshot} for reads, enabled with {@code restaurants.read-model.enabled=true}.
+ * The catalog is loaded once the application is ready and reloaded on the index refresh interval to pick up writes of
+ * other instances, in between every {@link RestaurantChangedEvent} of this instance publishes a new snapshot.
+ * Readers only dereference a volatile field, writers are serialized on this object.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "restaurants.read-model.enabled", havingValue = "true")
+public class CatalogReadModel {
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    private volatile CatalogSnapshot snapshot;
+
+    private final Object reloadLock = new Object();
+
+//  Changes that arrive while a reload reads the table, they are replayed on top of the loaded snapshot.
+    private List<RestaurantChangedEvent> pendingChanges;
+
+    /**
+     * Returns the latest snapshot, or {@code null} until the catalog has been loaded.
+     */
+    public CatalogSnapshot snapshot() {
+        return snapshot;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (pendingChanges != null)
+            pendingChanges.add(event);
+        if (snapshot != null)
+            snapshot = apply(snapshot, event);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${restaurants.index.refresh-interval-ms:300000}", fixedDelayString = "${restaurants.index.refresh-interval-ms:300000}")
+    public void reload() {
+        synchronized (reloadLock) {
+            synchronized (this) {
+                pendingChanges = new ArrayList<>();
+            }
+
+            List<ResponseDto> restaurants = new ArrayList<>();
+            try {
+                Cursor after = null;
+                List<ResponseDto> page;
+                do {
+                    page = restaurantRepository.findRestaurantsPage(null, null, null, Collections.emptyList(), after, LOAD_PAGE_SIZE);
+                    restaurants.addAll(page);
+                    if (!page.isEmpty())
+                        after = Cursor.after(Collections.emptyList(), page.get(page.size() - 1));
+                } while (page.size() == LOAD_PAGE_SIZE);
+            }
+            catch (RuntimeException exception) {
+                log.warn("Loading the catalog read model failed", exception);
+                restaurants = null;
+            }
+
+            synchronized (this) {
+                if (restaurants != null) {
+                    CatalogSnapshot loaded = CatalogSnapshot.of((snapshot != null) ? snapshot.getVersion() + 1 : 1, restaurants);
+                    for (RestaurantChangedEvent change : pendingChanges)
+                        loaded = apply(loaded, change);
+                    snapshot = loaded;
+                }
+                pendingChanges = null;
+            }
+        }
+    }
+
+    private static CatalogSnapshot apply(CatalogSnapshot current, RestaurantChangedEvent event) {
+        if (event.getType() == ChangeType.DELETED)
+            return current.without(event.getRestaurant().getId());
+        return current.with(event.getRestaurant());
+    }
+}
@@ -0,0 +1,198 @@
+package com.dishdash.restaurantservice.catalog;
+
+import com.dishdash.restaurantservice.dto.FacetGroupDto;
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.dto.RestaurantFilterDto;
+import com.dishdash.restaurantservice.enums.Facet;
+import com.dishdash.restaurantservice.enums.Sort;
+import com.dishdash.restaurantservice.pagination.Cursor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable copy of the whole restaurant catalog at one version.
+ * Rows are held in id order next to a parallel array of ids, a change produces a new snapshot and leaves this one
+ * untouched, so any number of readers can use a snapshot without locking while writers publish the next one.
+ * The rows themselves are shared between snapshots and must not be modified.
+ */
+public final class CatalogSnapshot {
+
+    private final long version;
+    private final long[] ids;
+    private final ResponseDto[] rows;
+
+    private CatalogSnapshot(long version, long[] ids, ResponseDto[] rows) {
+        this.version = version;
+        this.ids = ids;
+        this.rows = rows;
+    }
+
+    public static CatalogSnapshot of(long version, List<ResponseDto> restaurants) {
+        ResponseDto[] rows = restaurants.toArray(new ResponseDto[0]);
+        Arrays.sort(rows, Comparator.comparingLong(ResponseDto::getId));
+        long[] ids = new long[rows.length];
+        for (int i = 0; i < rows.length; i++)
+            ids[i] = rows[i].getId();
+        return new CatalogSnapshot(version, ids, rows);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return rows.length;
+    }
+
+    public ResponseDto get(long id) {
+        int index = Arrays.binarySearch(ids, id);
+        return (index >= 0) ? rows[index] : null;
+    }
+
+    /**
+     * Returns the next snapshot with the restaurant added, or replacing the row with the same id.
+     */
+    public CatalogSnapshot with(ResponseDto restaurant) {
+        int index = Arrays.binarySearch(ids, restaurant.getId());
+        if (index >= 0) {
+            ResponseDto[] replacedRows = rows.clone();
+            replacedRows[index] = restaurant;
+            return new CatalogSnapshot(version + 1, ids, replacedRows);
+        }
+        int insertion = -index - 1;
+        long[] grownIds = new long[ids.length + 1];
+        ResponseDto[] grownRows = new ResponseDto[rows.length + 1];
+        System.arraycopy(ids, 0, grownIds, 0, insertion);
+        System.arraycopy(rows, 0, grownRows, 0, insertion);
+        grownIds[insertion] = restaurant.getId();
+        grownRows[insertion] = restaurant;
+        System.arraycopy(ids, insertion, grownIds, insertion + 1, ids.length - insertion);
+        System.arraycopy(rows, insertion, grownRows, insertion + 1, rows.length - insertion);
+        return new CatalogSnapshot(version + 1, grownIds, grownRows);
+    }
+
+    /**
+     * Returns the next snapshot without the restaurant, the version moves on even if the id was unknown.
+     */
+    public CatalogSnapshot without(long id) {
+        int index = Arrays.binarySearch(ids, id);
+        if (index < 0)
+            return new CatalogSnapshot(version + 1, ids, rows);
+        long[] shrunkIds = new long[ids.length - 1];
+        ResponseDto[] shrunkRows = new ResponseDto[rows.length - 1];
+        System.arraycopy(ids, 0, shrunkIds, 0, index);
+        System.arraycopy(rows, 0, shrunkRows, 0, index);
+        System.arraycopy(ids, index + 1, shrunkIds, index, ids.length - index - 1);
+        System.arraycopy(rows, index + 1, shrunkRows, index, rows.length - index - 1);
+        return new CatalogSnapshot(version + 1, shrunkIds, shrunkRows);
+    }
+
+    /**
+     * In-memory equivalent of {@code RestaurantRepositoryCustom.findRestaurantsPage}, with the same filters,
+     * sort order and keyset semantics.
+     */
+    public List<ResponseDto> page(RestaurantFilterDto filter, String search, Collection<Long> candidateIds, List<Sort> sorts, Cursor after, int limit) {
+        String normalizedSearch = (search != null) ? search.toLowerCase(Locale.ROOT) : null;
+        Comparator<ResponseDto> order = order(sorts);
+
+//      Without sort keys the rows are already in page order, seek to the cursor and stop once the page is full.
+        if (sorts.isEmpty() && candidateIds == null) {
+            List<ResponseDto> page = new ArrayList<>();
+            int start = 0;
+            if (after != null) {
+                int index = Arrays.binarySearch(ids, after.getLastId());
+                start = (index >= 0) ? index + 1 : -index - 1;
+            }
+            for (int i = start; i < rows.length && page.size() < limit; i++) {
+                if (matches(rows[i], filter, normalizedSearch))
+                    page.add(rows[i]);
+            }
+            return page;
+        }
+
+//      Otherwise keep the first rows after the cursor in a bounded heap whose head is the last row of the page.
+        PriorityQueue<ResponseDto> heap = new PriorityQueue<>(limit + 1, order.reversed());
+        if (candidateIds != null) {
+            for (Long id : candidateIds) {
+                ResponseDto row = get(id);
+                if (row != null)
+                    offer(heap, row, filter, normalizedSearch, sorts, after, limit);
+            }
+        }
+        else {
+            for (ResponseDto row : rows)
+                offer(heap, row, filter, normalizedSearch, sorts, after, limit);
+        }
+        List<ResponseDto> page = new ArrayList<>(heap);
+        page.sort(order);
+        return page;
+    }
+
+    /**
+     * In-memory equivalent of {@code RestaurantRepositoryCustom.countFacetGroups}, counted in one pass over the rows.
+     */
+    public List<FacetGroupDto> countFacetGroups(RestaurantFilterDto filter, String search, Collection<Long> candidateIds, int[] deliveryFeeBounds, int[] deliveryTimeBounds) {
+        String normalizedSearch = (search != null) ? search.toLowerCase(Locale.ROOT) : null;
+        Map<List<Object>, FacetGroupDto> groups = new HashMap<>();
+        Iterable<ResponseDto> candidates = (candidateIds != null) ? candidateIds.stream().map(this::get).filter(Objects::nonNull).toList() : Arrays.asList(rows);
+        for (ResponseDto row : candidates) {
+            if (!matches(row, null, normalizedSearch) || !withinBounds(row, filter))
+                continue;
+            int deliveryFeeBucket = Facet.bucketOf(row.getDeliveryFee(), deliveryFeeBounds);
+            int deliveryTimeBucket = Facet.bucketOf(row.getAverageDeliveryTimeInMinutes(), deliveryTimeBounds);
+            FacetGroupDto group = groups.computeIfAbsent(Arrays.asList(row.getCuisine(), row.getCurrencyUsed(), deliveryFeeBucket, deliveryTimeBucket),
+                    key -> new FacetGroupDto(row.getCuisine(), row.getCurrencyUsed(), deliveryFeeBucket, deliveryTimeBucket, 0));
+            group.setCount(group.getCount() + 1);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    private static void offer(PriorityQueue<ResponseDto> heap, ResponseDto row, RestaurantFilterDto filter, String normalizedSearch,
+                              List<Sort> sorts, Cursor after, int limit) {
+        if (!matches(row, filter, normalizedSearch) || (after != null && !isAfter(row, sorts, after)))
+            return;
+        heap.offer(row);
+        if (heap.size() > limit)
+            heap.poll();
+    }
+
+    private static boolean matches(ResponseDto row, RestaurantFilterDto filter, String normalizedSearch) {
+        return (filter == null || filter.getCuisines() == null || (row.getCuisine() != null && filter.getCuisines().contains(row.getCuisine())))
+                && (filter == null || filter.getCurrencies() == null || (row.getCurrencyUsed() != null && filter.getCurrencies().contains(row.getCurrencyUsed())))
+                && withinBounds(row, filter)
+                && (normalizedSearch == null || row.getName().toLowerCase(Locale.ROOT).contains(normalizedSearch));
+    }
+
+    private static boolean withinBounds(ResponseDto row, RestaurantFilterDto filter) {
+        return filter == null
+                || ((filter.getMinRating() == null || row.getRating() >= filter.getMinRating())
+                && (filter.getMaxDeliveryFee() == null || row.getDeliveryFee() <= filter.getMaxDeliveryFee())
+                && (filter.getMaxDeliveryTime() == null || row.getAverageDeliveryTimeInMinutes() <= filter.getMaxDeliveryTime())
+                && (filter.getMaxMinimumOrderAmount() == null || row.getMinimumOrderAmount() <= filter.getMaxMinimumOrderAmount()));
+    }
+
+    private static boolean isAfter(ResponseDto row, List<Sort> sorts, Cursor after) {
+        for (int i = 0; i < sorts.size(); i++) {
+            int comparison = sorts.get(i).compareToKey(row, after.getKeys().get(i));
+            if (comparison != 0)
+                return comparison > 0;
+        }
+        return row.getId() > after.getLastId();
+    }
+
+    private static Comparator<ResponseDto> order(List<Sort> sorts) {
+        Comparator<ResponseDto> order = (first, second) -> 0;
+        for (Sort sort : sorts)
+            order = order.thenComparing(sort::compare);
+        return order.thenComparingLong(ResponseDto::getId);
+    }
+}
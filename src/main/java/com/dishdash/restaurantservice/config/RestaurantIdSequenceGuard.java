@@ -0,0 +1,71 @@
+package com.dishdash.restaurantservice.config;
+
+import com.dishdash.restaurantservice.entity.Restaurant;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves the restaurant id sequence above the ids already in the table before the application takes writes.
+ * Tables filled while ids were IDENTITY columns start the sequence, or the one-row table emulating it on MySQL, at 1,
+ * so its first blocks would hand out ids that exist. The pooled optimizer hands out the block ending at the value it
+ * reads, so the next value has to be at least one allocation above the largest id. Startup fails if it is not.
+ */
+@Component
+public class RestaurantIdSequenceGuard {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void seedAboveExistingIds() {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        transactionTemplate.executeWithoutResult(status -> {
+            long required = maxId() + Restaurant.ID_ALLOCATION_SIZE + 1;
+            long next = dialect.getSequenceSupport().supportsSequences() ? seedSequence(dialect, required) : seedTable(required);
+            if (next < required)
+                throw new IllegalStateException(Restaurant.ID_SEQUENCE + " is at " + next + ", behind the restaurant ids, it has to be at least " + required);
+        });
+    }
+
+    private long maxId() {
+        return ((Number) entityManager.createNativeQuery("SELECT COALESCE(MAX(id), 0) FROM restaurants").getSingleResult()).longValue();
+    }
+
+//  Reading a sequence draws a value, the gap it leaves is harmless.
+    private long seedSequence(Dialect dialect, long required) {
+        String nextValue = dialect.getSequenceSupport().getSequenceNextValString(Restaurant.ID_SEQUENCE);
+        long drawn = number(nextValue);
+        if (drawn >= required)
+            return drawn;
+        entityManager.createNativeQuery("ALTER SEQUENCE " + Restaurant.ID_SEQUENCE + " RESTART WITH " + required).executeUpdate();
+        return number(nextValue);
+    }
+
+//  The row stays locked until the commit, so an instance drawing a block meanwhile waits and reads the new value.
+    private long seedTable(long required) {
+        Number next = (Number) entityManager.createNativeQuery("SELECT next_val FROM " + Restaurant.ID_SEQUENCE + " FOR UPDATE")
+                .getResultStream().findFirst().orElse(null);
+        if (next == null)
+            entityManager.createNativeQuery("INSERT INTO " + Restaurant.ID_SEQUENCE + " (next_val) VALUES (" + required + ")").executeUpdate();
+        else if (next.longValue() < required)
+            entityManager.createNativeQuery("UPDATE " + Restaurant.ID_SEQUENCE + " SET next_val = " + required).executeUpdate();
+        return ((Number) entityManager.createNativeQuery("SELECT next_val FROM " + Restaurant.ID_SEQUENCE).getSingleResult()).longValue();
+    }
+
+    private long number(String sql) {
+        return ((Number) entityManager.createNativeQuery(sql).getSingleResult()).longValue();
+    }
+}
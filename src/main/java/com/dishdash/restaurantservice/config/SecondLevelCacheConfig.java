@@ -0,0 +1,61 @@
+package com.dishdash.restaurantservice.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Local Ehcache backed JCache manager for the Hibernate second-level cache.
+ * The restaurant entity region is created here with a bounded heap and a time to live so Hibernate never falls back
+ * to an unbounded default region, and its statistics are bound to the Micrometer registry as {@code cache.*} meters.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String RESTAURANT_REGION = "restaurants";
+
+    @Value("${restaurants.cache.entity.max-entries:10000}")
+    private long maxEntries;
+
+    @Value("${restaurants.cache.entity.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager() {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        DefaultConfiguration configuration = new DefaultConfiguration(Map.of(RESTAURANT_REGION,
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+                        .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ttlSeconds)))
+                        .build()), provider.getDefaultClassLoader());
+//      Managers are keyed by URI, a private one per application context keeps test contexts from sharing regions.
+        CacheManager cacheManager = provider.getCacheManager(URI.create("urn:restaurant-service:l2:" + System.identityHashCode(this)), configuration);
+        cacheManager.enableStatistics(RESTAURANT_REGION, true);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager secondLevelCacheManager) {
+        return new JCacheMetrics<>(secondLevelCacheManager.getCache(RESTAURANT_REGION), Collections.emptyList());
+    }
+}
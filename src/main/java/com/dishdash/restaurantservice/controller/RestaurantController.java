@@ -1,14 +1,47 @@
 package com.dishdash.restaurantservice.controller;
 
+import com.dishdash.restaurantservice.cache.RestaurantJsonCache;
+import com.dishdash.restaurantservice.dto.BatchGetRequestDto;
+import com.dishdash.restaurantservice.dto.BatchGetResponseDto;
+import com.dishdash.restaurantservice.dto.ChangesDto;
+import com.dishdash.restaurantservice.dto.ImportResponseDto;
+import com.dishdash.restaurantservice.dto.NearbyRestaurantDto;
+import com.dishdash.restaurantservice.dto.PageDto;
 import com.dishdash.restaurantservice.dto.RequestDto;
 import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.dto.RestaurantQueryDto;
+import com.dishdash.restaurantservice.dto.SuggestionDto;
 import com.dishdash.restaurantservice.enums.Cuisine;
+import com.dishdash.restaurantservice.enums.ExportFormat;
+import com.dishdash.restaurantservice.exception.BadRequestException;
+import com.dishdash.restaurantservice.export.RestaurantExportWriter;
 import com.dishdash.restaurantservice.service.RestaurantService;
+import com.dishdash.restaurantservice.sse.RestaurantEventBroadcaster;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping(path = "/api/restaurants")
@@ -17,16 +50,64 @@ public class RestaurantController {
     @Autowired
     private RestaurantService restaurantService;
 
+    @Autowired
+    private RestaurantJsonCache restaurantJsonCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RestaurantExportWriter restaurantExportWriter;
+
+    @Autowired
+    private RestaurantEventBroadcaster restaurantEventBroadcaster;
+
+    @Value("${restaurants.http.max-age-seconds:30}")
+    private long maxAgeSeconds = 30;
+
     @PostMapping(path = "")
     public ResponseEntity<ResponseDto> addRestaurant(@RequestBody RequestDto requestDto){
         ResponseDto addedRestaurantResponseDto = restaurantService.addRestaurant(requestDto);
         return new ResponseEntity<>(addedRestaurantResponseDto, HttpStatus.CREATED);
     }
 
+    // Bulk import of a JSON array or of newline delimited JSON, rows are parsed one at a time while they are imported.
+    @PostMapping(path = "/_import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportResponseDto> importRestaurants(HttpServletRequest request) throws IOException{
+        try(MappingIterator<RequestDto> requestDtos = objectMapper.readerFor(RequestDto.class).readValues(request.getInputStream())){
+            ImportResponseDto importResponseDto = restaurantService.importRestaurants(requestDtos);
+            return new ResponseEntity<>(importResponseDto, HttpStatus.OK);
+        }
+        catch (RuntimeException exception){
+//          MappingIterator reports malformed rows as unchecked exceptions wrapping the Jackson error.
+            if(exception.getCause() instanceof JsonProcessingException jsonProcessingException)
+                throw new BadRequestException("import body", jsonProcessingException.getOriginalMessage());
+            throw exception;
+        }
+    }
+
     @GetMapping(path = "/{id}")
-    public ResponseEntity<ResponseDto> getRestaurant(@PathVariable("id") long id){
-        ResponseDto retrievedResponseDto = restaurantService.getRestaurant(id);
-        return new ResponseEntity<>(retrievedResponseDto, HttpStatus.OK);
+    public ResponseEntity<byte[]> getRestaurant(@PathVariable("id") long id, WebRequest webRequest){
+//      Restaurants are written from their cached JSON, the service is only asked on a miss.
+//      A matching If-None-Match is answered with 304 from the tag of the cached JSON alone.
+        String etag = restaurantJsonCache.etag(id);
+        RestaurantJsonCache.Fragment fragment = null;
+        if(etag == null){
+            fragment = restaurantJsonCache.get(id, () -> restaurantService.getRestaurant(id));
+            etag = fragment.etag();
+        }
+        if(webRequest.checkNotModified(etag))
+            return null;
+        if(fragment == null)
+            fragment = restaurantJsonCache.get(id, () -> restaurantService.getRestaurant(id));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).eTag(fragment.etag()).cacheControl(cacheControl()).body(fragment.json());
+    }
+
+    // Resolves many restaurants in one call, ids that do not exist are listed as missing instead of failing the request.
+    @PostMapping(path = "/_batchGet")
+    public ResponseEntity<BatchGetResponseDto> getRestaurants(@RequestBody BatchGetRequestDto batchGetRequestDto){
+        BatchGetResponseDto batchGetResponseDto = restaurantService.getRestaurants(batchGetRequestDto.getIds());
+        return new ResponseEntity<>(batchGetResponseDto, HttpStatus.OK);
     }
 
     @DeleteMapping("/{id}")
@@ -35,14 +116,82 @@ public class RestaurantController {
         return new ResponseEntity<>(deletedResponseDto, HttpStatus.OK);
     }
 
+    // Query parameters are bound by name: cuisine, currency, minRating, maxDeliveryFee, maxDeliveryTime, maxMinOrder,
+    // sortBy, search, fuzzy, deliversTo, facets, limit and next.
     @GetMapping("")
-    public ResponseEntity<List<ResponseDto>> getAllRestaurants(
+    public ResponseEntity<byte[]> getAllRestaurants(RestaurantQueryDto query, WebRequest webRequest){
+        long jsonGeneration = restaurantJsonCache.generation();
+        PageDto<ResponseDto> responseDtoPage = restaurantService.getAllRestaurants(query);
+        byte[] pageJson = restaurantJsonCache.page(responseDtoPage, jsonGeneration);
+//      The page may come from the caches or the read model of this instance, so the tag is taken from the bytes served.
+        String etag = RestaurantJsonCache.pageEtag(pageJson);
+        if(webRequest.checkNotModified(etag))
+            return null;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).eTag(etag).cacheControl(cacheControl()).body(pageJson);
+    }
+
+    // Streaming mode, all matching restaurants as one JSON array written while the rows are read.
+    @GetMapping(path = "", params = "stream=true")
+    public void streamRestaurants(
             @RequestParam(required = false) String cuisine,
             @RequestParam(required = false) String sortBy,
-            @RequestParam(required = false) String search
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            HttpServletResponse response
             ){
-        List<ResponseDto> responseDtoList = restaurantService.getAllRestaurants(cuisine, sortBy, search);
-        return new ResponseEntity<>(responseDtoList, HttpStatus.OK);
+        restaurantService.streamRestaurants(cuisine, sortBy, search, fuzzy, responseDtoStream -> {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            try(JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())){
+                generator.writeStartArray();
+                Iterator<ResponseDto> responseDtoIterator = responseDtoStream.iterator();
+                while(responseDtoIterator.hasNext())
+                    generator.writeObject(responseDtoIterator.next());
+                generator.writeEndArray();
+            }
+            catch (IOException exception){
+                throw new UncheckedIOException(exception);
+            }
+        });
+    }
+
+    // Full catalog export, one row per line as NDJSON or CSV, resumable after the last id received.
+    @GetMapping(path = "/_export")
+    public void exportRestaurants(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Long afterId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response
+            ){
+        ExportFormat exportFormat = ExportFormat.of(format);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        restaurantService.exportRestaurants(afterId, responseDtoStream -> {
+            response.setContentType(exportFormat.getContentType());
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            if(gzip)
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            try(OutputStream out = gzip ? new GZIPOutputStream(response.getOutputStream()) : response.getOutputStream()){
+                restaurantExportWriter.write(exportFormat, responseDtoStream, out);
+            }
+            catch (IOException exception){
+                throw new UncheckedIOException(exception);
+            }
+        });
+    }
+
+    // Delta sync, restaurants written and ids deleted after the since watermark, next is the watermark of the following call.
+    @GetMapping(path = "/_changes")
+    public ResponseEntity<ChangesDto> getChanges(
+            @RequestParam(required = false) Long since,
+            @RequestParam(required = false) Integer limit
+            ){
+        ChangesDto changesDto = restaurantService.getChanges(since, limit);
+        return new ResponseEntity<>(changesDto, HttpStatus.OK);
+    }
+
+    // Server-Sent Events feed of committed changes, a reconnecting client resumes after its Last-Event-ID.
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId){
+        return restaurantEventBroadcaster.subscribe(lastEventId);
     }
 
     @PutMapping(path = "/{id}")
@@ -51,10 +200,66 @@ public class RestaurantController {
         return new ResponseEntity<>(responseDto, HttpStatus.OK);
     }
 
+    // Restaurants within radiusKm of a point, nearest first, each with its distance.
+    @GetMapping(path = "/nearby")
+    public ResponseEntity<List<NearbyRestaurantDto>> getNearbyRestaurants(
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) String cuisine,
+            @RequestParam(required = false) Integer limit
+            ){
+        List<NearbyRestaurantDto> nearbyRestaurants = restaurantService.getNearbyRestaurants(lat, lon, radiusKm, cuisine, limit);
+        return new ResponseEntity<>(nearbyRestaurants, HttpStatus.OK);
+    }
+
     @GetMapping(path = "/cuisines")
     public ResponseEntity<Cuisine[]> getCuisines(){
         Cuisine[] cuisines = restaurantService.getAllCuisines();
         return new ResponseEntity<>(cuisines, HttpStatus.OK);
     }
 
+    @GetMapping(path = "/suggest")
+    public ResponseEntity<List<SuggestionDto>> suggestRestaurants(
+            @RequestParam(required = false) String prefix,
+            @RequestParam(required = false) Integer limit
+            ){
+        List<SuggestionDto> suggestions = restaurantService.suggestRestaurants(prefix, limit);
+        return new ResponseEntity<>(suggestions, HttpStatus.OK);
+    }
+
+    private CacheControl cacheControl(){
+        return CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+    }
+
+//  Whether Accept-Encoding allows gzip, named or through *, with a non zero q-value. A gzip entry overrides *,
+//  so "*, gzip;q=0" and "identity, gzip;q=0" both refuse it.
+    private static boolean acceptsGzip(String acceptEncoding){
+        if(acceptEncoding == null)
+            return false;
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for(String entry : acceptEncoding.split(",")){
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for(int i = 1; i < parts.length; i++){
+                String parameter = parts[i].trim().toLowerCase(Locale.ROOT);
+                if(parameter.startsWith("q=")){
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    }
+                    catch (NumberFormatException exception){
+                        quality = 0;
+                    }
+                }
+            }
+            if(coding.equals("gzip") || coding.equals("x-gzip"))
+                gzipQuality = quality;
+            else if(coding.equals("*"))
+                anyQuality = quality;
+        }
+        Double quality = (gzipQuality != null) ? gzipQuality : anyQuality;
+        return quality != null && quality > 0;
+    }
 }
@@ -0,0 +1,14 @@
+package com.dishdash.restaurantservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchGetRequestDto {
+    private List<Long> ids;
+}
@@ -0,0 +1,15 @@
+package com.dishdash.restaurantservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchGetResponseDto {
+    private List<ResponseDto> content;
+    private List<Long> missing;
+}
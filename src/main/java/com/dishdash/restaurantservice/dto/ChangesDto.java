@@ -0,0 +1,17 @@
+package com.dishdash.restaurantservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ChangesDto {
+    private List<ResponseDto> changed;
+    private List<Long> deleted;
+    private long next;
+    private boolean hasMore;
+}
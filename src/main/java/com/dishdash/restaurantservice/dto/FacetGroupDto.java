@@ -0,0 +1,19 @@
+package com.dishdash.restaurantservice.dto;
+
+import com.dishdash.restaurantservice.enums.Cuisine;
+import com.dishdash.restaurantservice.enums.Currency;
+import lombok.*;
+
+// Number of matching restaurants sharing a cuisine, a currency, a delivery fee bucket and a delivery time bucket.
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class FacetGroupDto {
+    private Cuisine cuisine;
+    private Currency currencyUsed;
+    private int deliveryFeeBucket;
+    private int deliveryTimeBucket;
+    private long count;
+}
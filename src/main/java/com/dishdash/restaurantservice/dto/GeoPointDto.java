@@ -0,0 +1,15 @@
+package com.dishdash.restaurantservice.dto;
+
+import lombok.*;
+
+// Compared by value so an unchanged delivery zone does not make its restaurant dirty.
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@EqualsAndHashCode
+public class GeoPointDto {
+    private double latitude;
+    private double longitude;
+}
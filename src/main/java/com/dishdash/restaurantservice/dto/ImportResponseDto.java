@@ -0,0 +1,17 @@
+package com.dishdash.restaurantservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ImportResponseDto {
+    private int created;
+    private int duplicates;
+    private int invalid;
+    private List<ImportRowResultDto> results;
+}
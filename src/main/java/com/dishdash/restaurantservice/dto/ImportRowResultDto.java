@@ -0,0 +1,16 @@
+package com.dishdash.restaurantservice.dto;
+
+import com.dishdash.restaurantservice.enums.ImportStatus;
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ImportRowResultDto {
+    private int row;
+    private ImportStatus status;
+    private Long id;
+    private String message;
+}
@@ -0,0 +1,15 @@
+package com.dishdash.restaurantservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class NearbyRestaurantDto {
+    @JsonUnwrapped
+    private ResponseDto restaurant;
+    private double distanceKm;
+}
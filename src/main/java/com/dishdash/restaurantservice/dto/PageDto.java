@@ -0,0 +1,25 @@
+package com.dishdash.restaurantservice.dto;
+
+import com.dishdash.restaurantservice.enums.Facet;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PageDto<T> {
+    private List<T> content;
+    private String next;
+    // Counts of all matching restaurants per facet value, only present when facets were requested.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<Facet, Map<String, Long>> facets;
+
+    public PageDto(List<T> content, String next) {
+        this(content, next, null);
+    }
+}
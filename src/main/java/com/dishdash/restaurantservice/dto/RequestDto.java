@@ -6,6 +6,8 @@ import com.dishdash.restaurantservice.enums.Currency;
 import jakarta.persistence.Column;
 import lombok.*;
 
+import java.util.List;
+
 @Getter
 @Setter
 @AllArgsConstructor
@@ -23,4 +25,7 @@ public class RequestDto {
     private int deliveryFee;
     private int minimumOrderAmount;
     private Currency currencyUsed;
+    private Double latitude;
+    private Double longitude;
+    private List<List<GeoPointDto>> deliveryZones;
 }
@@ -2,8 +2,11 @@ package com.dishdash.restaurantservice.dto;
 
 import com.dishdash.restaurantservice.enums.Cuisine;
 import com.dishdash.restaurantservice.enums.Currency;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 
+import java.util.List;
+
 
 @Getter
 @Setter
@@ -22,4 +25,11 @@ public class ResponseDto {
     private int deliveryFee;
     private int minimumOrderAmount;
     private Currency currencyUsed;
+    private Double latitude;
+    private Double longitude;
+    private List<List<GeoPointDto>> deliveryZones;
+    @JsonIgnore
+    private long version;
+    @JsonIgnore
+    private long changeVersion;
 }
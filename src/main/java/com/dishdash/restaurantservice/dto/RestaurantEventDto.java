@@ -0,0 +1,16 @@
+package com.dishdash.restaurantservice.dto;
+
+import com.dishdash.restaurantservice.enums.ChangeType;
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RestaurantEventDto {
+    private long version;
+    private ChangeType type;
+    private long id;
+    private ResponseDto restaurant;
+}
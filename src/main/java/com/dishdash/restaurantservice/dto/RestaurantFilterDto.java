@@ -0,0 +1,25 @@
+package com.dishdash.restaurantservice.dto;
+
+import com.dishdash.restaurantservice.enums.Cuisine;
+import com.dishdash.restaurantservice.enums.Currency;
+import lombok.*;
+
+import java.util.Set;
+
+// Attribute filters of a restaurant listing, a restaurant matches when it has one of the values of every given attribute
+// and lies within every given bound, bounds are inclusive. A null set or bound does not restrict the attribute.
+// Compared by value, as it is part of the query cache key.
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@EqualsAndHashCode
+public class RestaurantFilterDto {
+    private Set<Cuisine> cuisines;
+    private Set<Currency> currencies;
+    private Float minRating;
+    private Integer maxDeliveryFee;
+    private Integer maxDeliveryTime;
+    private Integer maxMinimumOrderAmount;
+}
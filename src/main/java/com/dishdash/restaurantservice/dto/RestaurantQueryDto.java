@@ -0,0 +1,26 @@
+package com.dishdash.restaurantservice.dto;
+
+import lombok.*;
+
+// Query parameters of the restaurant list as received, bound by name and validated by the service.
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@EqualsAndHashCode
+public class RestaurantQueryDto {
+    private String cuisine;
+    private String currency;
+    private Float minRating;
+    private Integer maxDeliveryFee;
+    private Integer maxDeliveryTime;
+    private Integer maxMinOrder;
+    private String sortBy;
+    private String search;
+    private boolean fuzzy;
+    private String deliversTo;
+    private String facets;
+    private Integer limit;
+    private String next;
+}
@@ -0,0 +1,13 @@
+package com.dishdash.restaurantservice.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SuggestionDto {
+    private long id;
+    private String name;
+}
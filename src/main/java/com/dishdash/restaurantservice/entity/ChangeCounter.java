@@ -0,0 +1,17 @@
+package com.dishdash.restaurantservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "change_counters")
+public class ChangeCounter {
+    @Id
+    private String name;
+    // Last change version handed out, the row is locked by every write until it commits.
+    private long lastVersion;
+}
@@ -0,0 +1,54 @@
+package com.dishdash.restaurantservice.entity;
+
+import com.dishdash.restaurantservice.dto.GeoPointDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores the delivery zones of a restaurant in one column as nested JSON arrays of {@code [latitude, longitude]} pairs,
+ * the zones are always read and written as a whole and never queried by the database.
+ */
+@Converter
+public class DeliveryZonesConverter implements AttributeConverter<List<List<GeoPointDto>>, String> {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Override
+    public String convertToDatabaseColumn(List<List<GeoPointDto>> zones) {
+        if (zones == null)
+            return null;
+        List<List<double[]>> pairs = new ArrayList<>();
+        for (List<GeoPointDto> zone : zones)
+            pairs.add(zone.stream().map(point -> new double[]{point.getLatitude(), point.getLongitude()}).toList());
+        try {
+            return OBJECT_MAPPER.writeValueAsString(pairs);
+        }
+        catch (JsonProcessingException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    @Override
+    public List<List<GeoPointDto>> convertToEntityAttribute(String json) {
+        if (json == null)
+            return null;
+        try {
+            List<List<GeoPointDto>> zones = new ArrayList<>();
+            for (double[][] zone : OBJECT_MAPPER.readValue(json, double[][][].class)) {
+                List<GeoPointDto> points = new ArrayList<>();
+                for (double[] pair : zone)
+                    points.add(new GeoPointDto(pair[0], pair[1]));
+                zones.add(points);
+            }
+            return zones;
+        }
+        catch (JsonProcessingException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
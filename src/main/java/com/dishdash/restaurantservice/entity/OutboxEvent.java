@@ -0,0 +1,32 @@
+package com.dishdash.restaurantservice.entity;
+
+import com.dishdash.restaurantservice.enums.ChangeType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+// Written in the transaction of the restaurant change it describes, deleted once the relay has delivered it.
+@Table(name = "outbox_events")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private long id;
+    private long restaurantId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ChangeType type;
+    private long changeVersion;
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -1,20 +1,52 @@
 package com.dishdash.restaurantservice.entity;
 
+import com.dishdash.restaurantservice.dto.GeoPointDto;
 import com.dishdash.restaurantservice.enums.Cuisine;
 import com.dishdash.restaurantservice.enums.Currency;
+import com.dishdash.restaurantservice.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.util.List;
 
 @Entity
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "restaurants")
+// Each Sort key gets an index ending in the primary key so ORDER BY key, id and the keyset seek
+// can be read straight off the index; cuisine-first variants cover the filtered home page listings.
+// Range filters lead with their equality column and put the range column next, so the range is one index slice,
+// a second range column after the first is checked on the index entries before any row is read.
+@Table(name = "restaurants", indexes = {
+        @Index(name = "idx_restaurants_rating", columnList = "rating DESC, id"),
+        @Index(name = "idx_restaurants_name", columnList = "name, id"),
+        @Index(name = "idx_restaurants_delivery_time", columnList = "averageDeliveryTimeInMinutes, id"),
+        @Index(name = "idx_restaurants_delivery_fee", columnList = "deliveryFee, id"),
+        @Index(name = "idx_restaurants_min_order_amount", columnList = "minimumOrderAmount, id"),
+        @Index(name = "idx_restaurants_rating_delivery_fee", columnList = "rating DESC, deliveryFee, id"),
+        @Index(name = "idx_restaurants_cuisine_rating", columnList = "cuisine, rating DESC, id"),
+        @Index(name = "idx_restaurants_cuisine_delivery_fee", columnList = "cuisine, deliveryFee, id"),
+        @Index(name = "idx_restaurants_cuisine_delivery_time", columnList = "cuisine, averageDeliveryTimeInMinutes, id"),
+        @Index(name = "idx_restaurants_delivery_fee_delivery_time", columnList = "deliveryFee, averageDeliveryTimeInMinutes, id"),
+        @Index(name = "idx_restaurants_change_version", columnList = "changeVersion"),
+        @Index(name = "idx_restaurants_location", columnList = "latitude, longitude")
+})
 @Builder
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.RESTAURANT_REGION)
 public class Restaurant {
+    public static final String ID_SEQUENCE = "restaurants_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Ids are handed out from a pooled sequence, IDENTITY would make Hibernate insert every row on its own.
+    // Databases without sequences, like MySQL, get a one-row table emulating it, RestaurantIdSequenceGuard moves
+    // either above the ids already in the table on startup.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private long id;
     @Column(nullable = false)
     private String name;
@@ -31,4 +63,16 @@ public class Restaurant {
     private int minimumOrderAmount;
     @Enumerated(EnumType.STRING)
     private Currency currencyUsed;
+    // WGS84 coordinates in degrees, both are null for restaurants without a known location.
+    private Double latitude;
+    private Double longitude;
+    // Polygons the restaurant delivers to, null when it does not deliver anywhere.
+    @Lob
+    @Convert(converter = DeliveryZonesConverter.class)
+    private List<List<GeoPointDto>> deliveryZones;
+    // Advanced by every update, also serves as the entity tag of the restaurant.
+    @Version
+    private long version;
+    // Catalog wide version of the last write, assigned in commit order, see ChangeVersions.
+    private long changeVersion;
 }
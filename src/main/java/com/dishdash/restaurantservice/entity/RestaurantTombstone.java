@@ -0,0 +1,19 @@
+package com.dishdash.restaurantservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+// Left behind by every delete, so delta consumers learn about restaurants that no longer have a row.
+@Table(name = "restaurant_tombstones", indexes = {
+        @Index(name = "idx_restaurant_tombstones_change_version", columnList = "changeVersion")
+})
+public class RestaurantTombstone {
+    @Id
+    private long restaurantId;
+    private long changeVersion;
+}
@@ -0,0 +1,7 @@
+package com.dishdash.restaurantservice.enums;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+}
@@ -0,0 +1,29 @@
+package com.dishdash.restaurantservice.enums;
+
+import com.dishdash.restaurantservice.exception.BadRequestException;
+
+import java.util.Locale;
+
+public enum ExportFormat {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String contentType;
+
+    ExportFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static ExportFormat of(String format) {
+        try {
+            return ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        }
+        catch (IllegalArgumentException | NullPointerException exception) {
+            throw new BadRequestException("format", format);
+        }
+    }
+}
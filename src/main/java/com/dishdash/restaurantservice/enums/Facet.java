@@ -0,0 +1,20 @@
+package com.dishdash.restaurantservice.enums;
+
+public enum Facet {
+    CUISINE,
+    CURRENCY,
+    DELIVERY_FEE,
+    DELIVERY_TIME;
+
+    // Bounds are the ascending lower bounds of the buckets, values below the first bound are counted in the first bucket.
+    public static int bucketOf(int value, int[] bounds) {
+        int bucket = 0;
+        while (bucket + 1 < bounds.length && value >= bounds[bucket + 1])
+            bucket++;
+        return bucket;
+    }
+
+    public static String bucketLabel(int bucket, int[] bounds) {
+        return (bucket + 1 < bounds.length) ? bounds[bucket] + "-" + (bounds[bucket + 1] - 1) : bounds[bucket] + "+";
+    }
+}
@@ -1,9 +1,61 @@
 package com.dishdash.restaurantservice.enums;
 
+import com.dishdash.restaurantservice.dto.ResponseDto;
+
+import java.util.function.Function;
+
 public enum Sort {
-    RATING,
-    NAME,
-    DELIVERY_TIME,
-    DELIVERY_FEE,
-    MIN_ORDER_AMOUNT,
+    // Ratings are bound as the exact double value of the stored float, MySQL compares FLOAT columns
+    // against a decimal literal like "4.6" as unequal which would break the keyset tie-break.
+    RATING("rating", true, ResponseDto::getRating, key -> (double) Float.parseFloat(key)),
+    NAME("name", false, ResponseDto::getName, key -> key),
+    DELIVERY_TIME("averageDeliveryTimeInMinutes", false, ResponseDto::getAverageDeliveryTimeInMinutes, Integer::valueOf),
+    DELIVERY_FEE("deliveryFee", false, ResponseDto::getDeliveryFee, Integer::valueOf),
+    MIN_ORDER_AMOUNT("minimumOrderAmount", false, ResponseDto::getMinimumOrderAmount, Integer::valueOf);
+
+    private final String attribute;
+    private final boolean descending;
+    private final Function<ResponseDto, Object> keyExtractor;
+    private final Function<String, Object> keyParser;
+
+    Sort(String attribute, boolean descending, Function<ResponseDto, Object> keyExtractor, Function<String, Object> keyParser) {
+        this.attribute = attribute;
+        this.descending = descending;
+        this.keyExtractor = keyExtractor;
+        this.keyParser = keyParser;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public String keyOf(ResponseDto restaurant) {
+        return String.valueOf(keyExtractor.apply(restaurant));
+    }
+
+    public Object parseKey(String key) {
+        return keyParser.apply(key);
+    }
+
+    // In-memory counterparts of the ORDER BY and keyset predicate, descending sorts compare reversed.
+    public int compare(ResponseDto first, ResponseDto second) {
+        int comparison = compareKeys(keyExtractor.apply(first), keyExtractor.apply(second));
+        return descending ? -comparison : comparison;
+    }
+
+    public int compareToKey(ResponseDto restaurant, String key) {
+        int comparison = compareKeys(keyExtractor.apply(restaurant), parseKey(key));
+        return descending ? -comparison : comparison;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareKeys(Object first, Object second) {
+        if (first instanceof Number firstNumber && second instanceof Number secondNumber)
+            return Double.compare(firstNumber.doubleValue(), secondNumber.doubleValue());
+        return ((Comparable<Object>) first).compareTo(second);
+    }
 }
@@ -0,0 +1,23 @@
+package com.dishdash.restaurantservice.event;
+
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.enums.ChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by the service after a restaurant is written.
+ * Carries the restaurant as it is after the change, or as it was before a delete, and for updates also the state
+ * before the change so listeners can tell which lists the restaurant left.
+ */
+@Getter
+@AllArgsConstructor
+public class RestaurantChangedEvent {
+    private final ChangeType type;
+    private final ResponseDto restaurant;
+    private final ResponseDto previous;
+
+    public RestaurantChangedEvent(ChangeType type, ResponseDto restaurant) {
+        this(type, restaurant, null);
+    }
+}
@@ -0,0 +1,86 @@
+package com.dishdash.restaurantservice.export;
+
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.enums.ExportFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes exported restaurants one row at a time as they are read, either as newline delimited JSON or as RFC 4180 CSV
+ * with a header row. Nothing but the row being written is held in memory.
+ */
+@Component
+public class RestaurantExportWriter {
+
+    private static final String CSV_HEADER = "id,name,cuisine,address,rating,contactNumber,website," +
+            "averageDeliveryTimeInMinutes,deliveryFee,minimumOrderAmount,currencyUsed,latitude,longitude";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void write(ExportFormat format, Stream<ResponseDto> restaurants, OutputStream out) throws IOException {
+        if (format == ExportFormat.NDJSON)
+            writeNdjson(restaurants.iterator(), out);
+        else
+            writeCsv(restaurants.iterator(), out);
+    }
+
+    private void writeNdjson(Iterator<ResponseDto> restaurants, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            while (restaurants.hasNext()) {
+                generator.writeObject(restaurants.next());
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private void writeCsv(Iterator<ResponseDto> restaurants, OutputStream out) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            writer.write(CSV_HEADER);
+            writer.write("\r\n");
+            while (restaurants.hasNext()) {
+                ResponseDto restaurant = restaurants.next();
+                writer.write(String.valueOf(restaurant.getId()));
+                writeField(writer, restaurant.getName());
+                writeField(writer, restaurant.getCuisine());
+                writeField(writer, restaurant.getAddress());
+                writeField(writer, restaurant.getRating());
+                writeField(writer, restaurant.getContactNumber());
+                writeField(writer, restaurant.getWebsite());
+                writeField(writer, restaurant.getAverageDeliveryTimeInMinutes());
+                writeField(writer, restaurant.getDeliveryFee());
+                writeField(writer, restaurant.getMinimumOrderAmount());
+                writeField(writer, restaurant.getCurrencyUsed());
+                writeField(writer, restaurant.getLatitude());
+                writeField(writer, restaurant.getLongitude());
+                writer.write("\r\n");
+            }
+        }
+    }
+
+//  Fields holding a separator, a quote or a line break are quoted, quotes inside them are doubled.
+    private void writeField(Writer writer, Object value) throws IOException {
+        writer.write(',');
+        if (value == null)
+            return;
+        String field = value.toString();
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            writer.write(field);
+            return;
+        }
+        writer.write('"');
+        writer.write(field.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,26 @@
+package com.dishdash.restaurantservice.mapper;
+
+import com.dishdash.restaurantservice.dto.RequestDto;
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.entity.Restaurant;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.ReportingPolicy;
+
+// Implementation is generated at compile time as plain getter/setter copies, an unmapped target field fails the build.
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface RestaurantMapper {
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "changeVersion", ignore = true)
+    Restaurant toRestaurant(RequestDto requestDto);
+
+    ResponseDto toResponseDto(Restaurant restaurant);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "changeVersion", ignore = true)
+    void updateRestaurant(RequestDto requestDto, @MappingTarget Restaurant restaurant);
+}
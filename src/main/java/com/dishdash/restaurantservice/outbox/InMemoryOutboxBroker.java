@@ -0,0 +1,49 @@
+package com.dishdash.restaurantservice.outbox;
+
+import com.dishdash.restaurantservice.entity.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Stand-in for a message broker: hands every payload to the registered consumers and retains the latest ones for
+ * inspection, up to {@code restaurants.outbox.memory.retained}.
+ */
+@Component
+@ConditionalOnProperty(name = "restaurants.outbox.sink", havingValue = "memory")
+public class InMemoryOutboxBroker implements OutboxSink {
+
+    @Value("${restaurants.outbox.memory.retained:1000}")
+    private int retained = 1000;
+
+    private final List<Consumer<String>> consumers = new CopyOnWriteArrayList<>();
+
+    private final Deque<String> messages = new ArrayDeque<>();
+
+    public void subscribe(Consumer<String> consumer) {
+        consumers.add(consumer);
+    }
+
+    public synchronized List<String> messages() {
+        return new ArrayList<>(messages);
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            synchronized (this) {
+                messages.addLast(event.getPayload());
+                if (messages.size() > retained)
+                    messages.removeFirst();
+            }
+            consumers.forEach(consumer -> consumer.accept(event.getPayload()));
+        }
+    }
+}
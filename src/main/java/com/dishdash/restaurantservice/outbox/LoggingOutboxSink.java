@@ -0,0 +1,24 @@
+package com.dishdash.restaurantservice.outbox;
+
+import com.dishdash.restaurantservice.entity.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes every event as one line to the {@code restaurant-outbox} logger, which the logging configuration can route
+ * to its own file.
+ */
+@Slf4j(topic = "restaurant-outbox")
+@Component
+@ConditionalOnProperty(name = "restaurants.outbox.sink", havingValue = "log", matchIfMissing = true)
+public class LoggingOutboxSink implements OutboxSink {
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events)
+            log.info("{}", event.getPayload());
+    }
+}
@@ -0,0 +1,62 @@
+package com.dishdash.restaurantservice.outbox;
+
+import com.dishdash.restaurantservice.entity.OutboxEvent;
+import com.dishdash.restaurantservice.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Drains the outbox table to the {@link OutboxSink} in batches, oldest event first.
+ * A batch is deleted in the transaction that read it, after the sink accepted it. A failing sink or a crash before the
+ * commit leaves the batch in place to be delivered again, which makes delivery at-least-once.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxSink outboxSink;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${restaurants.outbox.batch-size:100}")
+    private int batchSize = 100;
+
+    @Scheduled(fixedDelayString = "${restaurants.outbox.relay-interval-ms:1000}")
+    public void relay() {
+        try {
+            Integer relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed != null && relayed == batchSize);
+        }
+        catch (RuntimeException exception) {
+            log.warn("Relaying outbox events failed, they are retried on the next run", exception);
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findBatchForUpdate(PageRequest.of(0, batchSize));
+        if (batch.isEmpty())
+            return 0;
+        try {
+            outboxSink.publish(batch);
+        }
+        catch (Exception exception) {
+            throw new IllegalStateException("Outbox sink rejected " + batch.size() + " events", exception);
+        }
+        outboxEventRepository.deleteAllInBatch(batch);
+        return batch.size();
+    }
+}
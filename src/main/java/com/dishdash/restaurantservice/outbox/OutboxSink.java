@@ -0,0 +1,15 @@
+package com.dishdash.restaurantservice.outbox;
+
+import com.dishdash.restaurantservice.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination of the outbox relay, selected with {@code restaurants.outbox.sink}.
+ * A batch counts as delivered once {@link #publish} returns, if it throws the whole batch is delivered again later,
+ * so receivers have to tolerate duplicates, e.g. by the change version of the event.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxEvent> events) throws Exception;
+}
@@ -0,0 +1,41 @@
+package com.dishdash.restaurantservice.outbox;
+
+import com.dishdash.restaurantservice.dto.RestaurantEventDto;
+import com.dishdash.restaurantservice.entity.OutboxEvent;
+import com.dishdash.restaurantservice.event.RestaurantChangedEvent;
+import com.dishdash.restaurantservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+
+/**
+ * Records every restaurant change in the outbox table before the transaction that made it commits, so the change and
+ * its event are written atomically and the write path never waits for a receiver.
+ */
+@Component
+public class OutboxWriter {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onRestaurantChanged(RestaurantChangedEvent event) throws JsonProcessingException {
+        RestaurantEventDto restaurantEventDto = new RestaurantEventDto(event.getRestaurant().getChangeVersion(), event.getType(),
+                event.getRestaurant().getId(), event.getRestaurant());
+        outboxEventRepository.save(OutboxEvent.builder()
+                .restaurantId(restaurantEventDto.getId())
+                .type(restaurantEventDto.getType())
+                .changeVersion(restaurantEventDto.getVersion())
+                .payload(objectMapper.writeValueAsString(restaurantEventDto))
+                .createdAt(Instant.now())
+                .build());
+    }
+}
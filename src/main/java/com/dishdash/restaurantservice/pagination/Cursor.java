@@ -0,0 +1,81 @@
+package com.dishdash.restaurantservice.pagination;
+
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.enums.Sort;
+import com.dishdash.restaurantservice.exception.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque keyset position handed out as the {@code next} token of a restaurant page.
+ * It remembers the sorts it was produced for together with the sort keys and id of the last row,
+ * so the following page can continue with a {@code WHERE (keys, id) > (:keys, :id)} seek instead of an OFFSET.
+ */
+@Getter
+@AllArgsConstructor
+public class Cursor {
+
+    private static final int VERSION = 2;
+
+    private final List<Sort> sorts;
+    private final List<String> keys;
+    private final long lastId;
+
+    public static Cursor after(List<Sort> sorts, ResponseDto restaurant) {
+        List<String> keys = new ArrayList<>();
+        for (Sort sort : sorts)
+            keys.add(sort.keyOf(restaurant));
+        return new Cursor(sorts, keys, restaurant.getId());
+    }
+
+    public Object getTypedKey(int index) {
+        return sorts.get(index).parseKey(keys.get(index));
+    }
+
+    public String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeByte(sorts.size());
+            for (int i = 0; i < sorts.size(); i++) {
+                out.writeUTF(sorts.get(i).name());
+                out.writeUTF(keys.get(i));
+            }
+            out.writeLong(lastId);
+        }
+        catch (IOException exception) {
+            throw new IllegalStateException(exception);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    public static Cursor decode(String token) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (in.readByte() != VERSION)
+                throw new BadRequestException("next", token);
+            int size = in.readByte();
+            List<Sort> sorts = new ArrayList<>();
+            List<String> keys = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                Sort sort = Sort.valueOf(in.readUTF());
+                String key = in.readUTF();
+                sort.parseKey(key);
+                sorts.add(sort);
+                keys.add(key);
+            }
+            return new Cursor(sorts, keys, in.readLong());
+        }
+        catch (IOException | IllegalArgumentException exception) {
+            throw new BadRequestException("next", token);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.dishdash.restaurantservice.repository;
+
+import com.dishdash.restaurantservice.entity.ChangeCounter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+public interface ChangeCounterRepository extends JpaRepository<ChangeCounter, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ChangeCounter c WHERE c.name = :name")
+    Optional<ChangeCounter> findForUpdate(String name);
+
+//  A plain insert, save would merge onto a row a concurrent writer just created and reset its version.
+    @Modifying
+    @Query(value = "INSERT INTO change_counters (name, last_version) VALUES (:name, 0)", nativeQuery = true)
+    void create(String name);
+}
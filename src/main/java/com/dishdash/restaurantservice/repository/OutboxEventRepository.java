@@ -0,0 +1,18 @@
+package com.dishdash.restaurantservice.repository;
+
+import com.dishdash.restaurantservice.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Locked so relays of several instances do not deliver the same batch concurrently.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OutboxEvent e ORDER BY e.id")
+    List<OutboxEvent> findBatchForUpdate(Pageable pageable);
+}
@@ -1,18 +1,45 @@
 package com.dishdash.restaurantservice.repository;
 
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.dto.SuggestionDto;
 import com.dishdash.restaurantservice.entity.Restaurant;
-import com.dishdash.restaurantservice.enums.Cuisine;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
-public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
-    @Query("SELECT r FROM Restaurant r WHERE " +
-            "(:cuisine IS NULL OR r.cuisine = :cuisine) " +
-            "AND (:search IS NULL OR r.name LIKE %:search%)")
-    List<Restaurant> findRestaurants(Cuisine cuisine, String search);
+public interface RestaurantRepository extends JpaRepository<Restaurant, Long>, RestaurantRepositoryCustom {
+
+    // Read paths build ResponseDto straight from the result set, no managed entity or dirty-checking snapshot is created.
+    String RESPONSE_DTO_SELECT = "SELECT new com.dishdash.restaurantservice.dto.ResponseDto(" +
+            "r.id, r.name, r.cuisine, r.address, r.rating, r.contactNumber, r.website, " +
+            "r.averageDeliveryTimeInMinutes, r.deliveryFee, r.minimumOrderAmount, r.currencyUsed, r.latitude, r.longitude, r.deliveryZones, r.version, r.changeVersion) " +
+            "FROM Restaurant r";
 
     Optional<Restaurant> findByWebsite(String website);
+
+    @Query("SELECT r.website FROM Restaurant r WHERE r.website IN :websites")
+    Set<String> findExistingWebsites(Collection<String> websites);
+
+    @Query(RESPONSE_DTO_SELECT + " WHERE r.id IN :ids")
+    List<ResponseDto> findResponseDtosByIdIn(Collection<Long> ids);
+
+    @Query(RESPONSE_DTO_SELECT + " WHERE r.changeVersion > :since AND r.changeVersion <= :upTo ORDER BY r.changeVersion")
+    List<ResponseDto> findChanged(long since, long upTo, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Restaurant r SET r.changeVersion = :base + r.id WHERE r.changeVersion = 0")
+    int stampUnversioned(long base);
+
+    @Query("SELECT COALESCE(MAX(r.id), 0) FROM Restaurant r")
+    long findMaxId();
+
+    @Query("SELECT new com.dishdash.restaurantservice.dto.SuggestionDto(r.id, r.name) FROM Restaurant r " +
+            "WHERE r.name LIKE :prefix% ORDER BY r.rating DESC, r.id ASC")
+    List<SuggestionDto> findSuggestions(String prefix, Pageable pageable);
 }
@@ -0,0 +1,28 @@
+package com.dishdash.restaurantservice.repository;
+
+import com.dishdash.restaurantservice.dto.FacetGroupDto;
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.dto.RestaurantFilterDto;
+import com.dishdash.restaurantservice.enums.Cuisine;
+import com.dishdash.restaurantservice.enums.Sort;
+import com.dishdash.restaurantservice.pagination.Cursor;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface RestaurantRepositoryCustom {
+
+    // Restaurants located inside the box, of the given cuisine unless it is null.
+    List<ResponseDto> findInBoundingBox(Cuisine cuisine, double minLatitude, double maxLatitude, double minLongitude, double maxLongitude);
+
+    List<ResponseDto> findRestaurantsPage(RestaurantFilterDto filter, String search, Collection<Long> ids, List<Sort> sorts, Cursor after, int limit);
+
+    // One row per combination of cuisine, currency and bucket of delivery fee and delivery time among the matching
+    // restaurants, the bounds are the ascending lower bounds of the buckets. Cuisine and currency are grouped on, not
+    // filtered, only the range bounds of the filter apply.
+    List<FacetGroupDto> countFacetGroups(RestaurantFilterDto filter, String search, Collection<Long> ids, int[] deliveryFeeBounds, int[] deliveryTimeBounds);
+
+    // Rows are read from an open result set fetchSize at a time, the stream has to be closed inside a transaction.
+    Stream<ResponseDto> streamRestaurants(RestaurantFilterDto filter, String search, Collection<Long> ids, List<Sort> sorts, Cursor after, int fetchSize);
+}
@@ -0,0 +1,179 @@
+package com.dishdash.restaurantservice.repository;
+
+import com.dishdash.restaurantservice.dto.FacetGroupDto;
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.dto.RestaurantFilterDto;
+import com.dishdash.restaurantservice.enums.Cuisine;
+import com.dishdash.restaurantservice.enums.Sort;
+import com.dishdash.restaurantservice.pagination.Cursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+// Every query is built from the predicates actually given, there is no (:param IS NULL OR ...) catch-all: such a
+// predicate gets one plan for every argument, which cannot use an index when the argument is null and so never does.
+// A combination of predicates always produces the same parameterized statement, IN lists are padded, so the query
+// plan cache and the prepared statements are shared by every request of that shape.
+public class RestaurantRepositoryImpl implements RestaurantRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ResponseDto> findInBoundingBox(Cuisine cuisine, double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+        List<String> predicates = new ArrayList<>(List.of(
+                "r.latitude BETWEEN :minLatitude AND :maxLatitude",
+                "r.longitude BETWEEN :minLongitude AND :maxLongitude"));
+        if (cuisine != null)
+            predicates.add("r.cuisine = :cuisine");
+
+        TypedQuery<ResponseDto> query = entityManager.createQuery(RestaurantRepository.RESPONSE_DTO_SELECT + where(predicates), ResponseDto.class)
+                .setParameter("minLatitude", minLatitude)
+                .setParameter("maxLatitude", maxLatitude)
+                .setParameter("minLongitude", minLongitude)
+                .setParameter("maxLongitude", maxLongitude);
+        if (cuisine != null)
+            query.setParameter("cuisine", cuisine);
+        return query.getResultList();
+    }
+
+    @Override
+    public List<ResponseDto> findRestaurantsPage(RestaurantFilterDto filter, String search, Collection<Long> ids, List<Sort> sorts, Cursor after, int limit) {
+        return createQuery(filter, search, ids, sorts, after)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<ResponseDto> streamRestaurants(RestaurantFilterDto filter, String search, Collection<Long> ids, List<Sort> sorts, Cursor after, int fetchSize) {
+        return createQuery(filter, search, ids, sorts, after)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    @Override
+    public List<FacetGroupDto> countFacetGroups(RestaurantFilterDto filter, String search, Collection<Long> ids, int[] deliveryFeeBounds, int[] deliveryTimeBounds) {
+        String deliveryFeeBucket = bucketExpression("r.deliveryFee", deliveryFeeBounds);
+        String deliveryTimeBucket = bucketExpression("r.averageDeliveryTimeInMinutes", deliveryTimeBounds);
+        List<String> predicates = new ArrayList<>();
+        if (search != null)
+            predicates.add("LOWER(r.name) LIKE :search");
+        addBounds(predicates, filter);
+        if (ids != null)
+            predicates.add("r.id IN :ids");
+        String jpql = "SELECT new com.dishdash.restaurantservice.dto.FacetGroupDto(" +
+                "r.cuisine, r.currencyUsed, " + deliveryFeeBucket + ", " + deliveryTimeBucket + ", COUNT(r)) FROM Restaurant r" + where(predicates) +
+                " GROUP BY r.cuisine, r.currencyUsed, " + deliveryFeeBucket + ", " + deliveryTimeBucket;
+
+        TypedQuery<FacetGroupDto> query = entityManager.createQuery(jpql, FacetGroupDto.class);
+        if (search != null)
+            query.setParameter("search", "%" + search.toLowerCase(Locale.ROOT) + "%");
+        setBounds(query, filter);
+        if (ids != null)
+            query.setParameter("ids", ids);
+        return query.getResultList();
+    }
+
+    private static String where(List<String> predicates) {
+        return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+    }
+
+//  Plain comparisons on the indexed columns, so a range can be read off the composite indexes of the restaurants table.
+    private static void addBounds(List<String> predicates, RestaurantFilterDto filter) {
+        if (filter == null)
+            return;
+        if (filter.getMinRating() != null)
+            predicates.add("r.rating >= :minRating");
+        if (filter.getMaxDeliveryFee() != null)
+            predicates.add("r.deliveryFee <= :maxDeliveryFee");
+        if (filter.getMaxDeliveryTime() != null)
+            predicates.add("r.averageDeliveryTimeInMinutes <= :maxDeliveryTime");
+        if (filter.getMaxMinimumOrderAmount() != null)
+            predicates.add("r.minimumOrderAmount <= :maxMinimumOrderAmount");
+    }
+
+    private static void setBounds(TypedQuery<?> query, RestaurantFilterDto filter) {
+        if (filter == null)
+            return;
+//      The exact double value of the float, as for the rating sort key: MySQL would compare the FLOAT column with a
+//      decimal literal and leave out the restaurants rated exactly the bound.
+        if (filter.getMinRating() != null)
+            query.setParameter("minRating", (double) filter.getMinRating());
+        if (filter.getMaxDeliveryFee() != null)
+            query.setParameter("maxDeliveryFee", filter.getMaxDeliveryFee());
+        if (filter.getMaxDeliveryTime() != null)
+            query.setParameter("maxDeliveryTime", filter.getMaxDeliveryTime());
+        if (filter.getMaxMinimumOrderAmount() != null)
+            query.setParameter("maxMinimumOrderAmount", filter.getMaxMinimumOrderAmount());
+    }
+
+//  CASE WHEN attribute >= bound_n THEN n ... ELSE 0 END, the bounds come from configuration and are inlined as integer literals.
+    private static String bucketExpression(String attribute, int[] bounds) {
+        StringBuilder expression = new StringBuilder("CASE");
+        for (int bucket = bounds.length - 1; bucket > 0; bucket--)
+            expression.append(" WHEN ").append(attribute).append(" >= ").append(bounds[bucket]).append(" THEN ").append(bucket);
+        return expression.append(" ELSE 0 END").toString();
+    }
+
+    private TypedQuery<ResponseDto> createQuery(RestaurantFilterDto filter, String search, Collection<Long> ids, List<Sort> sorts, Cursor after) {
+        Collection<?> cuisines = (filter != null) ? filter.getCuisines() : null;
+        Collection<?> currencies = (filter != null) ? filter.getCurrencies() : null;
+        List<String> predicates = new ArrayList<>();
+        if (search != null)
+            predicates.add("LOWER(r.name) LIKE :search");
+        if (cuisines != null)
+            predicates.add("r.cuisine IN :cuisines");
+        if (currencies != null)
+            predicates.add("r.currencyUsed IN :currencies");
+        addBounds(predicates, filter);
+        if (ids != null)
+            predicates.add("r.id IN :ids");
+
+//      Seek past the last row of the previous page: (k1 > :k1) OR (k1 = :k1 AND k2 > :k2) OR ... OR (all keys equal AND id > :lastId).
+        if (after != null) {
+            StringBuilder seek = new StringBuilder("(");
+            for (int i = 0; i <= sorts.size(); i++) {
+                seek.append("(");
+                for (int j = 0; j < i; j++)
+                    seek.append("r.").append(sorts.get(j).getAttribute()).append(" = :key").append(j).append(" AND ");
+                if (i < sorts.size()) {
+                    Sort sort = sorts.get(i);
+                    seek.append("r.").append(sort.getAttribute()).append(sort.isDescending() ? " < " : " > ").append(":key").append(i);
+                }
+                else
+                    seek.append("r.id > :lastId");
+                seek.append(i < sorts.size() ? ") OR " : ")");
+            }
+            predicates.add(seek.append(")").toString());
+        }
+
+        StringBuilder jpql = new StringBuilder(RestaurantRepository.RESPONSE_DTO_SELECT).append(where(predicates)).append(" ORDER BY ");
+        for (Sort sort : sorts)
+            jpql.append("r.").append(sort.getAttribute()).append(sort.isDescending() ? " DESC, " : " ASC, ");
+        jpql.append("r.id ASC");
+
+        TypedQuery<ResponseDto> query = entityManager.createQuery(jpql.toString(), ResponseDto.class);
+        if (search != null)
+            query.setParameter("search", "%" + search.toLowerCase(Locale.ROOT) + "%");
+        if (cuisines != null)
+            query.setParameter("cuisines", cuisines);
+        if (currencies != null)
+            query.setParameter("currencies", currencies);
+        setBounds(query, filter);
+        if (ids != null)
+            query.setParameter("ids", ids);
+        if (after != null) {
+            query.setParameter("lastId", after.getLastId());
+            for (int i = 0; i < sorts.size(); i++)
+                query.setParameter("key" + i, after.getTypedKey(i));
+        }
+        return query;
+    }
+}
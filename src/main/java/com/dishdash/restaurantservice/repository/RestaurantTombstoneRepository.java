@@ -0,0 +1,14 @@
+package com.dishdash.restaurantservice.repository;
+
+import com.dishdash.restaurantservice.entity.RestaurantTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface RestaurantTombstoneRepository extends JpaRepository<RestaurantTombstone, Long> {
+
+    @Query("SELECT t FROM RestaurantTombstone t WHERE t.changeVersion > :since AND t.changeVersion <= :upTo ORDER BY t.changeVersion")
+    List<RestaurantTombstone> findTombstones(long since, long upTo, Pageable pageable);
+}
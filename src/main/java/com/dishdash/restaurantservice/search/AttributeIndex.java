@@ -0,0 +1,194 @@
+package com.dishdash.restaurantservice.search;
+
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.dto.RestaurantFilterDto;
+import com.dishdash.restaurantservice.enums.Cuisine;
+import com.dishdash.restaurantservice.enums.Currency;
+import com.dishdash.restaurantservice.enums.Facet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory bitmap index over the low cardinality attributes of the restaurants.
+ * Every cuisine, currency, half-star rating bucket, delivery fee bucket and delivery time bucket has an {@link IdBitmap}
+ * of the restaurants having it, so a filter becomes a union of the bitmaps of the accepted values of each attribute
+ * intersected across the attributes, and a facet count the cardinality of one more intersection. A range bound accepts
+ * every bucket it reaches into, so it narrows the candidates to a superset of the matches the query still has to bound
+ * exactly; the minimum order amount is not indexed. The fee and time buckets are the facet buckets.
+ */
+@Component
+public class AttributeIndex extends RestaurantIndex<AttributeIndex.State> {
+
+    @Value("${restaurants.facets.delivery-fee-bounds:0,5,10}")
+    private int[] deliveryFeeBucketBounds = {0, 5, 10};
+
+    @Value("${restaurants.facets.delivery-time-bounds:0,20,30,45}")
+    private int[] deliveryTimeBucketBounds = {0, 20, 30, 45};
+
+    /**
+     * Returns the restaurants matching the filter, or {@code null} while the index has not been built yet and the
+     * caller has to ask the database. Range bounds are matched to whole buckets, the result can hold restaurants just
+     * outside them.
+     */
+    public IdBitmap matching(RestaurantFilterDto filter) {
+        int minRatingBucket = (filter.getMinRating() != null) ? ratingBucket(filter.getMinRating()) : 0;
+        int maxDeliveryFeeBucket = (filter.getMaxDeliveryFee() != null)
+                ? Facet.bucketOf(filter.getMaxDeliveryFee(), deliveryFeeBucketBounds) : Integer.MAX_VALUE;
+        int maxDeliveryTimeBucket = (filter.getMaxDeliveryTime() != null)
+                ? Facet.bucketOf(filter.getMaxDeliveryTime(), deliveryTimeBucketBounds) : Integer.MAX_VALUE;
+        return read(state -> {
+            IdBitmap matching = state.matching(filter.getCuisines(), filter.getCurrencies());
+            if (filter.getMinRating() != null)
+                matching = State.restrict(matching, state.ratings, minRatingBucket, Integer.MAX_VALUE);
+            if (filter.getMaxDeliveryFee() != null)
+                matching = State.restrict(matching, state.deliveryFees, 0, maxDeliveryFeeBucket);
+            if (filter.getMaxDeliveryTime() != null)
+                matching = State.restrict(matching, state.deliveryTimes, 0, maxDeliveryTimeBucket);
+            return matching;
+        });
+    }
+
+    /**
+     * Whether {@link #matching} can narrow the filter down, that is it restricts an indexed attribute.
+     */
+    public static boolean isIndexed(RestaurantFilterDto filter) {
+        return filter != null && (filter.getCuisines() != null || filter.getCurrencies() != null || filter.getMinRating() != null
+                || filter.getMaxDeliveryFee() != null || filter.getMaxDeliveryTime() != null);
+    }
+
+    /**
+     * Counts the candidates, or every restaurant when {@code candidates} is {@code null}, per value of each facet, in
+     * the order the values are declared, or returns {@code null} while the index has not been built yet.
+     * The cuisine counts ignore the cuisine filter and the currency counts the currency filter, so each value shows
+     * what selecting it would return; the other facets honour both.
+     */
+    public Map<Facet, Map<String, Long>> countFacets(IdBitmap candidates, RestaurantFilterDto filter, Set<Facet> facets) {
+        Set<Cuisine> cuisines = (filter != null) ? filter.getCuisines() : null;
+        Set<Currency> currencies = (filter != null) ? filter.getCurrencies() : null;
+        return read(state -> {
+            Map<Facet, Map<String, Long>> counts = new EnumMap<>(Facet.class);
+            for (Facet facet : facets) {
+                IdBitmap base = switch (facet) {
+                    case CUISINE -> state.matching(null, currencies);
+                    case CURRENCY -> state.matching(cuisines, null);
+                    case DELIVERY_FEE, DELIVERY_TIME -> state.matching(cuisines, currencies);
+                };
+                if (candidates != null)
+                    base = base.and(candidates);
+                Map<String, Long> values = new LinkedHashMap<>();
+                switch (facet) {
+                    case CUISINE -> {
+                        for (Cuisine cuisine : Cuisine.values())
+                            values.put(cuisine.name(), count(base, state.cuisines.get(cuisine)));
+                    }
+                    case CURRENCY -> {
+                        for (Currency currency : Currency.values())
+                            values.put(currency.name(), count(base, state.currencies.get(currency)));
+                    }
+                    case DELIVERY_FEE -> {
+                        for (int bucket = 0; bucket < deliveryFeeBucketBounds.length; bucket++)
+                            values.put(Facet.bucketLabel(bucket, deliveryFeeBucketBounds), count(base, state.deliveryFees.get(bucket)));
+                    }
+                    case DELIVERY_TIME -> {
+                        for (int bucket = 0; bucket < deliveryTimeBucketBounds.length; bucket++)
+                            values.put(Facet.bucketLabel(bucket, deliveryTimeBucketBounds), count(base, state.deliveryTimes.get(bucket)));
+                    }
+                }
+                counts.put(facet, values);
+            }
+            return counts;
+        });
+    }
+
+    @Override
+    protected State newState() {
+        return new State();
+    }
+
+    @Override
+    protected void put(State state, ResponseDto restaurant) {
+        remove(state, restaurant.getId());
+        Entry entry = new Entry(restaurant.getCuisine(), restaurant.getCurrencyUsed(), ratingBucket(restaurant.getRating()),
+                Facet.bucketOf(restaurant.getDeliveryFee(), deliveryFeeBucketBounds),
+                Facet.bucketOf(restaurant.getAverageDeliveryTimeInMinutes(), deliveryTimeBucketBounds));
+        state.entries.put(restaurant.getId(), entry);
+        state.all.add(restaurant.getId());
+        if (entry.cuisine != null)
+            state.cuisines.computeIfAbsent(entry.cuisine, cuisine -> new IdBitmap()).add(restaurant.getId());
+        if (entry.currency != null)
+            state.currencies.computeIfAbsent(entry.currency, currency -> new IdBitmap()).add(restaurant.getId());
+        state.ratings.computeIfAbsent(entry.ratingBucket, bucket -> new IdBitmap()).add(restaurant.getId());
+        state.deliveryFees.computeIfAbsent(entry.deliveryFeeBucket, bucket -> new IdBitmap()).add(restaurant.getId());
+        state.deliveryTimes.computeIfAbsent(entry.deliveryTimeBucket, bucket -> new IdBitmap()).add(restaurant.getId());
+    }
+
+    @Override
+    protected void remove(State state, long id) {
+        Entry entry = state.entries.remove(id);
+        if (entry == null)
+            return;
+        state.all.remove(id);
+        if (entry.cuisine != null)
+            state.cuisines.get(entry.cuisine).remove(id);
+        if (entry.currency != null)
+            state.currencies.get(entry.currency).remove(id);
+        state.ratings.get(entry.ratingBucket).remove(id);
+        state.deliveryFees.get(entry.deliveryFeeBucket).remove(id);
+        state.deliveryTimes.get(entry.deliveryTimeBucket).remove(id);
+    }
+
+//  Doubling a float is exact, so a rating at or above a bound never lands in a lower bucket than the bound.
+    private static int ratingBucket(float rating) {
+        return (int) (rating * 2);
+    }
+
+    private static long count(IdBitmap base, IdBitmap value) {
+        return (value != null) ? base.and(value).cardinality() : 0;
+    }
+
+    static final class State {
+        private final IdBitmap all = new IdBitmap();
+        private final Map<Cuisine, IdBitmap> cuisines = new EnumMap<>(Cuisine.class);
+        private final Map<Currency, IdBitmap> currencies = new EnumMap<>(Currency.class);
+        private final Map<Integer, IdBitmap> ratings = new HashMap<>();
+        private final Map<Integer, IdBitmap> deliveryFees = new HashMap<>();
+        private final Map<Integer, IdBitmap> deliveryTimes = new HashMap<>();
+        private final Map<Long, Entry> entries = new HashMap<>();
+
+//      Union within an attribute, intersection across them, a null set leaves the attribute unrestricted.
+        private IdBitmap matching(Set<Cuisine> acceptedCuisines, Set<Currency> acceptedCurrencies) {
+            return restrict(restrict(all, cuisines, acceptedCuisines), currencies, acceptedCurrencies);
+        }
+
+//      Always a new bitmap, the bitmaps of the state never leave the read lock.
+        private static <V> IdBitmap restrict(IdBitmap matching, Map<V, IdBitmap> bitmaps, Set<V> acceptedValues) {
+            if (acceptedValues == null)
+                return matching.or(new IdBitmap());
+            IdBitmap accepted = new IdBitmap();
+            for (V value : acceptedValues) {
+                IdBitmap bitmap = bitmaps.get(value);
+                if (bitmap != null)
+                    accepted = accepted.or(bitmap);
+            }
+            return matching.and(accepted);
+        }
+
+//      Union of the buckets from the first to the last given, intersected with the matches so far.
+        private static IdBitmap restrict(IdBitmap matching, Map<Integer, IdBitmap> buckets, int first, int last) {
+            IdBitmap accepted = new IdBitmap();
+            for (Map.Entry<Integer, IdBitmap> bucket : buckets.entrySet())
+                if (bucket.getKey() >= first && bucket.getKey() <= last)
+                    accepted = accepted.or(bucket.getValue());
+            return matching.and(accepted);
+        }
+    }
+
+    private record Entry(Cuisine cuisine, Currency currency, int ratingBucket, int deliveryFeeBucket, int deliveryTimeBucket) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.dishdash.restaurantservice.search;
+
+import com.dishdash.restaurantservice.dto.GeoPointDto;
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory grid over the delivery zones of the restaurants.
+ * The world is cut into cells of a tenth of a degree and every zone is registered in each cell its bounding box
+ * overlaps. A point is only tested against the zones registered in its own cell, first against their bounding box and
+ * then with a ray casting point-in-polygon test, so a lookup costs a few polygon tests whatever the size of the catalog.
+ * Zones are treated as planar in latitude and longitude and must not cross the antimeridian.
+ */
+@Component
+public class DeliveryZoneIndex extends RestaurantIndex<DeliveryZoneIndex.State> {
+
+    private static final double CELL_DEGREES = 0.1;
+    private static final int LONGITUDE_CELLS = (int) Math.round(360 / CELL_DEGREES);
+
+    /**
+     * Returns the ids of the restaurants with a delivery zone containing the point, in ascending order,
+     * or {@code null} while the index has not been built yet, the service then answers 503 and the client retries.
+     */
+    public List<Long> deliveringTo(double latitude, double longitude) {
+        return read(state -> {
+            List<Zone> zones = state.cells.get(cell(latitudeCell(latitude), longitudeCell(longitude)));
+            if (zones == null)
+                return Collections.emptyList();
+            Set<Long> ids = new HashSet<>();
+            for (Zone zone : zones) {
+                if (!ids.contains(zone.restaurantId) && zone.contains(latitude, longitude))
+                    ids.add(zone.restaurantId);
+            }
+            List<Long> sortedIds = new ArrayList<>(ids);
+            Collections.sort(sortedIds);
+            return sortedIds;
+        });
+    }
+
+    @Override
+    protected State newState() {
+        return new State();
+    }
+
+    @Override
+    protected void put(State state, ResponseDto restaurant) {
+        remove(state, restaurant.getId());
+        if (restaurant.getDeliveryZones() == null || restaurant.getDeliveryZones().isEmpty())
+            return;
+        List<Zone> zones = new ArrayList<>();
+        for (List<GeoPointDto> points : restaurant.getDeliveryZones()) {
+            Zone zone = Zone.of(restaurant.getId(), points);
+            zones.add(zone);
+            for (long cell : zone.cells())
+                state.cells.computeIfAbsent(cell, key -> new ArrayList<>()).add(zone);
+        }
+        state.zones.put(restaurant.getId(), zones);
+    }
+
+    @Override
+    protected void remove(State state, long id) {
+        List<Zone> zones = state.zones.remove(id);
+        if (zones == null)
+            return;
+        for (Zone zone : zones) {
+            for (long cell : zone.cells()) {
+                List<Zone> cellZones = state.cells.get(cell);
+                cellZones.remove(zone);
+                if (cellZones.isEmpty())
+                    state.cells.remove(cell);
+            }
+        }
+    }
+
+    private static int latitudeCell(double latitude) {
+        return (int) Math.floor((latitude + 90) / CELL_DEGREES);
+    }
+
+    private static int longitudeCell(double longitude) {
+        return Math.min((int) Math.floor((longitude + 180) / CELL_DEGREES), LONGITUDE_CELLS - 1);
+    }
+
+    private static long cell(int latitudeCell, int longitudeCell) {
+        return (long) latitudeCell * LONGITUDE_CELLS + longitudeCell;
+    }
+
+    static final class State {
+        private final Map<Long, List<Zone>> cells = new HashMap<>();
+        private final Map<Long, List<Zone>> zones = new HashMap<>();
+    }
+
+//  Identity equality, so removing a zone from a cell removes exactly the instance registered there.
+    private static final class Zone {
+        private final long restaurantId;
+        private final double[] latitudes;
+        private final double[] longitudes;
+        private double minLatitude = Double.MAX_VALUE;
+        private double maxLatitude = -Double.MAX_VALUE;
+        private double minLongitude = Double.MAX_VALUE;
+        private double maxLongitude = -Double.MAX_VALUE;
+
+        private Zone(long restaurantId, double[] latitudes, double[] longitudes) {
+            this.restaurantId = restaurantId;
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+            for (int i = 0; i < latitudes.length; i++) {
+                minLatitude = Math.min(minLatitude, latitudes[i]);
+                maxLatitude = Math.max(maxLatitude, latitudes[i]);
+                minLongitude = Math.min(minLongitude, longitudes[i]);
+                maxLongitude = Math.max(maxLongitude, longitudes[i]);
+            }
+        }
+
+        static Zone of(long restaurantId, List<GeoPointDto> points) {
+            double[] latitudes = new double[points.size()];
+            double[] longitudes = new double[points.size()];
+            for (int i = 0; i < points.size(); i++) {
+                latitudes[i] = points.get(i).getLatitude();
+                longitudes[i] = points.get(i).getLongitude();
+            }
+            return new Zone(restaurantId, latitudes, longitudes);
+        }
+
+        List<Long> cells() {
+            List<Long> cells = new ArrayList<>();
+            for (int latitudeCell = latitudeCell(minLatitude); latitudeCell <= latitudeCell(maxLatitude); latitudeCell++) {
+                for (int longitudeCell = longitudeCell(minLongitude); longitudeCell <= longitudeCell(maxLongitude); longitudeCell++)
+                    cells.add(cell(latitudeCell, longitudeCell));
+            }
+            return cells;
+        }
+
+//      Counts the edges crossed by a ray running east from the point, an odd count means the point is inside.
+        boolean contains(double latitude, double longitude) {
+            if (latitude < minLatitude || latitude > maxLatitude || longitude < minLongitude || longitude > maxLongitude)
+                return false;
+            boolean inside = false;
+            for (int i = 0, j = latitudes.length - 1; i < latitudes.length; j = i++) {
+                if ((latitudes[i] > latitude) != (latitudes[j] > latitude)
+                        && longitude < (longitudes[j] - longitudes[i]) * (latitude - latitudes[i]) / (latitudes[j] - latitudes[i]) + longitudes[i])
+                    inside = !inside;
+            }
+            return inside;
+        }
+    }
+}
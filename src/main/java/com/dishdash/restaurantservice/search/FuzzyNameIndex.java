@@ -0,0 +1,168 @@
+package com.dishdash.restaurantservice.search;
+
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Typo tolerant search over the words of restaurant names using symmetric delete.
+ * Every indexed word is stored under all the variants obtained by deleting up to two of its characters, a search term
+ * looks up its own delete variants and only the words found there are checked with a real edit distance. The work
+ * depends on the number of candidate words, never on the size of the catalog.
+ */
+@Component
+public class FuzzyNameIndex extends RestaurantIndex<FuzzyNameIndex.State> {
+
+    private static final int MAX_DISTANCE = 2;
+
+    /**
+     * Returns the ids, in ascending order, of restaurants whose name has a word close to every word of the term,
+     * or {@code null} while the index has not been built yet. Words of up to two characters must match exactly,
+     * up to five characters may be one edit away and longer words two.
+     */
+    public List<Long> search(String term) {
+        List<String> words = words(term);
+        return read(state -> {
+            Set<Long> ids = null;
+            for (String word : words) {
+                Set<Long> matches = new HashSet<>();
+                for (String candidate : state.similarWords(word, allowedDistance(word)))
+                    matches.addAll(state.postings.get(candidate));
+                if (ids == null)
+                    ids = matches;
+                else
+                    ids.retainAll(matches);
+                if (ids.isEmpty())
+                    break;
+            }
+            List<Long> sortedIds = (ids != null) ? new ArrayList<>(ids) : new ArrayList<>();
+            Collections.sort(sortedIds);
+            return sortedIds;
+        });
+    }
+
+    @Override
+    protected State newState() {
+        return new State();
+    }
+
+    @Override
+    protected void put(State state, ResponseDto restaurant) {
+        remove(state, restaurant.getId());
+        List<String> words = words(restaurant.getName());
+        state.restaurantWords.put(restaurant.getId(), words);
+        for (String word : words)
+            state.addWord(word, restaurant.getId());
+    }
+
+    @Override
+    protected void remove(State state, long id) {
+        List<String> words = state.restaurantWords.remove(id);
+        if (words == null)
+            return;
+        for (String word : words)
+            state.removeWord(word, id);
+    }
+
+    static int allowedDistance(String word) {
+        if (word.length() <= 2)
+            return 0;
+        return (word.length() <= 5) ? 1 : MAX_DISTANCE;
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(List.of(NameSearchIndex.normalize(text).split("[^\\p{L}\\p{N}]+"))));
+        words.remove("");
+        return words;
+    }
+
+    // Every string obtained by deleting up to the given number of characters, including the word itself.
+    private static Set<String> deletes(String word, int distance) {
+        Set<String> variants = new HashSet<>();
+        variants.add(word);
+        Set<String> frontier = Set.of(word);
+        for (int round = 0; round < distance; round++) {
+            Set<String> next = new HashSet<>();
+            for (String variant : frontier) {
+                for (int i = 0; i < variant.length(); i++) {
+                    String deleted = variant.substring(0, i) + variant.substring(i + 1);
+                    if (variants.add(deleted))
+                        next.add(deleted);
+                }
+            }
+            frontier = next;
+        }
+        return variants;
+    }
+
+    // Optimal string alignment distance, transposing two neighbouring characters counts as one edit.
+    static int distance(String first, String second) {
+        int[][] costs = new int[first.length() + 1][second.length() + 1];
+        for (int i = 0; i <= first.length(); i++)
+            costs[i][0] = i;
+        for (int j = 0; j <= second.length(); j++)
+            costs[0][j] = j;
+        for (int i = 1; i <= first.length(); i++) {
+            for (int j = 1; j <= second.length(); j++) {
+                int substitution = (first.charAt(i - 1) == second.charAt(j - 1)) ? 0 : 1;
+                costs[i][j] = Math.min(Math.min(costs[i - 1][j] + 1, costs[i][j - 1] + 1), costs[i - 1][j - 1] + substitution);
+                if (i > 1 && j > 1 && first.charAt(i - 1) == second.charAt(j - 2) && first.charAt(i - 2) == second.charAt(j - 1))
+                    costs[i][j] = Math.min(costs[i][j], costs[i - 2][j - 2] + 1);
+            }
+        }
+        return costs[first.length()][second.length()];
+    }
+
+    static final class State {
+        private final Map<String, Set<Long>> postings = new HashMap<>();
+        private final Map<String, Set<String>> wordsByDelete = new HashMap<>();
+        private final Map<Long, List<String>> restaurantWords = new HashMap<>();
+
+        void addWord(String word, long id) {
+            Set<Long> ids = postings.get(word);
+            if (ids == null) {
+                ids = new HashSet<>();
+                postings.put(word, ids);
+                for (String variant : deletes(word, MAX_DISTANCE))
+                    wordsByDelete.computeIfAbsent(variant, key -> new HashSet<>()).add(word);
+            }
+            ids.add(id);
+        }
+
+        void removeWord(String word, long id) {
+            Set<Long> ids = postings.get(word);
+            ids.remove(id);
+            if (!ids.isEmpty())
+                return;
+            postings.remove(word);
+            for (String variant : deletes(word, MAX_DISTANCE)) {
+                Set<String> words = wordsByDelete.get(variant);
+                words.remove(word);
+                if (words.isEmpty())
+                    wordsByDelete.remove(variant);
+            }
+        }
+
+        Set<String> similarWords(String word, int allowedDistance) {
+            Set<String> similar = new HashSet<>();
+            for (String variant : deletes(word, allowedDistance)) {
+                Set<String> candidates = wordsByDelete.get(variant);
+                if (candidates == null)
+                    continue;
+                for (String candidate : candidates) {
+                    if (Math.abs(candidate.length() - word.length()) <= allowedDistance && distance(word, candidate) <= allowedDistance)
+                        similar.add(candidate);
+                }
+            }
+            return similar;
+        }
+    }
+}
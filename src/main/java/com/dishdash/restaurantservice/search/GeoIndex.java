@@ -0,0 +1,171 @@
+package com.dishdash.restaurantservice.search;
+
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.enums.Cuisine;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * In-memory geohash grid over restaurant locations.
+ * Every located restaurant is filed under the 25 bit geohash of its coordinates, a cell of about 4.9 by 4.9 km at the
+ * equator. A radius query only visits the cells overlapping the bounding box of its circle and measures the
+ * great-circle distance to the restaurants filed there, so its cost follows the density around the point and not the
+ * size of the catalog.
+ */
+@Component
+public class GeoIndex extends RestaurantIndex<GeoIndex.State> {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private static final int LATITUDE_BITS = 12;
+    private static final int LONGITUDE_BITS = 13;
+    private static final int LATITUDE_CELLS = 1 << LATITUDE_BITS;
+    private static final int LONGITUDE_CELLS = 1 << LONGITUDE_BITS;
+
+    private static final Comparator<Hit> BY_DISTANCE = Comparator.comparingDouble(Hit::distanceKm).thenComparingLong(Hit::id);
+
+    /**
+     * Returns the closest restaurants within the radius, nearest first, optionally of one cuisine only,
+     * or {@code null} while the index has not been built yet and the caller has to ask the database.
+     */
+    public List<Hit> nearby(double latitude, double longitude, double radiusKm, Cuisine cuisine, int limit) {
+        BoundingBox box = BoundingBox.around(latitude, longitude, radiusKm);
+        return read(state -> {
+//          Bounded max-heap on distance, only the limit closest hits are kept while the cells are visited.
+            PriorityQueue<Hit> closest = new PriorityQueue<>(limit + 1, BY_DISTANCE.reversed());
+            int firstLongitudeCell = longitudeCell(box.minLongitude());
+            int longitudeCellCount = (box.maxLongitude() - box.minLongitude() >= 360) ? LONGITUDE_CELLS
+                    : Math.floorMod(longitudeCell(box.maxLongitude()) - firstLongitudeCell, LONGITUDE_CELLS) + 1;
+
+            for (int latitudeCell = latitudeCell(box.minLatitude()); latitudeCell <= latitudeCell(box.maxLatitude()); latitudeCell++) {
+                for (int i = 0; i < longitudeCellCount; i++) {
+                    List<Location> cell = state.cells.get(geohash(latitudeCell, (firstLongitudeCell + i) % LONGITUDE_CELLS));
+                    if (cell == null)
+                        continue;
+                    for (Location location : cell) {
+                        if (cuisine != null && location.cuisine != cuisine)
+                            continue;
+                        double distanceKm = distanceKm(latitude, longitude, location.latitude, location.longitude);
+                        if (distanceKm > radiusKm)
+                            continue;
+                        closest.add(new Hit(location.id, distanceKm));
+                        if (closest.size() > limit)
+                            closest.poll();
+                    }
+                }
+            }
+            List<Hit> hits = new ArrayList<>(closest);
+            hits.sort(BY_DISTANCE);
+            return hits;
+        });
+    }
+
+    @Override
+    protected State newState() {
+        return new State();
+    }
+
+    @Override
+    protected void put(State state, ResponseDto restaurant) {
+        remove(state, restaurant.getId());
+        if (restaurant.getLatitude() == null || restaurant.getLongitude() == null)
+            return;
+        Location location = new Location(restaurant.getId(), restaurant.getLatitude(), restaurant.getLongitude(), restaurant.getCuisine());
+        state.locations.put(location.id, location);
+        state.cells.computeIfAbsent(location.geohash(), key -> new ArrayList<>()).add(location);
+    }
+
+    @Override
+    protected void remove(State state, long id) {
+        Location location = state.locations.remove(id);
+        if (location == null)
+            return;
+        long geohash = location.geohash();
+        List<Location> cell = state.cells.get(geohash);
+        cell.remove(location);
+        if (cell.isEmpty())
+            state.cells.remove(geohash);
+    }
+
+    /**
+     * Great-circle distance between two points in kilometres, using the haversine formula.
+     */
+    public static double distanceKm(double latitude, double longitude, double otherLatitude, double otherLongitude) {
+        double latitudeDelta = Math.toRadians(otherLatitude - latitude);
+        double longitudeDelta = Math.toRadians(otherLongitude - longitude);
+        double a = Math.pow(Math.sin(latitudeDelta / 2), 2)
+                + Math.cos(Math.toRadians(latitude)) * Math.cos(Math.toRadians(otherLatitude)) * Math.pow(Math.sin(longitudeDelta / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static int latitudeCell(double latitude) {
+        return Math.min((int) ((latitude + 90) / 180 * LATITUDE_CELLS), LATITUDE_CELLS - 1);
+    }
+
+    private static int longitudeCell(double longitude) {
+        return Math.min((int) ((longitude + 180) / 360 * LONGITUDE_CELLS), LONGITUDE_CELLS - 1);
+    }
+
+//  Interleaves the cell bits the way a geohash does, longitude first, so neighbouring cells share long prefixes.
+    private static long geohash(int latitudeCell, int longitudeCell) {
+        long geohash = 0;
+        for (int bit = LONGITUDE_BITS - 1; bit >= 0; bit--) {
+            geohash = (geohash << 1) | ((longitudeCell >>> bit) & 1);
+            if (bit < LATITUDE_BITS)
+                geohash = (geohash << 1) | ((latitudeCell >>> bit) & 1);
+        }
+        return geohash;
+    }
+
+    public record Hit(long id, double distanceKm) {
+    }
+
+    /**
+     * Smallest latitude and longitude box containing a circle, when it crosses the antimeridian
+     * {@code minLongitude} is east of {@code maxLongitude}.
+     */
+    public record BoundingBox(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+
+        public static BoundingBox around(double latitude, double longitude, double radiusKm) {
+            double angularRadius = radiusKm / EARTH_RADIUS_KM;
+            double latitudeDelta = Math.toDegrees(angularRadius);
+            double minLatitude = latitude - latitudeDelta;
+            double maxLatitude = latitude + latitudeDelta;
+
+//          A circle around a pole covers every longitude.
+            if (minLatitude <= -90 || maxLatitude >= 90)
+                return new BoundingBox(Math.max(minLatitude, -90), Math.min(maxLatitude, 90), -180, 180);
+
+            double longitudeDelta = Math.toDegrees(Math.asin(Math.min(1, Math.sin(angularRadius) / Math.cos(Math.toRadians(latitude)))));
+            double minLongitude = longitude - longitudeDelta;
+            double maxLongitude = longitude + longitudeDelta;
+            if (minLongitude < -180)
+                minLongitude += 360;
+            if (maxLongitude > 180)
+                maxLongitude -= 360;
+            return new BoundingBox(minLatitude, maxLatitude, minLongitude, maxLongitude);
+        }
+
+        public boolean crossesAntimeridian() {
+            return minLongitude > maxLongitude;
+        }
+    }
+
+    static final class State {
+        private final Map<Long, List<Location>> cells = new HashMap<>();
+        private final Map<Long, Location> locations = new HashMap<>();
+    }
+
+    private record Location(long id, double latitude, double longitude, Cuisine cuisine) {
+
+        long geohash() {
+            return GeoIndex.geohash(latitudeCell(latitude), longitudeCell(longitude));
+        }
+    }
+}
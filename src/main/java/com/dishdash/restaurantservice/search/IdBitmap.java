@@ -0,0 +1,307 @@
+package com.dishdash.restaurantservice.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compressed bitmap of restaurant ids, laid out like a roaring bitmap.
+ * Ids are split into chunks of 65536 by their high bits. A chunk with at most 4096 ids keeps their low 16 bits in a
+ * sorted array, a denser chunk switches to a 65536 bit bitmap, so a bitmap never takes more than two bytes per id.
+ * Intersections and unions walk both bitmaps chunk by chunk and combine dense chunks a 64 bit word at a time.
+ * Not thread safe, the indexes only touch their bitmaps under their lock and hand out the results of operations.
+ */
+public final class IdBitmap {
+
+    private static final int MAX_ARRAY_SIZE = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+//  Chunk keys in ascending order, each chunk is either a char[] of low bits or a long[] bitmap.
+    private long[] keys = new long[4];
+    private Object[] chunks = new Object[4];
+    private int chunkCount;
+
+    public static IdBitmap of(Collection<Long> ids) {
+        IdBitmap bitmap = new IdBitmap();
+        for (long id : ids)
+            bitmap.add(id);
+        return bitmap;
+    }
+
+    public void add(long id) {
+        char low = (char) id;
+        int index = indexOf(id >>> 16);
+        if (index < 0) {
+            insertChunk(-index - 1, id >>> 16, new char[]{low});
+            return;
+        }
+        if (chunks[index] instanceof long[] words) {
+            words[low >>> 6] |= 1L << low;
+            return;
+        }
+        char[] values = (char[]) chunks[index];
+        int position = Arrays.binarySearch(values, low);
+        if (position >= 0)
+            return;
+        position = -position - 1;
+        if (values.length == MAX_ARRAY_SIZE) {
+            long[] words = toWords(values);
+            words[low >>> 6] |= 1L << low;
+            chunks[index] = words;
+            return;
+        }
+        char[] grown = new char[values.length + 1];
+        System.arraycopy(values, 0, grown, 0, position);
+        grown[position] = low;
+        System.arraycopy(values, position, grown, position + 1, values.length - position);
+        chunks[index] = grown;
+    }
+
+    public void remove(long id) {
+        char low = (char) id;
+        int index = indexOf(id >>> 16);
+        if (index < 0)
+            return;
+        if (chunks[index] instanceof long[] words) {
+            words[low >>> 6] &= ~(1L << low);
+            if (cardinality(words) <= MAX_ARRAY_SIZE)
+                chunks[index] = toValues(words);
+            return;
+        }
+        char[] values = (char[]) chunks[index];
+        int position = Arrays.binarySearch(values, low);
+        if (position < 0)
+            return;
+        if (values.length == 1) {
+            removeChunk(index);
+            return;
+        }
+        char[] shrunk = new char[values.length - 1];
+        System.arraycopy(values, 0, shrunk, 0, position);
+        System.arraycopy(values, position + 1, shrunk, position, values.length - position - 1);
+        chunks[index] = shrunk;
+    }
+
+    public boolean contains(long id) {
+        char low = (char) id;
+        int index = indexOf(id >>> 16);
+        if (index < 0)
+            return false;
+        if (chunks[index] instanceof long[] words)
+            return (words[low >>> 6] & (1L << low)) != 0;
+        return Arrays.binarySearch((char[]) chunks[index], low) >= 0;
+    }
+
+    public boolean isEmpty() {
+        return chunkCount == 0;
+    }
+
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < chunkCount; i++)
+            cardinality += (chunks[i] instanceof long[] words) ? cardinality(words) : ((char[]) chunks[i]).length;
+        return cardinality;
+    }
+
+    /**
+     * Returns a new bitmap of the ids in both bitmaps.
+     */
+    public IdBitmap and(IdBitmap other) {
+        IdBitmap result = new IdBitmap();
+        int i = 0, j = 0;
+        while (i < chunkCount && j < other.chunkCount) {
+            int comparison = Long.compare(keys[i], other.keys[j]);
+            if (comparison == 0) {
+                Object chunk = and(chunks[i], other.chunks[j]);
+                if (chunk != null)
+                    result.appendChunk(keys[i], chunk);
+            }
+            if (comparison <= 0)
+                i++;
+            if (comparison >= 0)
+                j++;
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new bitmap of the ids in either bitmap.
+     */
+    public IdBitmap or(IdBitmap other) {
+        IdBitmap result = new IdBitmap();
+        int i = 0, j = 0;
+        while (i < chunkCount || j < other.chunkCount) {
+            int comparison = (i == chunkCount) ? 1 : (j == other.chunkCount) ? -1 : Long.compare(keys[i], other.keys[j]);
+            if (comparison < 0)
+                result.appendChunk(keys[i], copy(chunks[i++]));
+            else if (comparison > 0)
+                result.appendChunk(other.keys[j], copy(other.chunks[j++]));
+            else
+                result.appendChunk(keys[i], or(chunks[i++], other.chunks[j++]));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ids in ascending order.
+     */
+    public List<Long> toList() {
+        List<Long> ids = new ArrayList<>(cardinality());
+        for (int i = 0; i < chunkCount; i++) {
+            long high = keys[i] << 16;
+            if (chunks[i] instanceof long[] words) {
+                for (int word = 0; word < BITMAP_WORDS; word++) {
+                    for (long bits = words[word]; bits != 0; bits &= bits - 1)
+                        ids.add(high | ((long) word << 6) | Long.numberOfTrailingZeros(bits));
+                }
+            }
+            else {
+                for (char low : (char[]) chunks[i])
+                    ids.add(high | low);
+            }
+        }
+        return ids;
+    }
+
+    private int indexOf(long key) {
+        return Arrays.binarySearch(keys, 0, chunkCount, key);
+    }
+
+    private void insertChunk(int index, long key, Object chunk) {
+        ensureCapacity();
+        System.arraycopy(keys, index, keys, index + 1, chunkCount - index);
+        System.arraycopy(chunks, index, chunks, index + 1, chunkCount - index);
+        keys[index] = key;
+        chunks[index] = chunk;
+        chunkCount++;
+    }
+
+    private void appendChunk(long key, Object chunk) {
+        ensureCapacity();
+        keys[chunkCount] = key;
+        chunks[chunkCount] = chunk;
+        chunkCount++;
+    }
+
+    private void removeChunk(int index) {
+        System.arraycopy(keys, index + 1, keys, index, chunkCount - index - 1);
+        System.arraycopy(chunks, index + 1, chunks, index, chunkCount - index - 1);
+        chunks[--chunkCount] = null;
+    }
+
+    private void ensureCapacity() {
+        if (chunkCount < keys.length)
+            return;
+        keys = Arrays.copyOf(keys, keys.length * 2);
+        chunks = Arrays.copyOf(chunks, chunks.length * 2);
+    }
+
+//  Null when the chunks have nothing in common.
+    private static Object and(Object chunk, Object otherChunk) {
+        if (chunk instanceof char[] values)
+            return (otherChunk instanceof char[] otherValues) ? intersect(values, otherValues) : filter(values, (long[]) otherChunk);
+        if (otherChunk instanceof char[] otherValues)
+            return filter(otherValues, (long[]) chunk);
+        long[] words = (long[]) chunk;
+        long[] otherWords = (long[]) otherChunk;
+        long[] common = new long[BITMAP_WORDS];
+        for (int word = 0; word < BITMAP_WORDS; word++)
+            common[word] = words[word] & otherWords[word];
+        int cardinality = cardinality(common);
+        if (cardinality == 0)
+            return null;
+        return (cardinality <= MAX_ARRAY_SIZE) ? toValues(common) : common;
+    }
+
+    private static Object or(Object chunk, Object otherChunk) {
+        if (chunk instanceof char[] values && otherChunk instanceof char[] otherValues) {
+            char[] union = union(values, otherValues);
+            return (union.length <= MAX_ARRAY_SIZE) ? union : toWords(union);
+        }
+        if (chunk instanceof char[] values)
+            return set((long[]) otherChunk, values);
+        if (otherChunk instanceof char[] otherValues)
+            return set((long[]) chunk, otherValues);
+        long[] words = ((long[]) chunk).clone();
+        long[] otherWords = (long[]) otherChunk;
+        for (int word = 0; word < BITMAP_WORDS; word++)
+            words[word] |= otherWords[word];
+        return words;
+    }
+
+    private static char[] intersect(char[] values, char[] otherValues) {
+        char[] common = new char[Math.min(values.length, otherValues.length)];
+        int size = 0, i = 0, j = 0;
+        while (i < values.length && j < otherValues.length) {
+            if (values[i] == otherValues[j])
+                common[size++] = values[i];
+            if (values[i] <= otherValues[j])
+                i++;
+            else
+                j++;
+        }
+        return (size > 0) ? Arrays.copyOf(common, size) : null;
+    }
+
+    private static char[] union(char[] values, char[] otherValues) {
+        char[] union = new char[values.length + otherValues.length];
+        int size = 0, i = 0, j = 0;
+        while (i < values.length || j < otherValues.length) {
+            if (j == otherValues.length || (i < values.length && values[i] < otherValues[j]))
+                union[size++] = values[i++];
+            else if (i == values.length || otherValues[j] < values[i])
+                union[size++] = otherValues[j++];
+            else {
+                union[size++] = values[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(union, size);
+    }
+
+    private static char[] filter(char[] values, long[] words) {
+        char[] kept = new char[values.length];
+        int size = 0;
+        for (char low : values) {
+            if ((words[low >>> 6] & (1L << low)) != 0)
+                kept[size++] = low;
+        }
+        return (size > 0) ? Arrays.copyOf(kept, size) : null;
+    }
+
+    private static long[] set(long[] words, char[] values) {
+        long[] result = words.clone();
+        for (char low : values)
+            result[low >>> 6] |= 1L << low;
+        return result;
+    }
+
+    private static long[] toWords(char[] values) {
+        long[] words = new long[BITMAP_WORDS];
+        for (char low : values)
+            words[low >>> 6] |= 1L << low;
+        return words;
+    }
+
+    private static char[] toValues(long[] words) {
+        char[] values = new char[cardinality(words)];
+        int size = 0;
+        for (int word = 0; word < BITMAP_WORDS; word++) {
+            for (long bits = words[word]; bits != 0; bits &= bits - 1)
+                values[size++] = (char) ((word << 6) | Long.numberOfTrailingZeros(bits));
+        }
+        return values;
+    }
+
+    private static int cardinality(long[] words) {
+        int cardinality = 0;
+        for (long word : words)
+            cardinality += Long.bitCount(word);
+        return cardinality;
+    }
+
+    private static Object copy(Object chunk) {
+        return (chunk instanceof long[] words) ? words.clone() : ((char[]) chunk).clone();
+    }
+}
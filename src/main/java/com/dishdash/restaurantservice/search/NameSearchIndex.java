@@ -0,0 +1,144 @@
+package com.dishdash.restaurantservice.search;
+
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory trigram inverted index over restaurant names.
+ * Every lower-cased name is split into overlapping three character grams, each gram keeps a sorted postings list of ids.
+ * A substring search intersects the postings of the grams of the search term and verifies the survivors against the
+ * indexed names, so {@code LIKE %term%} never has to scan the table.
+ */
+@Component
+public class NameSearchIndex extends RestaurantIndex<NameSearchIndex.State> {
+
+    private static final int GRAM_LENGTH = 3;
+
+    /**
+     * Returns the ids of restaurants whose name contains the term ignoring case, in ascending order,
+     * or {@code null} while the index has not been built yet and the caller has to ask the database.
+     */
+    public List<Long> search(String term) {
+        String normalizedTerm = normalize(term);
+        return read(state -> {
+            if (normalizedTerm.length() < GRAM_LENGTH)
+                return scan(state, normalizedTerm);
+
+            List<Postings> lists = new ArrayList<>();
+            for (String gram : grams(normalizedTerm)) {
+                Postings list = state.postings.get(gram);
+                if (list == null)
+                    return Collections.emptyList();
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+//          Walk the shortest postings list and probe the others, then drop ids whose grams are not contiguous in the name.
+            List<Long> ids = new ArrayList<>();
+            Postings shortest = lists.get(0);
+            for (int i = 0; i < shortest.size; i++) {
+                long id = shortest.ids[i];
+                boolean inAll = true;
+                for (int j = 1; j < lists.size() && inAll; j++)
+                    inAll = lists.get(j).contains(id);
+                if (inAll && state.names.get(id).contains(normalizedTerm))
+                    ids.add(id);
+            }
+            return ids;
+        });
+    }
+
+    @Override
+    protected State newState() {
+        return new State();
+    }
+
+    @Override
+    protected void put(State state, ResponseDto restaurant) {
+        remove(state, restaurant.getId());
+        String normalizedName = normalize(restaurant.getName());
+        state.names.put(restaurant.getId(), normalizedName);
+        for (String gram : grams(normalizedName))
+            state.postings.computeIfAbsent(gram, key -> new Postings()).add(restaurant.getId());
+    }
+
+    @Override
+    protected void remove(State state, long id) {
+        String previousName = state.names.remove(id);
+        if (previousName == null)
+            return;
+        for (String gram : grams(previousName)) {
+            Postings list = state.postings.get(gram);
+            list.remove(id);
+            if (list.size == 0)
+                state.postings.remove(gram);
+        }
+    }
+
+    private static List<Long> scan(State state, String normalizedTerm) {
+        List<Long> ids = new ArrayList<>();
+        for (Map.Entry<Long, String> entry : state.names.entrySet()) {
+            if (entry.getValue().contains(normalizedTerm))
+                ids.add(entry.getKey());
+        }
+        Collections.sort(ids);
+        return ids;
+    }
+
+    private static Set<String> grams(String normalizedName) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= normalizedName.length(); i++)
+            grams.add(normalizedName.substring(i, i + GRAM_LENGTH));
+        return grams;
+    }
+
+    static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static final class State {
+        private final Map<String, Postings> postings = new HashMap<>();
+        private final Map<Long, String> names = new HashMap<>();
+    }
+
+    // Sorted, growable array of ids, far smaller than a boxed set and cheap to binary search.
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        void add(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0)
+                return;
+            index = -index - 1;
+            if (size == ids.length)
+                ids = Arrays.copyOf(ids, size * 2);
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0)
+                return;
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+        }
+    }
+}
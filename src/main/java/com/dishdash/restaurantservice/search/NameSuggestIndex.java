@@ -0,0 +1,237 @@
+package com.dishdash.restaurantservice.search;
+
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.dto.SuggestionDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Radix trie over lower-cased restaurant names for the autocomplete endpoint.
+ * Edges carry whole name fragments so the trie holds roughly two nodes per restaurant, and every node caches the best
+ * rated restaurants below it. A suggestion is a walk down the prefix followed by a copy of that cached list, no matter
+ * how many restaurants share the prefix.
+ */
+@Component
+public class NameSuggestIndex extends RestaurantIndex<NameSuggestIndex.State> {
+
+    private static final Comparator<Entry> BY_RATING = Comparator.comparingDouble((Entry entry) -> entry.rating).reversed()
+            .thenComparingLong(entry -> entry.id);
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    @Value("${restaurants.suggest.max-limit:10}")
+    private int maxSuggestions = 10;
+
+    /**
+     * Returns up to {@code limit} restaurants whose name starts with the prefix ignoring case, best rated first,
+     * or {@code null} while the index has not been built yet.
+     */
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        String key = NameSearchIndex.normalize(prefix);
+        return read(state -> {
+            Node node = state.root;
+            int position = 0;
+            while (position < key.length()) {
+                node = node.child(key.charAt(position));
+                if (node == null)
+                    return new ArrayList<>();
+                int common = commonPrefix(node.label, key, position);
+//              The prefix may end half way along an edge, everything below that edge still matches.
+                if (common < node.label.length() && position + common < key.length())
+                    return new ArrayList<>();
+                position += common;
+            }
+            List<SuggestionDto> suggestions = new ArrayList<>();
+            for (int i = 0; i < node.top.length && i < limit; i++)
+                suggestions.add(new SuggestionDto(node.top[i].id, node.top[i].name));
+            return suggestions;
+        });
+    }
+
+    @Override
+    protected State newState() {
+        return new State(maxSuggestions);
+    }
+
+    @Override
+    protected void put(State state, ResponseDto restaurant) {
+        remove(state, restaurant.getId());
+        Entry entry = new Entry(restaurant.getId(), restaurant.getName(), restaurant.getRating(), NameSearchIndex.normalize(restaurant.getName()));
+        state.entries.put(entry.id, entry);
+        state.insert(entry);
+    }
+
+    @Override
+    protected void remove(State state, long id) {
+        Entry entry = state.entries.remove(id);
+        if (entry != null)
+            state.delete(entry);
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int length = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < length && label.charAt(i) == key.charAt(offset + i))
+            i++;
+        return i;
+    }
+
+    static final class State {
+        private final int topSize;
+        private final Node root = new Node("");
+        private final Map<Long, Entry> entries = new HashMap<>();
+
+        State(int topSize) {
+            this.topSize = topSize;
+        }
+
+        void insert(Entry entry) {
+            Node node = root;
+            int position = 0;
+            offer(node, entry);
+            while (position < entry.key.length()) {
+                Node child = node.child(entry.key.charAt(position));
+                if (child == null) {
+                    child = new Node(entry.key.substring(position));
+                    node.addChild(child);
+                }
+                int common = commonPrefix(child.label, entry.key, position);
+                if (common < child.label.length())
+                    child = split(node, child, common);
+                node = child;
+                position += common;
+                offer(node, entry);
+            }
+            node.terminals = append(node.terminals, entry);
+        }
+
+        void delete(Entry entry) {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            int position = 0;
+            path.add(node);
+            while (position < entry.key.length()) {
+                node = node.child(entry.key.charAt(position));
+                position += node.label.length();
+                path.add(node);
+            }
+            node.terminals = without(node.terminals, entry);
+
+//          Children keep correct top lists, so each node on the way back up can be recomputed from them.
+            for (int i = path.size() - 1; i >= 0; i--) {
+                Node current = path.get(i);
+                if (i > 0 && current.terminals.length == 0 && current.children.length == 0) {
+                    path.get(i - 1).removeChild(current);
+                    continue;
+                }
+                if (Arrays.asList(current.top).contains(entry))
+                    current.top = recomputeTop(current);
+            }
+        }
+
+        // Splits the edge to child after the given number of characters and returns the new middle node.
+        private Node split(Node parent, Node child, int length) {
+            Node middle = new Node(child.label.substring(0, length));
+            child.label = child.label.substring(length);
+            middle.children = new Node[]{child};
+            middle.top = child.top.clone();
+            parent.replaceChild(child, middle);
+            return middle;
+        }
+
+        private void offer(Node node, Entry entry) {
+            int index = Arrays.binarySearch(node.top, entry, BY_RATING);
+            int insertion = -index - 1;
+            if (index >= 0 || insertion >= topSize)
+                return;
+            Entry[] top = new Entry[Math.min(node.top.length + 1, topSize)];
+            System.arraycopy(node.top, 0, top, 0, insertion);
+            top[insertion] = entry;
+            System.arraycopy(node.top, insertion, top, insertion + 1, top.length - insertion - 1);
+            node.top = top;
+        }
+
+        private Entry[] recomputeTop(Node node) {
+            List<Entry> candidates = new ArrayList<>(Arrays.asList(node.terminals));
+            for (Node child : node.children)
+                candidates.addAll(Arrays.asList(child.top));
+            candidates.sort(BY_RATING);
+            return candidates.subList(0, Math.min(topSize, candidates.size())).toArray(NO_ENTRIES);
+        }
+    }
+
+    private static final class Node {
+        private String label;
+        private Node[] children = NO_CHILDREN;
+        private Entry[] terminals = NO_ENTRIES;
+        private Entry[] top = NO_ENTRIES;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        // Children are kept sorted by the first character of their label.
+        Node child(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char candidate = children[middle].label.charAt(0);
+                if (candidate < first)
+                    low = middle + 1;
+                else if (candidate > first)
+                    high = middle - 1;
+                else
+                    return children[middle];
+            }
+            return null;
+        }
+
+        void addChild(Node child) {
+            int index = 0;
+            while (index < children.length && children[index].label.charAt(0) < child.label.charAt(0))
+                index++;
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, index);
+            grown[index] = child;
+            System.arraycopy(children, index, grown, index + 1, children.length - index);
+            children = grown;
+        }
+
+        void replaceChild(Node child, Node replacement) {
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] == child)
+                    children[i] = replacement;
+            }
+        }
+
+        void removeChild(Node child) {
+            List<Node> remaining = new ArrayList<>(Arrays.asList(children));
+            remaining.remove(child);
+            children = remaining.toArray(NO_CHILDREN);
+        }
+    }
+
+    private static Entry[] append(Entry[] entries, Entry entry) {
+        Entry[] grown = Arrays.copyOf(entries, entries.length + 1);
+        grown[entries.length] = entry;
+        return grown;
+    }
+
+    private static Entry[] without(Entry[] entries, Entry entry) {
+        List<Entry> remaining = new ArrayList<>(Arrays.asList(entries));
+        remaining.remove(entry);
+        return remaining.toArray(NO_ENTRIES);
+    }
+
+    private record Entry(long id, String name, float rating, String key) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.dishdash.restaurantservice.search;
+
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.enums.ChangeType;
+import com.dishdash.restaurantservice.event.RestaurantChangedEvent;
+import com.dishdash.restaurantservice.pagination.Cursor;
+import com.dishdash.restaurantservice.repository.RestaurantRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Base class of the in-memory indexes over the restaurant catalog.
+ * The index state is loaded from the table once the application is ready and reloaded periodically, so writes made by
+ * other instances are picked up, and is kept current in between by the {@link RestaurantChangedEvent}s of this instance.
+ * Queries return {@code null} until the first load completes, callers then fall back to the database.
+ *
+ * @param <S> the index state, only touched under the index lock
+ */
+@Slf4j
+public abstract class RestaurantIndex<S> {
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private S state;
+
+    private volatile boolean ready;
+
+//  Changes that arrive while a rebuild reads the table, they are replayed on top of the freshly loaded state.
+    private List<RestaurantChangedEvent> pendingChanges;
+
+    protected abstract S newState();
+
+    protected abstract void put(S state, ResponseDto restaurant);
+
+    protected abstract void remove(S state, long id);
+
+    protected <R> R read(Function<S, R> query) {
+        if (!ready)
+            return null;
+        lock.readLock().lock();
+        try {
+            return query.apply(state);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null)
+                pendingChanges.add(event);
+            if (state != null)
+                apply(state, event);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+//  The previous state keeps answering queries until the reloaded one is swapped in.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${restaurants.index.refresh-interval-ms:300000}", fixedDelayString = "${restaurants.index.refresh-interval-ms:300000}")
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+
+        S rebuiltState = newState();
+        try {
+            Cursor after = null;
+            List<ResponseDto> page;
+            do {
+                page = restaurantRepository.findRestaurantsPage(null, null, null, Collections.emptyList(), after, REBUILD_PAGE_SIZE);
+                for (ResponseDto restaurant : page)
+                    put(rebuiltState, restaurant);
+                if (!page.isEmpty())
+                    after = Cursor.after(Collections.emptyList(), page.get(page.size() - 1));
+            } while (page.size() == REBUILD_PAGE_SIZE);
+        }
+        catch (RuntimeException exception) {
+            log.warn("Rebuilding {} failed", getClass().getSimpleName(), exception);
+            rebuiltState = null;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (rebuiltState != null) {
+                for (RestaurantChangedEvent change : pendingChanges)
+                    apply(rebuiltState, change);
+                state = rebuiltState;
+                ready = true;
+            }
+            pendingChanges = null;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(S state, RestaurantChangedEvent event) {
+        if (event.getType() == ChangeType.DELETED)
+            remove(state, event.getRestaurant().getId());
+        else
+            put(state, event.getRestaurant());
+    }
+}
@@ -1,23 +1,50 @@
 package com.dishdash.restaurantservice.service;
 
+import com.dishdash.restaurantservice.dto.BatchGetResponseDto;
+import com.dishdash.restaurantservice.dto.ChangesDto;
+import com.dishdash.restaurantservice.dto.ImportResponseDto;
+import com.dishdash.restaurantservice.dto.NearbyRestaurantDto;
+import com.dishdash.restaurantservice.dto.PageDto;
 import com.dishdash.restaurantservice.dto.RequestDto;
 import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.dto.RestaurantEventDto;
+import com.dishdash.restaurantservice.dto.RestaurantQueryDto;
+import com.dishdash.restaurantservice.dto.SuggestionDto;
 import com.dishdash.restaurantservice.enums.Cuisine;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface RestaurantService {
 
     ResponseDto addRestaurant(RequestDto requestDto);
 
+    ImportResponseDto importRestaurants(Iterator<RequestDto> requestDtos);
+
     ResponseDto getRestaurant(long id);
 
+    BatchGetResponseDto getRestaurants(List<Long> ids);
+
     ResponseDto deleteRestaurant(long id);
 
-    List<ResponseDto> getAllRestaurants(String cuisine, String sortBy, String search);
+    PageDto<ResponseDto> getAllRestaurants(RestaurantQueryDto query);
+
+    void streamRestaurants(String cuisine, String sortBy, String search, boolean fuzzy, Consumer<Stream<ResponseDto>> consumer);
+
+    void exportRestaurants(Long afterId, Consumer<Stream<ResponseDto>> consumer);
 
     ResponseDto updateRestaurant(long id, RequestDto requestDto);
 
+    ChangesDto getChanges(Long since, Integer limit);
+
+    List<RestaurantEventDto> getChangeEvents(long since, int limit);
+
+    List<NearbyRestaurantDto> getNearbyRestaurants(Double latitude, Double longitude, Double radiusKm, String cuisine, Integer limit);
+
     Cuisine[] getAllCuisines();
 
+    List<SuggestionDto> suggestRestaurants(String prefix, Integer limit);
+
 }
@@ -1,21 +1,75 @@
 package com.dishdash.restaurantservice.service.impl;
 
+import com.dishdash.restaurantservice.cache.RestaurantQueryCache;
+import com.dishdash.restaurantservice.catalog.CatalogReadModel;
+import com.dishdash.restaurantservice.catalog.CatalogSnapshot;
+import com.dishdash.restaurantservice.dto.BatchGetResponseDto;
+import com.dishdash.restaurantservice.dto.ChangesDto;
+import com.dishdash.restaurantservice.dto.FacetGroupDto;
+import com.dishdash.restaurantservice.dto.GeoPointDto;
+import com.dishdash.restaurantservice.dto.ImportResponseDto;
+import com.dishdash.restaurantservice.dto.ImportRowResultDto;
+import com.dishdash.restaurantservice.dto.NearbyRestaurantDto;
+import com.dishdash.restaurantservice.dto.PageDto;
 import com.dishdash.restaurantservice.dto.RequestDto;
 import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.dto.RestaurantEventDto;
+import com.dishdash.restaurantservice.dto.RestaurantFilterDto;
+import com.dishdash.restaurantservice.dto.RestaurantQueryDto;
+import com.dishdash.restaurantservice.dto.SuggestionDto;
 import com.dishdash.restaurantservice.entity.Restaurant;
+import com.dishdash.restaurantservice.entity.RestaurantTombstone;
+import com.dishdash.restaurantservice.enums.ChangeType;
 import com.dishdash.restaurantservice.enums.Cuisine;
+import com.dishdash.restaurantservice.enums.Currency;
+import com.dishdash.restaurantservice.enums.Facet;
+import com.dishdash.restaurantservice.enums.ImportStatus;
 import com.dishdash.restaurantservice.enums.Sort;
+import com.dishdash.restaurantservice.event.RestaurantChangedEvent;
 import com.dishdash.restaurantservice.exception.BadRequestException;
 import com.dishdash.restaurantservice.exception.ResourceAlreadyExistsException;
 import com.dishdash.restaurantservice.exception.ResourceNotFoundException;
+import com.dishdash.restaurantservice.exception.ServiceUnavailableException;
+import com.dishdash.restaurantservice.mapper.RestaurantMapper;
+import com.dishdash.restaurantservice.pagination.Cursor;
 import com.dishdash.restaurantservice.repository.RestaurantRepository;
+import com.dishdash.restaurantservice.repository.RestaurantTombstoneRepository;
+import com.dishdash.restaurantservice.search.AttributeIndex;
+import com.dishdash.restaurantservice.search.DeliveryZoneIndex;
+import com.dishdash.restaurantservice.search.FuzzyNameIndex;
+import com.dishdash.restaurantservice.search.GeoIndex;
+import com.dishdash.restaurantservice.search.IdBitmap;
+import com.dishdash.restaurantservice.search.NameSearchIndex;
+import com.dishdash.restaurantservice.search.NameSuggestIndex;
 import com.dishdash.restaurantservice.service.RestaurantService;
-import org.modelmapper.ModelMapper;
+import com.dishdash.restaurantservice.sync.ChangeVersions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Service
 public class RestaurantServiceImpl implements RestaurantService {
@@ -24,90 +78,782 @@ public class RestaurantServiceImpl implements RestaurantService {
     private RestaurantRepository restaurantRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private RestaurantMapper restaurantMapper;
+
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
+    @Autowired
+    private NameSuggestIndex nameSuggestIndex;
+
+    @Autowired
+    private FuzzyNameIndex fuzzyNameIndex;
+
+    @Autowired
+    private GeoIndex geoIndex;
+
+    @Autowired
+    private DeliveryZoneIndex deliveryZoneIndex;
+
+    @Autowired
+    private AttributeIndex attributeIndex;
+
+    @Autowired(required = false)
+    private CatalogReadModel catalogReadModel;
+
+    @Autowired
+    private RestaurantQueryCache restaurantQueryCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ChangeVersions changeVersions;
+
+    @Autowired
+    private RestaurantTombstoneRepository restaurantTombstoneRepository;
+
+    @Value("${restaurants.page.default-limit:20}")
+    private int defaultPageLimit = 20;
+
+    @Value("${restaurants.page.max-limit:100}")
+    private int maxPageLimit = 100;
+
+    @Value("${restaurants.search.index.max-candidates:1000}")
+    private int maxSearchCandidates = 1000;
+
+    @Value("${restaurants.search.max-scanned-rows:10000}")
+    private int maxScannedRows = 10000;
+
+    @Value("${restaurants.suggest.default-limit:5}")
+    private int defaultSuggestLimit = 5;
+
+    @Value("${restaurants.suggest.max-limit:10}")
+    private int maxSuggestLimit = 10;
+
+    @Value("${restaurants.stream.fetch-size:500}")
+    private int streamFetchSize = 500;
+
+    @Value("${restaurants.export.fetch-size:1000}")
+    private int exportFetchSize = 1000;
+
+    @Value("${restaurants.batch-get.max-ids:100}")
+    private int maxBatchGetIds = 100;
+
+    @Value("${restaurants.batch-get.chunk-size:500}")
+    private int batchGetChunkSize = 500;
+
+    @Value("${restaurants.import.chunk-size:1000}")
+    private int importChunkSize = 1000;
+
+    @Value("${restaurants.changes.default-limit:500}")
+    private int defaultChangesLimit = 500;
+
+    @Value("${restaurants.changes.max-limit:1000}")
+    private int maxChangesLimit = 1000;
+
+    @Value("${restaurants.nearby.default-radius-km:5}")
+    private double defaultNearbyRadiusKm = 5;
+
+    @Value("${restaurants.nearby.max-radius-km:50}")
+    private double maxNearbyRadiusKm = 50;
+
+    @Value("${restaurants.facets.delivery-fee-bounds:0,5,10}")
+    private int[] deliveryFeeBucketBounds = {0, 5, 10};
+
+    @Value("${restaurants.facets.delivery-time-bounds:0,20,30,45}")
+    private int[] deliveryTimeBucketBounds = {0, 20, 30, 45};
+
+    @Value("${restaurants.delivery-zones.max-span-degrees:2}")
+    private double maxDeliveryZoneSpanDegrees = 2;
 
     @Override
+    @Transactional
     public ResponseDto addRestaurant(RequestDto requestDto) {
         if(restaurantRepository.findByWebsite(requestDto.getWebsite()).isPresent())
             throw new ResourceAlreadyExistsException("Restaurant", "Website", requestDto.getWebsite());
-        Restaurant restaurant = modelMapper.map(requestDto, Restaurant.class);
+        if(!hasValidLocation(requestDto))
+            throw new BadRequestException("location", requestDto.getLatitude() + "," + requestDto.getLongitude());
+        if(!hasValidDeliveryZones(requestDto))
+            throw new BadRequestException("delivery zone", "polygon");
+        Restaurant restaurant = restaurantMapper.toRestaurant(requestDto);
+        restaurant.setChangeVersion(changeVersions.next(1));
         Restaurant addedRestaurant = restaurantRepository.save(restaurant);
-        return modelMapper.map(addedRestaurant, ResponseDto.class);
+        ResponseDto addedResponseDto = restaurantMapper.toResponseDto(addedRestaurant);
+        eventPublisher.publishEvent(new RestaurantChangedEvent(ChangeType.CREATED, addedResponseDto));
+        return addedResponseDto;
+    }
+
+    @Override
+    public ImportResponseDto importRestaurants(Iterator<RequestDto> requestDtos) {
+        ImportResponseDto importResponseDto = new ImportResponseDto(0, 0, 0, new ArrayList<>());
+        Set<String> importedWebsites = new HashSet<>();
+
+//      Rows are imported in chunks of one transaction each, only one chunk is held in memory while the body is read.
+//      A failing chunk leaves the earlier ones committed, importing the same body again reports them as duplicates.
+        List<RequestDto> chunk = new ArrayList<>();
+        int firstRow = 1;
+        while(requestDtos.hasNext()){
+            chunk.add(requestDtos.next());
+            if(chunk.size() == importChunkSize || !requestDtos.hasNext()){
+                int chunkFirstRow = firstRow;
+                transactionTemplate.executeWithoutResult(status -> importChunk(chunk, chunkFirstRow, importedWebsites, importResponseDto));
+                firstRow += chunk.size();
+                chunk.clear();
+            }
+        }
+        return importResponseDto;
+    }
+
+    private void importChunk(List<RequestDto> chunk, int firstRow, Set<String> importedWebsites, ImportResponseDto importResponseDto) {
+
+//      One lookup for the websites of the whole chunk instead of a findByWebsite per row.
+        Set<String> websites = chunk.stream().filter(Objects::nonNull).map(RequestDto::getWebsite).filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<String> existingWebsites = websites.isEmpty() ? Set.of() : restaurantRepository.findExistingWebsites(websites);
+
+        List<Restaurant> restaurants = new ArrayList<>();
+        List<ImportRowResultDto> createdRows = new ArrayList<>();
+        for(int i = 0; i < chunk.size(); i++){
+            RequestDto requestDto = chunk.get(i);
+            ImportRowResultDto rowResult = new ImportRowResultDto(firstRow + i, ImportStatus.CREATED, null, null);
+            if(requestDto == null || requestDto.getName() == null || requestDto.getName().isBlank()){
+                rowResult.setStatus(ImportStatus.INVALID);
+                rowResult.setMessage("name is required");
+                importResponseDto.setInvalid(importResponseDto.getInvalid() + 1);
+            }
+            else if(!hasValidLocation(requestDto)){
+                rowResult.setStatus(ImportStatus.INVALID);
+                rowResult.setMessage("latitude and longitude must be given together and within range");
+                importResponseDto.setInvalid(importResponseDto.getInvalid() + 1);
+            }
+            else if(!hasValidDeliveryZones(requestDto)){
+                rowResult.setStatus(ImportStatus.INVALID);
+                rowResult.setMessage("delivery zones must have at least three points within range and a bounded span");
+                importResponseDto.setInvalid(importResponseDto.getInvalid() + 1);
+            }
+            else if(requestDto.getWebsite() != null && (existingWebsites.contains(requestDto.getWebsite()) || !importedWebsites.add(requestDto.getWebsite()))){
+                rowResult.setStatus(ImportStatus.DUPLICATE);
+                rowResult.setMessage(new ResourceAlreadyExistsException("Restaurant", "Website", requestDto.getWebsite()).getMessage());
+                importResponseDto.setDuplicates(importResponseDto.getDuplicates() + 1);
+            }
+            else{
+                restaurants.add(restaurantMapper.toRestaurant(requestDto));
+                createdRows.add(rowResult);
+            }
+            importResponseDto.getResults().add(rowResult);
+        }
+
+        long firstChangeVersion = restaurants.isEmpty() ? 0 : changeVersions.next(restaurants.size());
+        for(int i = 0; i < restaurants.size(); i++)
+            restaurants.get(i).setChangeVersion(firstChangeVersion + i);
+
+//      Ids come from the pooled sequence, so the inserts reach the database as JDBC batches when the transaction commits.
+        List<Restaurant> addedRestaurants = restaurantRepository.saveAll(restaurants);
+        for(int i = 0; i < addedRestaurants.size(); i++){
+            ResponseDto addedResponseDto = restaurantMapper.toResponseDto(addedRestaurants.get(i));
+            createdRows.get(i).setId(addedResponseDto.getId());
+            eventPublisher.publishEvent(new RestaurantChangedEvent(ChangeType.CREATED, addedResponseDto));
+        }
+        importResponseDto.setCreated(importResponseDto.getCreated() + addedRestaurants.size());
     }
 
     @Override
     public ResponseDto getRestaurant(long id) {
-        Restaurant retrievedRestaurant = restaurantRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Restaurant", "id", id));
-        return modelMapper.map(retrievedRestaurant, ResponseDto.class);
+//      With the read model enabled only ids it does not know yet, e.g. just added by another instance, reach the database.
+        CatalogSnapshot snapshot = currentSnapshot();
+        ResponseDto responseDto = (snapshot != null) ? snapshot.get(id) : null;
+        if(responseDto != null)
+            return responseDto;
+//      findById is answered by the second-level cache for hot restaurants, a projection query would always reach the database.
+        Restaurant restaurant = restaurantRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Restaurant", "id", id));
+        return restaurantMapper.toResponseDto(restaurant);
     }
 
     @Override
+    public BatchGetResponseDto getRestaurants(List<Long> ids) {
+        if(ids == null || ids.isEmpty() || ids.size() > maxBatchGetIds || ids.stream().anyMatch(Objects::isNull))
+            throw new BadRequestException("ids", String.valueOf(ids));
+
+//      Repeated ids are resolved once, the response keeps the order in which ids were first requested.
+        Set<Long> requestedIds = new LinkedHashSet<>(ids);
+        Map<Long, ResponseDto> foundById = findByIds(requestedIds);
+
+        List<ResponseDto> responseDtoList = new ArrayList<>();
+        List<Long> missingIds = new ArrayList<>();
+        for(Long id : requestedIds){
+            ResponseDto responseDto = foundById.get(id);
+            if(responseDto != null)
+                responseDtoList.add(responseDto);
+            else
+                missingIds.add(id);
+        }
+        return new BatchGetResponseDto(responseDtoList, missingIds);
+    }
+
+    @Override
+    @Transactional
     public ResponseDto deleteRestaurant(long id) {
         Restaurant deletedRestaurant = restaurantRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Restaurant", "id", id));
         restaurantRepository.deleteById(id);
-        return modelMapper.map(deletedRestaurant, ResponseDto.class);
+        RestaurantTombstone tombstone = restaurantTombstoneRepository.save(new RestaurantTombstone(id, changeVersions.next(1)));
+//      The deleted restaurant is reported with the change version of its delete.
+        ResponseDto deletedResponseDto = restaurantMapper.toResponseDto(deletedRestaurant);
+        deletedResponseDto.setChangeVersion(tombstone.getChangeVersion());
+        eventPublisher.publishEvent(new RestaurantChangedEvent(ChangeType.DELETED, deletedResponseDto));
+        return deletedResponseDto;
+    }
+
+    @Override
+    public PageDto<ResponseDto> getAllRestaurants(RestaurantQueryDto query) {
+
+        RestaurantFilterDto filter = parseFilter(query);
+        List<Sort> sorts = parseSorts(query.getSortBy());
+        GeoPointDto deliveryPoint = parseDeliversTo(query.getDeliversTo());
+        Set<Facet> requestedFacets = parseFacets(query.getFacets());
+
+        int pageSize = (query.getLimit() != null) ? query.getLimit() : defaultPageLimit;
+        if(pageSize < 1 || pageSize > maxPageLimit)
+            throw new BadRequestException("limit", String.valueOf(query.getLimit()));
+
+//      A cursor is only valid for the sort order it was issued with.
+        Cursor after = (query.getNext() != null) ? Cursor.decode(query.getNext()) : null;
+        if(after != null && !after.getSorts().equals(sorts))
+            throw new BadRequestException("next", query.getNext());
+
+//      Popular listings are answered from the query cache, writes only drop the pages of the cuisines they touch.
+        RestaurantQueryCache.QueryKey queryKey = RestaurantQueryCache.QueryKey.of(filter, sorts, query.getSearch(), query.isFuzzy(), deliveryPoint, requestedFacets, pageSize, query.getNext());
+        PageDto<ResponseDto> cachedPage = restaurantQueryCache.get(queryKey);
+        if(cachedPage != null)
+            return cachedPage;
+        long generation = restaurantQueryCache.generation(queryKey.group());
+        PageDto<ResponseDto> page = findPage(filter, sorts, query.getSearch(), query.isFuzzy(), deliveryPoint, requestedFacets, pageSize, after);
+        restaurantQueryCache.put(queryKey, page, generation);
+        return page;
+    }
+
+    private PageDto<ResponseDto> findPage(RestaurantFilterDto filter, List<Sort> sorts, String search, boolean fuzzy, GeoPointDto deliveryPoint,
+                                          Set<Facet> facets, int pageSize, Cursor after) {
+
+        String searchTerm = (search != null) ? search.trim() : null;
+        List<Long> candidateIds = (searchTerm != null) ? searchCandidates(searchTerm, fuzzy) : null;
+        if(candidateIds != null)
+            searchTerm = null;
+//      Deliverability has no database predicate, the restaurants delivering to the point always become id candidates,
+//      more of them than fit an IN list filter the rows read from the database instead.
+        if(deliveryPoint != null)
+            candidateIds = intersect(candidateIds, deliveringCandidates(deliveryPoint));
+        if(candidateIds != null && candidateIds.isEmpty())
+            return new PageDto<>(new ArrayList<>(), null, facets.isEmpty() ? null : countFacets(Collections.emptyList(), filter, facets));
+
+//      The attribute filters are unions and intersections of bitmaps, range bounds accepting whole buckets, a combination
+//      matching few enough restaurants narrows the query down to their ids. The filter, with its exact bounds, is still
+//      applied by the query, the ids only spare it the scan.
+        IdBitmap candidates = (candidateIds != null) ? IdBitmap.of(candidateIds) : null;
+        List<Long> pageCandidateIds = candidateIds;
+        IdBitmap matching = AttributeIndex.isIndexed(filter) ? attributeIndex.matching(filter) : null;
+        if(matching != null){
+            if(candidates != null)
+                matching = matching.and(candidates);
+            if(matching.cardinality() <= maxSearchCandidates)
+                pageCandidateIds = matching.toList();
+        }
+
+//      Filter, sort and page restaurants in the read model or in the database, one extra row tells whether another page exists.
+//      Database rows are projected straight into responseDto objects.
+        CatalogSnapshot snapshot = currentSnapshot();
+        List<ResponseDto> responseDtoList;
+        ResponseDto lastScanned = null;
+        if(pageCandidateIds != null && pageCandidateIds.isEmpty())
+            responseDtoList = new ArrayList<>();
+        else if(snapshot != null)
+            responseDtoList = snapshot.page(filter, searchTerm, pageCandidateIds, sorts, after, pageSize + 1);
+        else if(pageCandidateIds != null && pageCandidateIds.size() > maxSearchCandidates){
+            responseDtoList = new ArrayList<>();
+            lastScanned = scanCandidates(candidates, filter, searchTerm, sorts, after, pageSize + 1, responseDtoList);
+        }
+        else
+            responseDtoList = restaurantRepository.findRestaurantsPage(filter, searchTerm, pageCandidateIds, sorts, after, pageSize + 1);
+        boolean hasMore = responseDtoList.size() > pageSize;
+        if(hasMore)
+            responseDtoList = responseDtoList.subList(0, pageSize);
+
+        String nextCursor = hasMore ? Cursor.after(sorts, responseDtoList.get(pageSize - 1)).encode()
+                : (lastScanned != null) ? Cursor.after(sorts, lastScanned).encode() : null;
+        if(facets.isEmpty())
+            return new PageDto<>(responseDtoList, nextCursor);
+
+//      Counted on the bitmap index once the name search is resolved to ids and no range bound applies, otherwise over
+//      all matching restaurants with one GROUP BY query or one pass over the read model.
+        Map<Facet, Map<String, Long>> facetCounts = (searchTerm == null && !hasBounds(filter)) ? attributeIndex.countFacets(candidates, filter, facets) : null;
+        if(facetCounts == null){
+            List<FacetGroupDto> facetGroups = (snapshot != null)
+                    ? snapshot.countFacetGroups(filter, searchTerm, candidateIds, deliveryFeeBucketBounds, deliveryTimeBucketBounds)
+                    : countFacetGroups(filter, searchTerm, candidateIds);
+            facetCounts = countFacets(facetGroups, filter, facets);
+        }
+        return new PageDto<>(responseDtoList, nextCursor, facetCounts);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamRestaurants(String cuisine, String sortBy, String search, boolean fuzzy, Consumer<Stream<ResponseDto>> consumer) {
+
+        RestaurantFilterDto filter = parseFilter(RestaurantQueryDto.builder().cuisine(cuisine).build());
+        List<Sort> sorts = parseSorts(sortBy);
+
+        String searchTerm = (search != null) ? search.trim() : null;
+        List<Long> candidateIds = (searchTerm != null) ? searchCandidates(searchTerm, fuzzy) : null;
+        if(candidateIds != null && candidateIds.isEmpty()){
+            consumer.accept(Stream.empty());
+            return;
+        }
+        if(candidateIds != null)
+            searchTerm = null;
+//      More candidates than fit an IN list filter the streamed rows instead.
+        IdBitmap candidates = (candidateIds != null && candidateIds.size() > maxSearchCandidates) ? IdBitmap.of(candidateIds) : null;
+        if(candidates != null)
+            candidateIds = null;
+
+//      Rows are handed over one at a time while the result set is read, nothing is collected in between.
+        try(Stream<ResponseDto> responseDtoStream = restaurantRepository.streamRestaurants(filter, searchTerm, candidateIds, sorts, null, streamFetchSize)){
+            consumer.accept((candidates != null) ? responseDtoStream.filter(row -> candidates.contains(row.getId())) : responseDtoStream);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportRestaurants(Long afterId, Consumer<Stream<ResponseDto>> consumer) {
+        if(afterId != null && afterId < 0)
+            throw new BadRequestException("afterId", String.valueOf(afterId));
+
+//      Rows come in id order, so an interrupted export resumes after the last id it received.
+//      The projection bypasses the persistence context and the second-level cache, a full export leaves the hot entries in place.
+        Cursor after = new Cursor(Collections.emptyList(), Collections.emptyList(), (afterId != null) ? afterId : 0);
+        try(Stream<ResponseDto> responseDtoStream = restaurantRepository.streamRestaurants(null, null, null, Collections.emptyList(), after, exportFetchSize)){
+            consumer.accept(responseDtoStream);
+        }
     }
 
     @Override
-    public List<ResponseDto> getAllRestaurants(String cuisine, String sortBy, String search) {
+    @Transactional
+    public ResponseDto updateRestaurant(long id, RequestDto requestDto) {
+        if(!hasValidLocation(requestDto))
+            throw new BadRequestException("location", requestDto.getLatitude() + "," + requestDto.getLongitude());
+        if(!hasValidDeliveryZones(requestDto))
+            throw new BadRequestException("delivery zone", "polygon");
+        Restaurant restaurant = restaurantRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Restaurant", "id", id));
+        ResponseDto previousResponseDto = restaurantMapper.toResponseDto(restaurant);
+        restaurantMapper.updateRestaurant(requestDto, restaurant);
+        restaurant.setChangeVersion(changeVersions.next(1));
+
+//      Flushed so the returned restaurant carries the entity version the update was written with.
+        Restaurant updatedRestaurant = restaurantRepository.save(restaurant);
+        restaurantRepository.flush();
+        ResponseDto updatedResponseDto = restaurantMapper.toResponseDto(updatedRestaurant);
+        eventPublisher.publishEvent(new RestaurantChangedEvent(ChangeType.UPDATED, updatedResponseDto, previousResponseDto));
+        return updatedResponseDto;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ChangesDto getChanges(Long since, Integer limit) {
+        long watermark = (since != null) ? since : 0;
+        if(watermark < 0)
+            throw new BadRequestException("since", String.valueOf(since));
+        int changeCount = (limit != null) ? limit : defaultChangesLimit;
+        if(changeCount < 1 || changeCount > maxChangesLimit)
+            throw new BadRequestException("limit", String.valueOf(limit));
+
+//      Only versions up to the last committed one are read, a write still holding the counter can not slip in below the new watermark.
+        long upTo = changeVersions.current();
+        List<RestaurantEventDto> events = readChangeEvents(watermark, upTo, changeCount);
+
+        List<ResponseDto> changed = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        for(RestaurantEventDto event : events){
+            if(event.getType() == ChangeType.DELETED)
+                deleted.add(event.getId());
+            else
+                changed.add(event.getRestaurant());
+        }
+
+//      A full page may be followed by more changes, otherwise everything up to the last committed version has been seen.
+        boolean hasMore = events.size() == changeCount;
+        long next = events.isEmpty() ? watermark : events.get(events.size() - 1).getVersion();
+        return new ChangesDto(changed, deleted, hasMore ? next : Math.max(next, upTo), hasMore);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RestaurantEventDto> getChangeEvents(long since, int limit) {
+        return readChangeEvents(since, changeVersions.current(), limit);
+    }
+
+    @Override
+    public List<NearbyRestaurantDto> getNearbyRestaurants(Double latitude, Double longitude, Double radiusKm, String cuisine, Integer limit) {
+        if(latitude == null || latitude < -90 || latitude > 90)
+            throw new BadRequestException("lat", String.valueOf(latitude));
+        if(longitude == null || longitude < -180 || longitude > 180)
+            throw new BadRequestException("lon", String.valueOf(longitude));
+        double radius = (radiusKm != null) ? radiusKm : defaultNearbyRadiusKm;
+        if(!(radius > 0) || radius > maxNearbyRadiusKm)
+            throw new BadRequestException("radiusKm", String.valueOf(radiusKm));
+        Cuisine cuisineFilter = parseCuisine(cuisine);
+        int resultCount = (limit != null) ? limit : defaultPageLimit;
+        if(resultCount < 1 || resultCount > maxPageLimit)
+            throw new BadRequestException("limit", String.valueOf(limit));
+
+//      Answered by the geohash grid, only the closest restaurants are resolved. The database is asked while the grid is being built.
+        List<GeoIndex.Hit> hits = geoIndex.nearby(latitude, longitude, radius, cuisineFilter, resultCount);
+        if(hits == null)
+            return findNearby(latitude, longitude, radius, cuisineFilter, resultCount);
+
+        Map<Long, ResponseDto> foundById = findByIds(hits.stream().map(GeoIndex.Hit::id).collect(Collectors.toList()));
+        List<NearbyRestaurantDto> nearbyRestaurants = new ArrayList<>();
+        for(GeoIndex.Hit hit : hits){
+//          A restaurant deleted since the lookup is left out.
+            ResponseDto responseDto = foundById.get(hit.id());
+            if(responseDto != null)
+                nearbyRestaurants.add(new NearbyRestaurantDto(responseDto, hit.distanceKm()));
+        }
+        return nearbyRestaurants;
+    }
+
+    @Override
+    public Cuisine[] getAllCuisines() {
+        return Cuisine.values();
+    }
+
+    @Override
+    public List<SuggestionDto> suggestRestaurants(String prefix, Integer limit) {
+        if(prefix == null || prefix.isBlank())
+            throw new BadRequestException("prefix", prefix);
+        int suggestionCount = (limit != null) ? limit : defaultSuggestLimit;
+        if(suggestionCount < 1 || suggestionCount > maxSuggestLimit)
+            throw new BadRequestException("limit", String.valueOf(limit));
+
+//      Served from the prefix trie, the database is only asked until the trie has been built.
+        List<SuggestionDto> suggestions = nameSuggestIndex.suggest(prefix, suggestionCount);
+        if(suggestions == null)
+            suggestions = restaurantRepository.findSuggestions(prefix.trim(), PageRequest.of(0, suggestionCount));
+        return suggestions;
+    }
+
+//  Rows and tombstones share one version sequence, both are read past the watermark and merged by version.
+//  A restaurant that was never updated since it was written still has entity version 0 and is reported as created.
+    private List<RestaurantEventDto> readChangeEvents(long since, long upTo, int limit) {
+        PageRequest firstChanges = PageRequest.of(0, limit);
+        List<ResponseDto> changedRestaurants = restaurantRepository.findChanged(since, upTo, firstChanges);
+        List<RestaurantTombstone> tombstones = restaurantTombstoneRepository.findTombstones(since, upTo, firstChanges);
+
+        List<RestaurantEventDto> events = new ArrayList<>();
+        int c = 0, t = 0;
+        while(events.size() < limit && (c < changedRestaurants.size() || t < tombstones.size())){
+            if(t == tombstones.size() || (c < changedRestaurants.size() && changedRestaurants.get(c).getChangeVersion() < tombstones.get(t).getChangeVersion())){
+                ResponseDto restaurant = changedRestaurants.get(c++);
+                ChangeType type = (restaurant.getVersion() == 0) ? ChangeType.CREATED : ChangeType.UPDATED;
+                events.add(new RestaurantEventDto(restaurant.getChangeVersion(), type, restaurant.getId(), restaurant));
+            }
+            else{
+                RestaurantTombstone tombstone = tombstones.get(t++);
+                events.add(new RestaurantEventDto(tombstone.getChangeVersion(), ChangeType.DELETED, tombstone.getRestaurantId(), null));
+            }
+        }
+        return events;
+    }
+
+//  Resolves ids from the read model, the rest with one IN query per chunk instead of one findById per id.
+//  Chunks keep the IN list within what the database handles well.
+    private Map<Long, ResponseDto> findByIds(Collection<Long> ids) {
+        Map<Long, ResponseDto> foundById = new HashMap<>();
+        CatalogSnapshot snapshot = currentSnapshot();
+        List<Long> unresolvedIds = new ArrayList<>();
+        for(Long id : ids){
+            ResponseDto responseDto = (snapshot != null) ? snapshot.get(id) : null;
+            if(responseDto != null)
+                foundById.put(id, responseDto);
+            else
+                unresolvedIds.add(id);
+        }
+        for(int from = 0; from < unresolvedIds.size(); from += batchGetChunkSize){
+            List<Long> chunk = unresolvedIds.subList(from, Math.min(from + batchGetChunkSize, unresolvedIds.size()));
+            for(ResponseDto responseDto : restaurantRepository.findResponseDtosByIdIn(chunk))
+                foundById.put(responseDto.getId(), responseDto);
+        }
+        return foundById;
+    }
+
+//  Reads the bounding box of the circle through the location index and trims it to the circle.
+//  A box crossing the antimeridian is read as its whole latitude band.
+    private List<NearbyRestaurantDto> findNearby(double latitude, double longitude, double radiusKm, Cuisine cuisine, int limit) {
+        GeoIndex.BoundingBox box = GeoIndex.BoundingBox.around(latitude, longitude, radiusKm);
+        double minLongitude = box.crossesAntimeridian() ? -180 : box.minLongitude();
+        double maxLongitude = box.crossesAntimeridian() ? 180 : box.maxLongitude();
+        return restaurantRepository.findInBoundingBox(cuisine, box.minLatitude(), box.maxLatitude(), minLongitude, maxLongitude).stream()
+                .map(restaurant -> new NearbyRestaurantDto(restaurant, GeoIndex.distanceKm(latitude, longitude, restaurant.getLatitude(), restaurant.getLongitude())))
+                .filter(nearbyRestaurant -> nearbyRestaurant.getDistanceKm() <= radiusKm)
+                .sorted(Comparator.comparingDouble(NearbyRestaurantDto::getDistanceKm).thenComparingLong(nearbyRestaurant -> nearbyRestaurant.getRestaurant().getId()))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+//  Coordinates are optional, but a restaurant has either both or none of them.
+    private boolean hasValidLocation(RequestDto requestDto) {
+        Double latitude = requestDto.getLatitude();
+        Double longitude = requestDto.getLongitude();
+        if(latitude == null || longitude == null)
+            return latitude == null && longitude == null;
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+
+//  Zones need at least three points and a bounded extent, a zone spanning half the globe would be filed in most grid cells.
+    private boolean hasValidDeliveryZones(RequestDto requestDto) {
+        if(requestDto.getDeliveryZones() == null)
+            return true;
+        for(List<GeoPointDto> zone : requestDto.getDeliveryZones()){
+            if(zone == null || zone.size() < 3 || zone.stream().anyMatch(Objects::isNull))
+                return false;
+            double minLatitude = zone.stream().mapToDouble(GeoPointDto::getLatitude).min().getAsDouble();
+            double maxLatitude = zone.stream().mapToDouble(GeoPointDto::getLatitude).max().getAsDouble();
+            double minLongitude = zone.stream().mapToDouble(GeoPointDto::getLongitude).min().getAsDouble();
+            double maxLongitude = zone.stream().mapToDouble(GeoPointDto::getLongitude).max().getAsDouble();
+            if(!(minLatitude >= -90 && maxLatitude <= 90 && minLongitude >= -180 && maxLongitude <= 180))
+                return false;
+            if(!(maxLatitude - minLatitude <= maxDeliveryZoneSpanDegrees && maxLongitude - minLongitude <= maxDeliveryZoneSpanDegrees))
+                return false;
+        }
+        return true;
+    }
+
+//  A point given as deliversTo=latitude,longitude.
+    private GeoPointDto parseDeliversTo(String deliversTo) {
+        if(deliversTo == null)
+            return null;
+        String[] coordinates = deliversTo.split(",");
+        try {
+            if(coordinates.length == 2){
+                double latitude = Double.parseDouble(coordinates[0].trim());
+                double longitude = Double.parseDouble(coordinates[1].trim());
+                if(latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180)
+                    return new GeoPointDto(latitude, longitude);
+            }
+        }
+        catch (NumberFormatException exception){
+            throw new BadRequestException("deliversTo", deliversTo);
+        }
+        throw new BadRequestException("deliversTo", deliversTo);
+    }
+
+//  Facets are requested by name, e.g. facets=CUISINE,DELIVERY_FEE.
+    private Set<Facet> parseFacets(String facets) {
+        Set<Facet> requestedFacets = EnumSet.noneOf(Facet.class);
+        if(facets != null){
+            try {
+                for(String facet : facets.split(","))
+                    requestedFacets.add(Facet.valueOf(facet.trim()));
+            }
+            catch (IllegalArgumentException exception){
+                throw new BadRequestException("facets", facets);
+            }
+        }
+        return requestedFacets;
+    }
+
+//  Each attribute takes a comma separated list of accepted values, e.g. cuisine=INDIAN,THAI&currency=GBP,
+//  ranges take an inclusive bound, e.g. minRating=4&maxDeliveryFee=2.
+    private RestaurantFilterDto parseFilter(RestaurantQueryDto query) {
+        String cuisine = query.getCuisine();
+        String currency = query.getCurrency();
+        if(query.getMinRating() != null && !(query.getMinRating() >= 0 && query.getMinRating() <= 5))
+            throw new BadRequestException("minRating", String.valueOf(query.getMinRating()));
+        if(query.getMaxDeliveryFee() != null && query.getMaxDeliveryFee() < 0)
+            throw new BadRequestException("maxDeliveryFee", String.valueOf(query.getMaxDeliveryFee()));
+        if(query.getMaxDeliveryTime() != null && query.getMaxDeliveryTime() < 0)
+            throw new BadRequestException("maxDeliveryTime", String.valueOf(query.getMaxDeliveryTime()));
+        if(query.getMaxMinOrder() != null && query.getMaxMinOrder() < 0)
+            throw new BadRequestException("maxMinOrder", String.valueOf(query.getMaxMinOrder()));
+
+        RestaurantFilterDto filter = new RestaurantFilterDto(null, null, query.getMinRating(), query.getMaxDeliveryFee(),
+                query.getMaxDeliveryTime(), query.getMaxMinOrder());
+        if(cuisine != null){
+            try {
+                filter.setCuisines(Arrays.stream(cuisine.split(",")).map(value -> Cuisine.valueOf(value.trim()))
+                        .collect(Collectors.toCollection(() -> EnumSet.noneOf(Cuisine.class))));
+            }
+            catch (IllegalArgumentException exception){
+                throw new BadRequestException("Cuisine", cuisine);
+            }
+        }
+        if(currency != null){
+            try {
+                filter.setCurrencies(Arrays.stream(currency.split(",")).map(value -> Currency.valueOf(value.trim()))
+                        .collect(Collectors.toCollection(() -> EnumSet.noneOf(Currency.class))));
+            }
+            catch (IllegalArgumentException exception){
+                throw new BadRequestException("Currency", currency);
+            }
+        }
+        return (cuisine == null && currency == null && !hasBounds(filter)) ? null : filter;
+    }
+
+    private static boolean hasBounds(RestaurantFilterDto filter) {
+        return filter != null && (filter.getMinRating() != null || filter.getMaxDeliveryFee() != null
+                || filter.getMaxDeliveryTime() != null || filter.getMaxMinimumOrderAmount() != null);
+    }
 
-        List<Restaurant> restaurantList;
-//      Filter Restaurants by Cuisine and search criteria.
+    private Cuisine parseCuisine(String cuisine) {
         try {
-            restaurantList = restaurantRepository.findRestaurants((cuisine != null) ? Cuisine.valueOf(cuisine) : null, (search != null) ? search.trim() : null);
+            return (cuisine != null) ? Cuisine.valueOf(cuisine) : null;
         }
         catch (IllegalArgumentException exception){
             throw new BadRequestException("Cuisine", cuisine);
         }
+    }
 
-//      Sort restaurants by sort criteria.
+//  Sort keys are applied in the given order, e.g. sortBy=RATING,DELIVERY_FEE.
+    private List<Sort> parseSorts(String sortBy) {
+        List<Sort> sorts = new ArrayList<>();
         if(sortBy != null){
             try {
-                switch (Sort.valueOf(sortBy)) {
-                    case NAME -> restaurantList.sort(Comparator.comparing(Restaurant::getName));
-                    case RATING ->
-                            restaurantList.sort(Comparator.comparingDouble(Restaurant::getRating).reversed());
-                    case DELIVERY_TIME ->
-                            restaurantList.sort(Comparator.comparingInt(Restaurant::getAverageDeliveryTimeInMinutes));
-                    case DELIVERY_FEE ->
-                            restaurantList.sort(Comparator.comparingInt(Restaurant::getDeliveryFee));
-                    case MIN_ORDER_AMOUNT ->
-                        restaurantList.sort(Comparator.comparingInt(Restaurant::getMinimumOrderAmount));
+                for(String sortKey : sortBy.split(",")){
+                    Sort sort = Sort.valueOf(sortKey.trim());
+                    if(sorts.contains(sort))
+                        throw new BadRequestException("sortBy", sortBy);
+                    sorts.add(sort);
                 }
             }
             catch (IllegalArgumentException exception){
                 throw new BadRequestException("sortBy", sortBy);
             }
         }
+        return sorts;
+    }
 
-//      Map restaurant objects to responseDto objects
-        List<ResponseDto> responseDtoList = new ArrayList<>();
-        for(Restaurant restaurant : restaurantList){
-            responseDtoList.add(modelMapper.map(restaurant, ResponseDto.class));
+//  Name searches are answered by the trigram index, the database LIKE scan is only used while the index is being built.
+//  A term matching more restaurants than fit a reasonable IN list is not selective, there the LIKE scan fills a page quickly.
+//  A fuzzy search tolerates typos in each word of the term and degrades to the exact search while its index is being built.
+//  Its matches have no database predicate, however many there are, they stay candidates and filter the scanned rows.
+    private List<Long> searchCandidates(String searchTerm, boolean fuzzy) {
+        List<Long> fuzzyIds = fuzzy ? fuzzyNameIndex.search(searchTerm) : null;
+        if(fuzzyIds != null)
+            return fuzzyIds;
+        List<Long> candidateIds = nameSearchIndex.search(searchTerm);
+        return (candidateIds != null && candidateIds.size() <= maxSearchCandidates) ? candidateIds : null;
+    }
+
+//  Rolls the groups up into one count per facet value, every value is listed even without restaurants.
+//  The cuisine counts ignore the cuisine filter and the currency counts the currency filter, so each value shows what
+//  selecting it would return, the other facets honour both.
+    private Map<Facet, Map<String, Long>> countFacets(List<FacetGroupDto> facetGroups, RestaurantFilterDto filter, Set<Facet> facets) {
+        Set<Cuisine> cuisines = (filter != null) ? filter.getCuisines() : null;
+        Set<Currency> currencies = (filter != null) ? filter.getCurrencies() : null;
+        Map<Facet, Map<String, Long>> counts = new EnumMap<>(Facet.class);
+        for(Facet facet : facets){
+            Map<String, Long> values = new LinkedHashMap<>();
+            for(String value : facetValues(facet))
+                values.put(value, 0L);
+            counts.put(facet, values);
+        }
+        for(FacetGroupDto group : facetGroups){
+            boolean cuisineMatches = cuisines == null || (group.getCuisine() != null && cuisines.contains(group.getCuisine()));
+            boolean currencyMatches = currencies == null || (group.getCurrencyUsed() != null && currencies.contains(group.getCurrencyUsed()));
+            if(currencyMatches)
+                addCount(counts, Facet.CUISINE, (group.getCuisine() != null) ? group.getCuisine().name() : null, group.getCount());
+            if(cuisineMatches)
+                addCount(counts, Facet.CURRENCY, (group.getCurrencyUsed() != null) ? group.getCurrencyUsed().name() : null, group.getCount());
+            if(!cuisineMatches || !currencyMatches)
+                continue;
+            addCount(counts, Facet.DELIVERY_FEE, Facet.bucketLabel(group.getDeliveryFeeBucket(), deliveryFeeBucketBounds), group.getCount());
+            addCount(counts, Facet.DELIVERY_TIME, Facet.bucketLabel(group.getDeliveryTimeBucket(), deliveryTimeBucketBounds), group.getCount());
         }
+        return counts;
+    }
 
-        return responseDtoList;
+    private List<String> facetValues(Facet facet) {
+        return switch(facet){
+            case CUISINE -> Arrays.stream(Cuisine.values()).map(Enum::name).toList();
+            case CURRENCY -> Arrays.stream(Currency.values()).map(Enum::name).toList();
+            case DELIVERY_FEE -> IntStream.range(0, deliveryFeeBucketBounds.length).mapToObj(bucket -> Facet.bucketLabel(bucket, deliveryFeeBucketBounds)).toList();
+            case DELIVERY_TIME -> IntStream.range(0, deliveryTimeBucketBounds.length).mapToObj(bucket -> Facet.bucketLabel(bucket, deliveryTimeBucketBounds)).toList();
+        };
     }
 
-    @Override
-    public ResponseDto updateRestaurant(long id, RequestDto requestDto) {
-        Restaurant restaurant = restaurantRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Restaurant", "id", id));
-        restaurant.setName(requestDto.getName());
-        restaurant.setCuisine(requestDto.getCuisine());
-        restaurant.setAddress(requestDto.getAddress());
-        restaurant.setRating(requestDto.getRating());
-        restaurant.setContactNumber(requestDto.getContactNumber());
-        restaurant.setWebsite(requestDto.getWebsite());
-        restaurant.setAverageDeliveryTimeInMinutes(requestDto.getAverageDeliveryTimeInMinutes());
-        restaurant.setDeliveryFee(requestDto.getDeliveryFee());
-        restaurant.setMinimumOrderAmount(requestDto.getMinimumOrderAmount());
-        restaurant.setCurrencyUsed(requestDto.getCurrencyUsed());
+//  Restaurants without a cuisine or currency are left out of that facet, facets that were not requested are skipped.
+    private static void addCount(Map<Facet, Map<String, Long>> counts, Facet facet, String value, long count) {
+        Map<String, Long> values = counts.get(facet);
+        if(values != null && value != null)
+            values.merge(value, count, Long::sum);
+    }
 
-        return modelMapper.map(restaurantRepository.save(restaurant), ResponseDto.class);
+//  Answered by the delivery zone grid only, testing the zones of every restaurant having some is too costly to be
+//  a fallback, so a request arriving while the grid is being built is asked to retry.
+    private List<Long> deliveringCandidates(GeoPointDto deliveryPoint) {
+        List<Long> candidateIds = deliveryZoneIndex.deliveringTo(deliveryPoint.getLatitude(), deliveryPoint.getLongitude());
+        if(candidateIds == null)
+            throw new ServiceUnavailableException("Delivery zones are being indexed, retry shortly");
+        return candidateIds;
     }
 
-    @Override
-    public Cuisine[] getAllCuisines() {
-        return Cuisine.values();
+//  More candidates than fit an IN list filter the rows read in sort order instead, a batch of at most maxSearchCandidates
+//  rows at a time. At most maxScannedRows rows are read per page, a page cut short by that returns the rows found so far
+//  and the last row read, which the next page continues after.
+    private ResponseDto scanCandidates(IdBitmap candidates, RestaurantFilterDto filter, String searchTerm, List<Sort> sorts,
+                                       Cursor after, int limit, List<ResponseDto> page) {
+        int scanned = 0;
+        ResponseDto lastRow = null;
+        while(scanned < maxScannedRows){
+            int batchSize = Math.min(maxSearchCandidates, maxScannedRows - scanned);
+            List<ResponseDto> batch = restaurantRepository.findRestaurantsPage(filter, searchTerm, null, sorts, after, batchSize);
+            for(ResponseDto row : batch){
+                if(!candidates.contains(row.getId()))
+                    continue;
+                page.add(row);
+                if(page.size() == limit)
+                    return null;
+            }
+            if(batch.size() < batchSize)
+                return null;
+            scanned += batch.size();
+            lastRow = batch.get(batch.size() - 1);
+            after = Cursor.after(sorts, lastRow);
+        }
+        return lastRow;
+    }
+
+//  The groups of a candidate list too long for one IN list are counted a chunk at a time, the rollup adds them up.
+    private List<FacetGroupDto> countFacetGroups(RestaurantFilterDto filter, String searchTerm, List<Long> candidateIds) {
+        if(candidateIds == null || candidateIds.size() <= maxSearchCandidates)
+            return restaurantRepository.countFacetGroups(filter, searchTerm, candidateIds, deliveryFeeBucketBounds, deliveryTimeBucketBounds);
+        List<FacetGroupDto> facetGroups = new ArrayList<>();
+        for(int from = 0; from < candidateIds.size(); from += maxSearchCandidates){
+            List<Long> chunk = candidateIds.subList(from, Math.min(from + maxSearchCandidates, candidateIds.size()));
+            facetGroups.addAll(restaurantRepository.countFacetGroups(filter, searchTerm, chunk, deliveryFeeBucketBounds, deliveryTimeBucketBounds));
+        }
+        return facetGroups;
+    }
+
+//  Both lists are in ascending id order, a missing list does not restrict the ids.
+    private static List<Long> intersect(List<Long> ids, List<Long> otherIds) {
+        if(ids == null)
+            return otherIds;
+        List<Long> common = new ArrayList<>();
+        int i = 0, j = 0;
+        while(i < ids.size() && j < otherIds.size()){
+            int comparison = Long.compare(ids.get(i), otherIds.get(j));
+            if(comparison == 0)
+                common.add(ids.get(i));
+            if(comparison <= 0)
+                i++;
+            if(comparison >= 0)
+                j++;
+        }
+        return common;
+    }
+
+    private CatalogSnapshot currentSnapshot() {
+        return (catalogReadModel != null) ? catalogReadModel.snapshot() : null;
     }
 }
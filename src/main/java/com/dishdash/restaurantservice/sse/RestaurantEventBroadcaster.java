@@ -0,0 +1,242 @@
+package com.dishdash.restaurantservice.sse;
+
+import com.dishdash.restaurantservice.dto.RestaurantEventDto;
+import com.dishdash.restaurantservice.event.RestaurantChangedEvent;
+import com.dishdash.restaurantservice.service.RestaurantService;
+import com.dishdash.restaurantservice.sync.ChangeVersions;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes committed restaurant changes to Server-Sent Events subscribers, the id of every event is its change version.
+ * Changes are read from the committed change log instead of the events of this instance, so writes made through any
+ * instance reach every subscriber, and a local commit only triggers the next read early.
+ * Every subscriber gets a bounded buffer drained by a small pool of sender threads, the change log is read by a thread
+ * of its own so sending never waits behind reading. A subscriber whose buffer overflows during a burst skips the
+ * buffer and catches up from the change log; one that sends nothing for a whole heartbeat interval while changes
+ * are waiting is disconnected and resumes with its Last-Event-ID.
+ */
+@Slf4j
+@Component
+public class RestaurantEventBroadcaster {
+
+//  Queued behind the events of a subscriber, only when its buffer has room.
+    private static final RestaurantEventDto HEARTBEAT = new RestaurantEventDto();
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    @Autowired
+    private ChangeVersions changeVersions;
+
+    @Value("${restaurants.events.buffer-size:256}")
+    private int bufferSize = 256;
+
+    @Value("${restaurants.events.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${restaurants.events.timeout-ms:1800000}")
+    private long timeoutMs = 1800000;
+
+    @Value("${restaurants.events.sender-threads:4}")
+    private int senderThreads = 4;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private ExecutorService senders;
+
+    private ExecutorService poller;
+
+//  Set while a poll is queued on the poller, the commits in between are picked up by that poll.
+    private final AtomicBoolean pollRequested = new AtomicBoolean();
+
+//  Version of the last change handed to the subscribers, -1 while nobody is subscribed.
+    private long watermark = -1;
+
+    @PostConstruct
+    public void start() {
+        senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "restaurant-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "restaurant-events-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        poller.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    /**
+     * Registers a subscriber, with a {@code lastEventId} it first receives every change committed after that version.
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber;
+        synchronized (this) {
+            if (watermark < 0)
+                watermark = changeVersions.current();
+            subscriber = new Subscriber(emitter, (lastEventId != null) ? lastEventId : watermark, lastEventId != null);
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        if (lastEventId != null)
+            subscriber.schedule();
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (!subscribers.isEmpty() && pollRequested.compareAndSet(false, true)) {
+            poller.execute(() -> {
+                pollRequested.set(false);
+                poll();
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${restaurants.events.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        if (subscribers.isEmpty()) {
+            watermark = -1;
+            return;
+        }
+        try {
+            List<RestaurantEventDto> events;
+            do {
+                events = restaurantService.getChangeEvents(watermark, batchSize);
+                for (RestaurantEventDto event : events) {
+                    watermark = event.getVersion();
+                    subscribers.forEach(subscriber -> subscriber.offer(event));
+                }
+            } while (events.size() == batchSize);
+        }
+        catch (RuntimeException exception) {
+            log.warn("Reading restaurant changes for event subscribers failed", exception);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${restaurants.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.forEach(Subscriber::heartbeat);
+    }
+
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<RestaurantEventDto> buffer = new ArrayBlockingQueue<>(bufferSize);
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+//      Set when changes were not buffered, the next drain reads them from the change log.
+        private final AtomicBoolean behind;
+
+//      Set by every send, cleared by every heartbeat.
+        private volatile boolean progressed;
+
+//      Only touched by the sender thread draining this subscriber.
+        private long lastSentVersion;
+
+        private Subscriber(SseEmitter emitter, long lastSentVersion, boolean behind) {
+            this.emitter = emitter;
+            this.lastSentVersion = lastSentVersion;
+            this.behind = new AtomicBoolean(behind);
+        }
+
+        private void offer(RestaurantEventDto event) {
+            if (!buffer.offer(event))
+                behind.set(true);
+            schedule();
+        }
+
+        private void heartbeat() {
+            boolean progressedSinceLastHeartbeat = progressed;
+            progressed = false;
+            if (buffer.offer(HEARTBEAT)) {
+                schedule();
+                return;
+            }
+            if (!progressedSinceLastHeartbeat) {
+                subscribers.remove(this);
+                emitter.complete();
+            }
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true))
+                senders.execute(this::drain);
+        }
+
+//      Changes broadcast while the change log is read are queued meanwhile, the versions already sent are skipped.
+//      The flag is cleared before reading, so an overflow during the read is caught by the next round.
+        private void drain() {
+            try {
+                while (behind.getAndSet(false)) {
+                    List<RestaurantEventDto> events;
+                    do {
+                        events = restaurantService.getChangeEvents(lastSentVersion, batchSize);
+                        for (RestaurantEventDto event : events)
+                            send(event);
+                    } while (events.size() == batchSize);
+                }
+                RestaurantEventDto event;
+                while ((event = buffer.poll()) != null) {
+                    if (event == HEARTBEAT)
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    else if (event.getVersion() > lastSentVersion)
+                        send(event);
+                }
+            }
+            catch (IOException | RuntimeException exception) {
+                subscribers.remove(this);
+                emitter.completeWithError(exception);
+                return;
+            }
+            finally {
+                draining.set(false);
+            }
+            if (!buffer.isEmpty() || behind.get())
+                schedule();
+        }
+
+        private void send(RestaurantEventDto event) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(event.getVersion()))
+                    .name(event.getType().name())
+                    .data(event, MediaType.APPLICATION_JSON));
+            lastSentVersion = event.getVersion();
+            progressed = true;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.dishdash.restaurantservice.sync;
+
+import com.dishdash.restaurantservice.entity.ChangeCounter;
+import com.dishdash.restaurantservice.repository.ChangeCounterRepository;
+import com.dishdash.restaurantservice.repository.RestaurantRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hands out the monotonic change versions stamped on written restaurants and on the tombstones of deleted ones.
+ * Versions are drawn from one counter row that every write keeps locked until it commits, so they become visible in
+ * the order they were handed out: once version n is committed, no change numbered n or lower can still appear.
+ */
+@Component
+public class ChangeVersions {
+
+    private static final String RESTAURANTS = "restaurants";
+
+    @Autowired
+    private ChangeCounterRepository changeCounterRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Returns the first of {@code count} consecutive versions, the counter stays locked until the caller commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long next(int count) {
+        ChangeCounter counter = lockCounter();
+        long first = counter.getLastVersion() + 1;
+        counter.setLastVersion(counter.getLastVersion() + count);
+        return first;
+    }
+
+    /**
+     * Returns the last committed version, every change up to it can be read.
+     */
+    @Transactional(readOnly = true)
+    public long current() {
+        return changeCounterRepository.findById(RESTAURANTS).map(ChangeCounter::getLastVersion).orElse(0L);
+    }
+
+//  Rows written before change versions existed are stamped once, in id order, above every version handed out so far.
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void stampUnversionedRestaurants() {
+        ChangeCounter counter = lockCounter();
+        if (restaurantRepository.stampUnversioned(counter.getLastVersion()) > 0)
+            counter.setLastVersion(counter.getLastVersion() + restaurantRepository.findMaxId());
+    }
+
+//  The counter row is created once, in a transaction of its own and before it is locked, since on MySQL a locking
+//  read of the missing row would block that insert. A writer losing the race to create it gets a duplicate key and
+//  then locks the row the winner committed.
+    private ChangeCounter lockCounter() {
+        if (!changeCounterRepository.existsById(RESTAURANTS)) {
+            TransactionTemplate createCounter = new TransactionTemplate(transactionManager);
+            createCounter.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            try {
+                createCounter.executeWithoutResult(status -> changeCounterRepository.create(RESTAURANTS));
+            }
+            catch (DataIntegrityViolationException exception) {
+//              Created by a concurrent writer.
+            }
+        }
+        return changeCounterRepository.findForUpdate(RESTAURANTS).orElseThrow();
+    }
+}
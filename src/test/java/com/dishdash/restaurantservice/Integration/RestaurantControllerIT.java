@@ -21,7 +21,8 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+// Fixtures are written straight through the repository, which publishes no change events the response caches could react to.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"restaurants.query-cache.ttl-seconds=0", "restaurants.json-cache.ttl-seconds=0"})
 @AutoConfigureMockMvc
 public class RestaurantControllerIT extends AbstractContainerBaseTest {
 
@@ -383,4 +384,33 @@ public class RestaurantControllerIT extends AbstractContainerBaseTest {
         // then
         response.andExpect(MockMvcResultMatchers.status().isNotFound());
     }
+
+    @Test
+    @DisplayName("Junit test case for suggest Restaurants operation after addRestaurant operation")
+    public void givenAddedRestaurant_whenSuggestRestaurants_thenReturnAddedRestaurant() throws Exception{
+
+        // given
+        RequestDto requestDto = RequestDto.builder()
+                .name("Zucchini Zone")
+                .cuisine(Cuisine.ITALIAN)
+                .address("567 Nacho Street, Salsaville")
+                .rating(4.7F)
+                .contactNumber(8056789012L)
+                .website("zucchinizone")
+                .averageDeliveryTimeInMinutes(26)
+                .deliveryFee(7)
+                .minimumOrderAmount(26)
+                .currencyUsed(Currency.GBP)
+                .build();
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/restaurants")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDto)));
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/restaurants/suggest").param("prefix", "zucc"));
+
+        // then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value("Zucchini Zone"));
+    }
 }
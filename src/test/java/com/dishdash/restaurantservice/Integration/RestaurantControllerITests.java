@@ -1,12 +1,18 @@
 package com.dishdash.restaurantservice.Integration;
 
+import com.dishdash.restaurantservice.dto.GeoPointDto;
 import com.dishdash.restaurantservice.dto.RequestDto;
 import com.dishdash.restaurantservice.dto.ResponseDto;
 import com.dishdash.restaurantservice.entity.Restaurant;
 import com.dishdash.restaurantservice.enums.Cuisine;
 import com.dishdash.restaurantservice.enums.Currency;
+import com.dishdash.restaurantservice.outbox.InMemoryOutboxBroker;
+import com.dishdash.restaurantservice.repository.OutboxEventRepository;
 import com.dishdash.restaurantservice.repository.RestaurantRepository;
+import com.dishdash.restaurantservice.search.AttributeIndex;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,14 +20,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.util.List;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+// Fixtures are written straight through the repository, which publishes no change events the response caches could react to,
+// tests filtering on an in-memory index rebuild it after writing their fixtures.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"restaurants.query-cache.ttl-seconds=0", "restaurants.json-cache.ttl-seconds=0",
+        "restaurants.outbox.sink=memory", "restaurants.outbox.relay-interval-ms=100"})
 @AutoConfigureMockMvc
 public class RestaurantControllerITests {
 
@@ -34,6 +46,18 @@ public class RestaurantControllerITests {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private InMemoryOutboxBroker inMemoryOutboxBroker;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private AttributeIndex attributeIndex;
+
     @BeforeEach
     void setup(){
         restaurantRepository.deleteAll();
@@ -383,4 +407,302 @@ public class RestaurantControllerITests {
         // then
         response.andExpect(MockMvcResultMatchers.status().isNotFound());
     }
+
+    @Test
+    @DisplayName("Junit test case for suggest Restaurants operation after addRestaurant operation")
+    public void givenAddedRestaurant_whenSuggestRestaurants_thenReturnAddedRestaurant() throws Exception{
+
+        // given
+        RequestDto requestDto = RequestDto.builder()
+                .name("Zucchini Zone")
+                .cuisine(Cuisine.ITALIAN)
+                .address("567 Nacho Street, Salsaville")
+                .rating(4.7F)
+                .contactNumber(8056789012L)
+                .website("zucchinizone")
+                .averageDeliveryTimeInMinutes(26)
+                .deliveryFee(7)
+                .minimumOrderAmount(26)
+                .currencyUsed(Currency.GBP)
+                .build();
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/restaurants")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDto)));
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/restaurants/suggest").param("prefix", "zucc"));
+
+        // then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value("Zucchini Zone"));
+    }
+
+    @Test
+    @DisplayName("Junit test case for getRestaurant operation served from the second-level cache")
+    public void givenRestaurantId_whenGetRestaurantTwice_thenSecondReadIsACacheHit() throws Exception{
+
+        // given
+        Restaurant savedRestaurant = restaurantRepository.save(Restaurant.builder()
+                .name("Mexican Fiesta")
+                .cuisine(Cuisine.MEXICAN)
+                .website("mexicanfiesta")
+                .deliveryFee(7)
+                .minimumOrderAmount(26)
+                .build());
+        mockMvc.perform(get("/api/restaurants/{id}", savedRestaurant.getId()));
+        double hitsBefore = meterRegistry.get("cache.gets").tag("cache", "restaurants").tag("result", "hit").functionCounter().count();
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/restaurants/{id}", savedRestaurant.getId()));
+
+        // then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.name").value("Mexican Fiesta"));
+        Assertions.assertThat(meterRegistry.get("cache.gets").tag("cache", "restaurants").tag("result", "hit").functionCounter().count())
+                .isGreaterThan(hitsBefore);
+    }
+
+    @Test
+    @DisplayName("Junit test case for importRestaurants operation")
+    public void givenJsonArrayWithExistingWebsite_whenImportRestaurants_thenInsertOnlyNewRestaurants() throws Exception{
+
+        // given
+        restaurantRepository.save(Restaurant.builder().name("Mexican Fiesta").website("someshvemula").deliveryFee(7).minimumOrderAmount(26).build());
+        List<RequestDto> requestDtos = List.of(
+                RequestDto.builder().name("Mexican Fiesta").website("someshvemula").build(),
+                RequestDto.builder().name("Curry House").website("curryhouse").cuisine(Cuisine.INDIAN).build(),
+                RequestDto.builder().name("Tandoori Nights").website("tandoorinights").cuisine(Cuisine.INDIAN).build());
+
+        // when
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/restaurants/_import")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDtos)));
+
+        // then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.duplicates").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[0].status").value("DUPLICATE"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[2].id").isNumber());
+        Assertions.assertThat(restaurantRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Junit test case for getChanges operation")
+    public void givenAddUpdateAndDelete_whenGetChangesSinceWatermark_thenReturnOnlyLaterChanges() throws Exception{
+
+        // given
+        String watermark = mockMvc.perform(get("/api/restaurants/_changes").param("since", "0").param("limit", "1000"))
+                .andReturn().getResponse().getContentAsString();
+        long since = objectMapper.readTree(watermark).get("next").asLong();
+        long keptId = objectMapper.readTree(mockMvc.perform(post("/api/restaurants").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(RequestDto.builder().name("Curry House").website("curryhouse").build())))
+                .andReturn().getResponse().getContentAsString()).get("id").asLong();
+        long deletedId = objectMapper.readTree(mockMvc.perform(post("/api/restaurants").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(RequestDto.builder().name("Tandoori Nights").website("tandoorinights").build())))
+                .andReturn().getResponse().getContentAsString()).get("id").asLong();
+        mockMvc.perform(put("/api/restaurants/{id}", keptId).contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(RequestDto.builder().name("Curry House Express").website("curryhouse").build())));
+        mockMvc.perform(delete("/api/restaurants/{id}", deletedId));
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/restaurants/_changes").param("since", String.valueOf(since)));
+
+        // then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.changed.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.changed[0].name").value("Curry House Express"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.deleted[0]").value(deletedId))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.next").value(since + 4))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    @DisplayName("Junit test case for the change event stream resuming after the Last-Event-ID")
+    public void givenLastEventId_whenStreamChanges_thenReceiveChangesCommittedAfterIt() throws Exception{
+
+        // given
+        long since = objectMapper.readTree(mockMvc.perform(get("/api/restaurants/_changes").param("since", "0").param("limit", "1000"))
+                .andReturn().getResponse().getContentAsString()).get("next").asLong();
+        mockMvc.perform(post("/api/restaurants").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(RequestDto.builder().name("Curry House").website("curryhouse").build())));
+
+        // when
+        MockHttpServletResponse response = mockMvc.perform(get("/api/restaurants/stream").header("Last-Event-ID", since))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn().getResponse();
+
+        // then
+        for (int attempt = 0; attempt < 50 && !response.getContentAsString().contains("Curry House"); attempt++)
+            Thread.sleep(100);
+        Assertions.assertThat(response.getContentAsString())
+                .contains("id:" + (since + 1))
+                .contains("event:CREATED")
+                .contains("Curry House");
+    }
+
+    @Test
+    @DisplayName("Junit test case for relaying restaurant changes through the outbox")
+    public void givenAddedRestaurant_whenRelayRuns_thenEventReachesBrokerAndOutboxIsDrained() throws Exception{
+
+        // given
+        RequestDto requestDto = RequestDto.builder().name("Outbox Tacos").website("outboxtacos").build();
+
+        // when
+        long id = objectMapper.readTree(mockMvc.perform(post("/api/restaurants").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDto)))
+                .andReturn().getResponse().getContentAsString()).get("id").asLong();
+
+        // then
+        for (int attempt = 0; attempt < 50 && inMemoryOutboxBroker.messages().stream().noneMatch(message -> message.contains("Outbox Tacos")); attempt++)
+            Thread.sleep(100);
+        String message = inMemoryOutboxBroker.messages().stream().filter(candidate -> candidate.contains("Outbox Tacos")).findFirst().orElseThrow();
+        Assertions.assertThat(objectMapper.readTree(message).get("type").asText()).isEqualTo("CREATED");
+        Assertions.assertThat(objectMapper.readTree(message).get("id").asLong()).isEqualTo(id);
+        for (int attempt = 0; attempt < 50 && outboxEventRepository.count() > 0; attempt++)
+            Thread.sleep(100);
+        Assertions.assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Junit test case for nearby Restaurants operation after addRestaurant operation")
+    public void givenAddedRestaurants_whenGetNearbyRestaurants_thenReturnOnlyThoseWithinRadiusNearestFirst() throws Exception{
+
+        // given
+        for (RequestDto requestDto : List.of(
+                RequestDto.builder().name("Soho Curry").cuisine(Cuisine.INDIAN).website("sohocurry").latitude(51.5136).longitude(-0.1365).build(),
+                RequestDto.builder().name("Strand Curry").cuisine(Cuisine.INDIAN).website("strandcurry").latitude(51.5107).longitude(-0.1224).build(),
+                RequestDto.builder().name("Bristol Curry").cuisine(Cuisine.INDIAN).website("bristolcurry").latitude(51.4545).longitude(-2.5879).build()))
+            mockMvc.perform(post("/api/restaurants").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(requestDto)))
+                    .andExpect(MockMvcResultMatchers.status().isCreated());
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/restaurants/nearby")
+                .param("lat", "51.5080")
+                .param("lon", "-0.1281")
+                .param("radiusKm", "2")
+                .param("cuisine", "INDIAN"));
+
+        // then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value("Strand Curry"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].name").value("Soho Curry"));
+    }
+
+    @Test
+    @DisplayName("Junit test case for getAllRestaurants operation filtered by delivery zone")
+    public void givenRestaurantsWithDeliveryZones_whenGetAllRestaurantsDeliveringToPoint_thenReturnOnlyThoseDelivering() throws Exception{
+
+        // given
+        List<GeoPointDto> westminster = List.of(new GeoPointDto(51.49, -0.15), new GeoPointDto(51.52, -0.15), new GeoPointDto(51.52, -0.11), new GeoPointDto(51.49, -0.11));
+        List<GeoPointDto> camden = List.of(new GeoPointDto(51.53, -0.16), new GeoPointDto(51.56, -0.16), new GeoPointDto(51.56, -0.12), new GeoPointDto(51.53, -0.12));
+        long deliveringId = 0;
+        for (RequestDto requestDto : List.of(
+                RequestDto.builder().name("Westminster Pizza").website("westminsterpizza").deliveryZones(List.of(westminster)).build(),
+                RequestDto.builder().name("Camden Pizza").website("camdenpizza").deliveryZones(List.of(camden)).build(),
+                RequestDto.builder().name("Pickup Pizza").website("pickuppizza").build())) {
+            long id = objectMapper.readTree(mockMvc.perform(post("/api/restaurants").contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(requestDto))).andReturn().getResponse().getContentAsString()).get("id").asLong();
+            if (requestDto.getName().startsWith("Westminster"))
+                deliveringId = id;
+        }
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/restaurants").param("deliversTo", "51.50,-0.13"));
+
+        // then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name").value("Westminster Pizza"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].deliveryZones[0].length()").value(4));
+//      Zones read back equal to the ones written, so the insert is not followed by an update.
+        Assertions.assertThat(restaurantRepository.findById(deliveringId).orElseThrow().getVersion()).isZero();
+    }
+
+    @Test
+    @DisplayName("Junit test case for getAllRestaurants operation with facet counts")
+    public void givenRestaurants_whenGetAllRestaurantsWithFacets_thenReturnCountsAlongsideThePage() throws Exception{
+
+        // given
+        restaurantRepository.saveAll(List.of(
+                Restaurant.builder().name("Curry House").cuisine(Cuisine.INDIAN).currencyUsed(Currency.GBP).deliveryFee(2).averageDeliveryTimeInMinutes(25).build(),
+                Restaurant.builder().name("Tandoori Nights").cuisine(Cuisine.INDIAN).currencyUsed(Currency.INR).deliveryFee(12).averageDeliveryTimeInMinutes(50).build(),
+                Restaurant.builder().name("Somesh Tacos").cuisine(Cuisine.MEXICAN).currencyUsed(Currency.GBP).deliveryFee(6).averageDeliveryTimeInMinutes(15).build()));
+        attributeIndex.rebuild();
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/restaurants")
+                .param("cuisine", "INDIAN")
+                .param("limit", "1")
+                .param("facets", "CUISINE,CURRENCY,DELIVERY_FEE,DELIVERY_TIME"));
+
+        // then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.facets.CUISINE.INDIAN").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.facets.CUISINE.MEXICAN").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.facets.CURRENCY.GBP").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.facets.CURRENCY.INR").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.facets.DELIVERY_FEE['0-4']").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.facets.DELIVERY_FEE['10+']").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.facets.DELIVERY_TIME['20-29']").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.facets.DELIVERY_TIME['45+']").value(1));
+    }
+
+    @Test
+    @DisplayName("Junit test case for getAllRestaurants operation with several cuisines and a currency")
+    public void givenRestaurants_whenGetAllRestaurantsWithCuisinesAndCurrency_thenReturnRestaurantsMatchingBoth() throws Exception{
+
+        // given
+        restaurantRepository.saveAll(List.of(
+                Restaurant.builder().name("Curry House").cuisine(Cuisine.INDIAN).currencyUsed(Currency.GBP).rating(4.1f).build(),
+                Restaurant.builder().name("Tandoori Nights").cuisine(Cuisine.INDIAN).currencyUsed(Currency.INR).rating(4.8f).build(),
+                Restaurant.builder().name("Somesh Tacos").cuisine(Cuisine.MEXICAN).currencyUsed(Currency.GBP).rating(4.5f).build(),
+                Restaurant.builder().name("Pad Thai Place").cuisine(Cuisine.THAI).currencyUsed(Currency.GBP).rating(4.9f).build()));
+        attributeIndex.rebuild();
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/restaurants")
+                .param("cuisine", "INDIAN,MEXICAN")
+                .param("currency", "GBP")
+                .param("sortBy", "RATING")
+                .param("facets", "CUISINE"));
+
+        // then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name").value("Somesh Tacos"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[1].name").value("Curry House"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.facets.CUISINE.THAI").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.facets.CUISINE.INDIAN").value(1));
+    }
+
+    @Test
+    @DisplayName("Junit test case for getAllRestaurants operation with range filters")
+    public void givenRestaurants_whenGetAllRestaurantsWithRangeFilters_thenReturnRestaurantsWithinTheBounds() throws Exception{
+
+        // given
+        restaurantRepository.saveAll(List.of(
+                Restaurant.builder().name("Curry House").cuisine(Cuisine.INDIAN).rating(4.5f).deliveryFee(3).build(),
+                Restaurant.builder().name("Tandoori Nights").cuisine(Cuisine.INDIAN).rating(4.8f).deliveryFee(12).build(),
+                Restaurant.builder().name("Somesh Tacos").cuisine(Cuisine.MEXICAN).rating(4.0f).deliveryFee(5).build(),
+                Restaurant.builder().name("Pad Thai Place").cuisine(Cuisine.THAI).rating(4.9f).deliveryFee(5).build()));
+        attributeIndex.rebuild();
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/restaurants")
+                .param("minRating", "4.5")
+                .param("maxDeliveryFee", "5")
+                .param("sortBy", "RATING")
+                .param("facets", "CUISINE"));
+
+        // then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name").value("Pad Thai Place"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[1].name").value("Curry House"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.facets.CUISINE.INDIAN").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.facets.CUISINE.MEXICAN").value(0));
+    }
 }
@@ -0,0 +1,180 @@
+package com.dishdash.restaurantservice.Integration;
+
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.dto.RestaurantFilterDto;
+import com.dishdash.restaurantservice.entity.Restaurant;
+import com.dishdash.restaurantservice.enums.Cuisine;
+import com.dishdash.restaurantservice.enums.Currency;
+import com.dishdash.restaurantservice.enums.Sort;
+import com.dishdash.restaurantservice.repository.RestaurantRepository;
+import org.assertj.core.api.Assertions;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Runs MySQL's EXPLAIN on the statements Hibernate actually sends for the restaurant filters and checks the index it
+// picks (key) and how it reads it (type). Every bound keeps a fraction of a percent of the seeded rows, as a selective
+// listing filter does. The table is seeded once and committed, ANALYZE TABLE needs committed rows.
+@DataJpaTest(properties = {"spring.jpa.hibernate.ddl-auto=update",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.dishdash.restaurantservice.Integration.RestaurantQueryPlanIT$CapturedStatements"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RestaurantQueryPlanIT extends AbstractContainerBaseTest {
+
+    private static final int ROWS = 10_000;
+
+    private static boolean seeded;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup(){
+        if (!seeded) {
+            jdbcTemplate.update("DELETE FROM restaurants");
+            Cuisine[] cuisines = Cuisine.values();
+            Currency[] currencies = Currency.values();
+            List<Restaurant> restaurants = new ArrayList<>();
+            for (int i = 0; i < ROWS; i++) {
+                restaurants.add(Restaurant.builder()
+                        .name("Restaurant " + i)
+                        .cuisine(cuisines[i % cuisines.length])
+                        .currencyUsed(currencies[i % currencies.length])
+                        .rating((i % 500 == 0) ? 5F : (i % 49) / 10F)
+                        .deliveryFee((i % 500 == 250) ? 0 : 1 + i % 19)
+                        .averageDeliveryTimeInMinutes((i % 500 == 100) ? 10 : 15 + i % 45)
+                        .minimumOrderAmount(10 + i % 30)
+                        .build());
+                if (restaurants.size() == 1_000) {
+                    restaurantRepository.saveAll(restaurants);
+                    restaurants.clear();
+                }
+            }
+            jdbcTemplate.execute("ANALYZE TABLE restaurants");
+            seeded = true;
+        }
+        CapturedStatements.STATEMENTS.clear();
+    }
+
+    // Junit test case for the statement and plan of a cuisine page
+    @Test
+    @DisplayName("Junit test case for the statement and plan of a cuisine page")
+    public void givenCuisine_whenFindRestaurantsPage_thenStatementIsSharedAcrossCuisinesAndReadsTheCuisineRatingIndex(){
+
+        // when
+        restaurantRepository.findRestaurantsPage(RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.INDIAN)).build(), null, null, List.of(Sort.RATING), null, 21);
+        String indianStatement = lastStatement();
+        restaurantRepository.findRestaurantsPage(RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.THAI)).build(), null, null, List.of(Sort.RATING), null, 21);
+        String thaiStatement = lastStatement();
+        restaurantRepository.findRestaurantsPage(null, null, null, List.of(Sort.RATING), null, 21);
+        String unfilteredStatement = lastStatement();
+
+        // then
+        Assertions.assertThat(indianStatement).isEqualTo(thaiStatement).doesNotContainIgnoringCase("is null");
+        Assertions.assertThat(unfilteredStatement).doesNotContainIgnoringCase("where");
+        assertPlan(explain(indianStatement, Cuisine.INDIAN.name(), 21), "idx_restaurants_cuisine_rating", "ref");
+    }
+
+    // Junit test case for the plans of the currency filter
+    @Test
+    @DisplayName("Junit test case for the plans of the currency filter")
+    public void givenCurrency_whenFindRestaurantsPage_thenCurrencyIsCheckedOnRowsReadThroughAnotherIndex(){
+
+        // when
+        restaurantRepository.findRestaurantsPage(RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.INDIAN)).currencies(Set.of(Currency.GBP)).build(),
+                null, null, List.of(Sort.RATING), null, 21);
+        String withCuisine = lastStatement();
+        restaurantRepository.findRestaurantsPage(RestaurantFilterDto.builder().currencies(Set.of(Currency.GBP)).build(), null, List.of(1L, 2L, 3L, 4L), List.of(), null, 21);
+        String withBitmapIds = lastStatement();
+
+        // then
+        assertPlan(explain(withCuisine, Cuisine.INDIAN.name(), Currency.GBP.name(), 21), "idx_restaurants_cuisine_rating", "ref");
+        assertPlan(explain(withBitmapIds, Currency.GBP.name(), 1L, 2L, 3L, 4L, 21), "PRIMARY", "range");
+    }
+
+    // Junit test case for the plans of the range filters
+    @Test
+    @DisplayName("Junit test case for the plans of the range filters")
+    public void givenRangeBounds_whenFindRestaurantsPage_thenEachShapeIsARangeOnItsCompositeIndex(){
+
+        // when / then
+        restaurantRepository.findRestaurantsPage(RestaurantFilterDto.builder().minRating(4.9F).build(), null, null, List.of(Sort.RATING), null, 21);
+        assertPlan(explain(lastStatement(), 4.9F, 21), "idx_restaurants_rating", "range");
+
+        restaurantRepository.findRestaurantsPage(RestaurantFilterDto.builder().maxDeliveryFee(0).build(), null, null, List.of(Sort.DELIVERY_FEE), null, 21);
+        assertPlan(explain(lastStatement(), 0, 21), "idx_restaurants_delivery_fee", "range");
+
+        restaurantRepository.findRestaurantsPage(RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.INDIAN)).minRating(4.9F).build(), null, null, List.of(Sort.RATING), null, 21);
+        assertPlan(explain(lastStatement(), Cuisine.INDIAN.name(), 4.9F, 21), "idx_restaurants_cuisine_rating", "range");
+
+        restaurantRepository.findRestaurantsPage(RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.INDIAN)).maxDeliveryTime(12).build(), null, null, List.of(), null, 21);
+        assertPlan(explain(lastStatement(), Cuisine.INDIAN.name(), 12, 21), "idx_restaurants_cuisine_delivery_time", "range");
+
+//      Either bound alone is as selective as both on this data, so any index leading with one of them is a fair pick.
+        restaurantRepository.findRestaurantsPage(RestaurantFilterDto.builder().maxDeliveryFee(0).maxDeliveryTime(12).build(), null, null, List.of(), null, 21);
+        Map<String, Object> feeAndTime = explain(lastStatement(), 0, 12, 21);
+        Assertions.assertThat(feeAndTime.get("type")).isEqualTo("range");
+        Assertions.assertThat(feeAndTime.get("key"))
+                .isIn("idx_restaurants_delivery_fee_delivery_time", "idx_restaurants_delivery_fee", "idx_restaurants_delivery_time");
+    }
+
+    // Junit test case for a minimum rating equal to stored ratings
+    @Test
+    @DisplayName("Junit test case for a minimum rating equal to stored ratings")
+    public void givenMinRatingOnStoredRatings_whenFindRestaurantsPage_thenRestaurantsRatedExactlyTheBoundAreIncluded(){
+
+        // given
+        long ratedExactly = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM restaurants WHERE rating = CAST(4.6 AS FLOAT)", Long.class);
+
+        // when
+        List<ResponseDto> page = restaurantRepository.findRestaurantsPage(RestaurantFilterDto.builder().minRating(4.6F).build(),
+                null, null, List.of(Sort.RATING), null, ROWS);
+
+        // then
+        Assertions.assertThat(ratedExactly).isPositive();
+        Assertions.assertThat(page).filteredOn(restaurant -> restaurant.getRating() == 4.6F).hasSize((int) ratedExactly);
+        Assertions.assertThat(page).allMatch(restaurant -> restaurant.getRating() >= 4.6F);
+    }
+
+    private static String lastStatement(){
+        return CapturedStatements.STATEMENTS.get(CapturedStatements.STATEMENTS.size() - 1);
+    }
+
+    private static void assertPlan(Map<String, Object> plan, String key, String type){
+        Assertions.assertThat(plan.get("key")).as("key of %s", plan).isEqualTo(key);
+        Assertions.assertThat(plan.get("type")).as("type of %s", plan).isEqualTo(type);
+    }
+
+//  The statements read the restaurants table alone, so its row is the first.
+    private Map<String, Object> explain(String sql, Object... parameters){
+        return jdbcTemplate.queryForList("EXPLAIN " + sql, parameters).get(0);
+    }
+
+    public static class CapturedStatements implements StatementInspector {
+
+        static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.dishdash.restaurantservice.benchmark;
+
+import com.dishdash.restaurantservice.dto.RestaurantFilterDto;
+import com.dishdash.restaurantservice.entity.Restaurant;
+import com.dishdash.restaurantservice.enums.Cuisine;
+import com.dishdash.restaurantservice.enums.Currency;
+import com.dishdash.restaurantservice.enums.Sort;
+import com.dishdash.restaurantservice.repository.RestaurantRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Prints the index the database picks for the common range filter shapes on a catalog sized table, and times each
+ * shape through the repository, as plain SQL on the chosen index and as the same SQL kept off the range indexes with
+ * {@code USE INDEX ()}, where H2 walks the primary key or the index of the sort order and checks every row it reads.
+ * The bounds keep a few percent of the rows, as a selective listing filter does.
+ * Not part of the regular test run, start it with {@code mvn test -Dtest=RestaurantRangeFilterBenchmark}.
+ */
+@DataJpaTest
+public class RestaurantRangeFilterBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASURED_ITERATIONS = 30;
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setup(){
+        Cuisine[] cuisines = Cuisine.values();
+        List<Restaurant> restaurants = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            restaurants.add(Restaurant.builder()
+                    .name("Restaurant " + i)
+                    .cuisine(cuisines[i % cuisines.length])
+                    .rating((i * 7 % 51) / 10F)
+                    .averageDeliveryTimeInMinutes(10 + i * 13 % 60)
+                    .deliveryFee(i * 3 % 20)
+                    .minimumOrderAmount(5 + i * 11 % 40)
+                    .currencyUsed(Currency.GBP)
+                    .build());
+            if (restaurants.size() == 5_000) {
+                restaurantRepository.saveAll(restaurants);
+                entityManager.flush();
+                entityManager.clear();
+                restaurants.clear();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Benchmark of the range filter shapes with their composite indexes against a table scan")
+    public void compareRangeFiltersWithTableScan(){
+        System.out.printf("%-34s %-44s %14s %12s %12s%n", "shape", "index", "repository ms", "index ms", "no index ms");
+        run("minRating, by rating",
+                RestaurantFilterDto.builder().minRating(4.9F).build(), List.of(Sort.RATING),
+                "rating >= 4.9 ORDER BY rating DESC, id");
+        run("maxDeliveryFee, by delivery fee",
+                RestaurantFilterDto.builder().maxDeliveryFee(0).build(), List.of(Sort.DELIVERY_FEE),
+                "delivery_fee <= 0 ORDER BY delivery_fee, id");
+        run("maxDeliveryFee + maxDeliveryTime",
+                RestaurantFilterDto.builder().maxDeliveryFee(1).maxDeliveryTime(12).build(), List.of(),
+                "delivery_fee <= 1 AND average_delivery_time_in_minutes <= 12 ORDER BY id");
+        run("cuisine + maxDeliveryTime",
+                RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.INDIAN)).maxDeliveryTime(11).build(), List.of(),
+                "cuisine = 'INDIAN' AND average_delivery_time_in_minutes <= 11 ORDER BY id");
+        run("cuisine + minRating, by rating",
+                RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.INDIAN)).minRating(4.9F).build(), List.of(Sort.RATING),
+                "cuisine = 'INDIAN' AND rating >= 4.9 ORDER BY rating DESC, id");
+        run("maxMinOrder, by minimum order",
+                RestaurantFilterDto.builder().maxMinimumOrderAmount(5).build(), List.of(Sort.MIN_ORDER_AMOUNT),
+                "minimum_order_amount <= 5 ORDER BY minimum_order_amount, id");
+    }
+
+    private void run(String shape, RestaurantFilterDto filter, List<Sort> sorts, String condition){
+        String plan = (String) entityManager.createNativeQuery("EXPLAIN SELECT id FROM restaurants WHERE " + condition)
+                .getSingleResult();
+        double repository = measure(iteration -> restaurantRepository.findRestaurantsPage(filter, null, null, sorts, null, PAGE_SIZE));
+        double indexed = measure(iteration -> nativePage("SELECT id FROM restaurants WHERE id > :floor AND " + condition, iteration));
+        double scan = measure(iteration -> nativePage("SELECT id FROM restaurants USE INDEX () WHERE id > :floor AND " + condition, iteration));
+        System.out.printf("%-34s %-44s %14.3f %12.3f %12.3f%n", shape, chosenIndex(plan), repository, indexed, scan);
+    }
+
+//  H2 names the access path in a comment after the table, e.g. PUBLIC.RESTAURANTS R /* PUBLIC.IDX_RESTAURANTS_RATING: RATING >= 4.5 */.
+    private static String chosenIndex(String plan){
+        int start = plan.indexOf("/* ");
+        if (start < 0)
+            return plan;
+        int end = plan.indexOf(':', start);
+        return plan.substring(start + 3, (end > 0) ? end : plan.indexOf(" */", start));
+    }
+
+//  H2 hands a statement run again with the same parameters its previous result while the table is unchanged,
+//  so every iteration binds another floor below the smallest id.
+    private List<?> nativePage(String sql, int iteration){
+        return entityManager.createNativeQuery(sql)
+                .setParameter("floor", -1 - iteration)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList();
+    }
+
+    private double measure(IntFunction<List<?>> query){
+        for (int i = 0; i < WARMUP_ITERATIONS; i++)
+            query.apply(i);
+        long nanos = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            List<?> rows = query.apply(WARMUP_ITERATIONS + i);
+            nanos += System.nanoTime() - start;
+            if (rows.isEmpty())
+                throw new IllegalStateException("Expected matching rows");
+            entityManager.clear();
+        }
+        return nanos / 1e6 / MEASURED_ITERATIONS;
+    }
+}
@@ -0,0 +1,108 @@
+package com.dishdash.restaurantservice.benchmark;
+
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.entity.Restaurant;
+import com.dishdash.restaurantservice.enums.Cuisine;
+import com.dishdash.restaurantservice.enums.Currency;
+import com.dishdash.restaurantservice.mapper.RestaurantMapper;
+import com.dishdash.restaurantservice.mapper.RestaurantMapperImpl;
+import com.dishdash.restaurantservice.repository.RestaurantRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compares loading managed entities and mapping them with RestaurantMapper against the ResponseDto projection used by the service.
+ * Not part of the regular test run, start it with {@code mvn test -Dtest=RestaurantReadPathBenchmark}.
+ */
+@DataJpaTest
+public class RestaurantReadPathBenchmark {
+
+    private static final int ROWS = 5_000;
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int MEASURED_ITERATIONS = 50;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final RestaurantMapper restaurantMapper = new RestaurantMapperImpl();
+
+    @BeforeEach
+    void setup(){
+        List<Restaurant> restaurants = new ArrayList<>();
+        Cuisine[] cuisines = Cuisine.values();
+        for (int i = 0; i < ROWS; i++) {
+            restaurants.add(Restaurant.builder()
+                    .name("Restaurant " + i)
+                    .cuisine(cuisines[i % cuisines.length])
+                    .address(i + " Benchmark Street")
+                    .rating((i % 50) / 10F)
+                    .contactNumber(8000000000L + i)
+                    .website("http://www.restaurant" + i + ".com")
+                    .averageDeliveryTimeInMinutes(10 + i % 50)
+                    .deliveryFee(i % 10)
+                    .minimumOrderAmount(10 + i % 30)
+                    .currencyUsed(Currency.GBP)
+                    .build());
+        }
+        restaurantRepository.saveAll(restaurants);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Benchmark of entity + RestaurantMapper reads against ResponseDto projection reads")
+    public void compareEntityMappingWithProjection(){
+        Result entities = measure(() -> {
+            List<Restaurant> restaurants = entityManager.createQuery("SELECT r FROM Restaurant r ORDER BY r.id", Restaurant.class)
+                    .setMaxResults(ROWS)
+                    .getResultList();
+            List<ResponseDto> responseDtoList = new ArrayList<>();
+            for (Restaurant restaurant : restaurants)
+                responseDtoList.add(restaurantMapper.toResponseDto(restaurant));
+            return responseDtoList;
+        });
+        Result projection = measure(() -> restaurantRepository.findRestaurantsPage(null, null, null, Collections.emptyList(), null, ROWS));
+
+        System.out.printf("%-28s %12s %16s%n", "read path (" + ROWS + " rows)", "avg ms", "avg alloc MB");
+        System.out.printf("%-28s %12.2f %16.2f%n", "entity + RestaurantMapper", entities.millis, entities.megabytes);
+        System.out.printf("%-28s %12.2f %16.2f%n", "ResponseDto projection", projection.millis, projection.megabytes);
+    }
+
+    private Result measure(Supplier<List<ResponseDto>> readPath){
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            readPath.get();
+            entityManager.clear();
+        }
+        long nanos = 0;
+        long bytes = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            List<ResponseDto> responseDtoList = readPath.get();
+            nanos += System.nanoTime() - start;
+            bytes += threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            if (responseDtoList.size() != ROWS)
+                throw new IllegalStateException("Expected " + ROWS + " rows but read " + responseDtoList.size());
+            entityManager.clear();
+        }
+        return new Result(nanos / 1e6 / MEASURED_ITERATIONS, bytes / 1048576.0 / MEASURED_ITERATIONS);
+    }
+
+    private record Result(double millis, double megabytes) {
+    }
+}
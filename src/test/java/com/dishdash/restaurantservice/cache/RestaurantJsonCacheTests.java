@@ -0,0 +1,113 @@
+package com.dishdash.restaurantservice.cache;
+
+import com.dishdash.restaurantservice.dto.PageDto;
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.enums.ChangeType;
+import com.dishdash.restaurantservice.enums.Cuisine;
+import com.dishdash.restaurantservice.enums.Currency;
+import com.dishdash.restaurantservice.enums.Facet;
+import com.dishdash.restaurantservice.event.RestaurantChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RestaurantJsonCacheTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private RestaurantJsonCache restaurantJsonCache;
+
+    @BeforeEach
+    public void setup(){
+        restaurantJsonCache = new RestaurantJsonCache();
+        ReflectionTestUtils.setField(restaurantJsonCache, "objectMapper", objectMapper);
+    }
+
+    private ResponseDto restaurant(long id, String name){
+        return ResponseDto.builder().id(id).name(name).cuisine(Cuisine.MEXICAN).rating(4.6f).currencyUsed(Currency.GBP).version(2).build();
+    }
+
+    // Junit test case for serializing a restaurant once
+    @Test
+    @DisplayName("Junit test case for serializing a restaurant once")
+    public void givenCachedRestaurant_whenGet_thenLoaderIsNotCalledAgain() throws Exception{
+
+        // given
+        AtomicInteger loads = new AtomicInteger();
+
+        // when
+        RestaurantJsonCache.Fragment first = restaurantJsonCache.get(1, () -> { loads.incrementAndGet(); return restaurant(1, "Somesh Tacos"); });
+        RestaurantJsonCache.Fragment second = restaurantJsonCache.get(1, () -> { loads.incrementAndGet(); return restaurant(1, "Somesh Tacos"); });
+
+        // then
+        Assertions.assertThat(loads).hasValue(1);
+        Assertions.assertThat(second).isSameAs(first);
+        Assertions.assertThat(first.json()).isEqualTo(objectMapper.writeValueAsBytes(restaurant(1, "Somesh Tacos")));
+        Assertions.assertThat(restaurantJsonCache.etag(1)).isEqualTo("1-2");
+    }
+
+    // Junit test case for assembling a page from fragments
+    @Test
+    @DisplayName("Junit test case for assembling a page from fragments")
+    public void givenPage_whenPage_thenJoinedFragmentsMatchJacksonOutput() throws Exception{
+
+        // given
+        PageDto<ResponseDto> page = new PageDto<>(List.of(restaurant(1, "Somesh Tacos"), restaurant(2, "Taco Bell")), "abc");
+        PageDto<ResponseDto> lastPage = new PageDto<>(List.of(), null);
+
+        // when
+        byte[] json = restaurantJsonCache.page(page, restaurantJsonCache.generation());
+        byte[] lastJson = restaurantJsonCache.page(lastPage, restaurantJsonCache.generation());
+
+        // then
+        Assertions.assertThat(objectMapper.readTree(json)).isEqualTo(objectMapper.readTree(objectMapper.writeValueAsBytes(page)));
+        Assertions.assertThat(objectMapper.readTree(lastJson)).isEqualTo(objectMapper.readTree(objectMapper.writeValueAsBytes(lastPage)));
+    }
+
+    // Junit test case for updates invalidating the cached JSON
+    @Test
+    @DisplayName("Junit test case for updates invalidating the cached JSON")
+    public void givenCachedRestaurant_whenUpdated_thenNextGetSerializesTheNewState() throws Exception{
+
+        // given
+        restaurantJsonCache.get(1, () -> restaurant(1, "Somesh Tacos"));
+        long staleGeneration = restaurantJsonCache.generation();
+
+        // when
+        restaurantJsonCache.onRestaurantChanged(new RestaurantChangedEvent(ChangeType.UPDATED, restaurant(1, "Somesh Burritos")));
+        restaurantJsonCache.page(new PageDto<>(List.of(restaurant(1, "Somesh Tacos")), null), staleGeneration);
+        String etagAfterUpdate = restaurantJsonCache.etag(1);
+        byte[] json = restaurantJsonCache.get(1, () -> restaurant(1, "Somesh Burritos")).json();
+
+        // then
+        Assertions.assertThat(etagAfterUpdate).isNull();
+        Assertions.assertThat(objectMapper.readTree(json).get("name").asText()).isEqualTo("Somesh Burritos");
+    }
+
+    // Junit test case for assembling a page with facet counts
+    @Test
+    @DisplayName("Junit test case for assembling a page with facet counts")
+    public void givenPageWithFacets_whenPage_thenJoinedFragmentsMatchJacksonOutput() throws Exception{
+
+        // given
+        Map<Facet, Map<String, Long>> facets = new EnumMap<>(Facet.class);
+        facets.put(Facet.CUISINE, Map.of("MEXICAN", 2L));
+        facets.put(Facet.DELIVERY_FEE, Map.of("0-4", 1L, "5+", 1L));
+        PageDto<ResponseDto> page = new PageDto<>(List.of(restaurant(1, "Somesh Tacos")), null, facets);
+
+        // when
+        byte[] json = restaurantJsonCache.page(page, restaurantJsonCache.generation());
+
+        // then
+        Assertions.assertThat(objectMapper.readTree(json)).isEqualTo(objectMapper.readTree(objectMapper.writeValueAsBytes(page)));
+        Assertions.assertThat(objectMapper.readTree(json).get("facets").get("CUISINE").get("MEXICAN").asLong()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,131 @@
+package com.dishdash.restaurantservice.cache;
+
+import com.dishdash.restaurantservice.dto.PageDto;
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.dto.RestaurantFilterDto;
+import com.dishdash.restaurantservice.enums.ChangeType;
+import com.dishdash.restaurantservice.enums.Cuisine;
+import com.dishdash.restaurantservice.enums.Facet;
+import com.dishdash.restaurantservice.enums.Sort;
+import com.dishdash.restaurantservice.event.RestaurantChangedEvent;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+public class RestaurantQueryCacheTests {
+
+    private RestaurantQueryCache restaurantQueryCache;
+
+    @BeforeEach
+    public void setup(){
+        restaurantQueryCache = new RestaurantQueryCache();
+    }
+
+    private RestaurantQueryCache.QueryKey keyFor(Cuisine cuisine){
+        return RestaurantQueryCache.QueryKey.of((cuisine != null) ? RestaurantFilterDto.builder().cuisines(Set.of(cuisine)).build() : null, List.of(Sort.RATING), null, false, null, Set.of(), 20, null);
+    }
+
+    private void cache(RestaurantQueryCache.QueryKey key){
+        restaurantQueryCache.put(key, new PageDto<>(new ArrayList<>(), null), restaurantQueryCache.generation(key.group()));
+    }
+
+    // Junit test case for equivalent queries sharing an entry
+    @Test
+    @DisplayName("Junit test case for equivalent queries sharing an entry")
+    public void givenCachedQuery_whenGetWithDifferentlySpelledSearch_thenReturnCachedPage(){
+
+        // given
+        PageDto<ResponseDto> page = new PageDto<>(new ArrayList<>(), null);
+        RestaurantQueryCache.QueryKey key = RestaurantQueryCache.QueryKey.of(null, Collections.emptyList(), "Tacos", false, null, Set.of(), 20, null);
+        restaurantQueryCache.put(key, page, restaurantQueryCache.generation(null));
+
+        // when
+        PageDto<ResponseDto> cachedPage = restaurantQueryCache.get(RestaurantQueryCache.QueryKey.of(null, Collections.emptyList(), " tacos ", false, null, Set.of(), 20, null));
+
+        // then
+        Assertions.assertThat(cachedPage).isSameAs(page);
+    }
+
+    // Junit test case for writes invalidating only the affected cuisines
+    @Test
+    @DisplayName("Junit test case for writes invalidating only the affected cuisines")
+    public void givenCachedPages_whenRestaurantChangesCuisine_thenOnlyAffectedAndUnfilteredPagesAreDropped(){
+
+        // given
+        cache(keyFor(null));
+        cache(keyFor(Cuisine.INDIAN));
+        cache(keyFor(Cuisine.MEXICAN));
+        cache(keyFor(Cuisine.ITALIAN));
+
+        // when
+        restaurantQueryCache.onRestaurantChanged(new RestaurantChangedEvent(ChangeType.UPDATED,
+                ResponseDto.builder().id(1).cuisine(Cuisine.INDIAN).build(), ResponseDto.builder().id(1).cuisine(Cuisine.MEXICAN).build()));
+
+        // then
+        Assertions.assertThat(restaurantQueryCache.get(keyFor(null))).isNull();
+        Assertions.assertThat(restaurantQueryCache.get(keyFor(Cuisine.INDIAN))).isNull();
+        Assertions.assertThat(restaurantQueryCache.get(keyFor(Cuisine.MEXICAN))).isNull();
+        Assertions.assertThat(restaurantQueryCache.get(keyFor(Cuisine.ITALIAN))).isNotNull();
+    }
+
+    // Junit test case for pages computed across a write
+    @Test
+    @DisplayName("Junit test case for pages computed across a write")
+    public void givenWriteWhilePageIsComputed_whenPut_thenPageIsNotCached(){
+
+        // given
+        long generation = restaurantQueryCache.generation(Cuisine.INDIAN);
+        restaurantQueryCache.onRestaurantChanged(new RestaurantChangedEvent(ChangeType.CREATED, ResponseDto.builder().id(1).cuisine(Cuisine.INDIAN).build()));
+
+        // when
+        restaurantQueryCache.put(keyFor(Cuisine.INDIAN), new PageDto<>(new ArrayList<>(), null), generation);
+
+        // then
+        Assertions.assertThat(restaurantQueryCache.get(keyFor(Cuisine.INDIAN))).isNull();
+    }
+
+    // Junit test case for the bounded size
+    @Test
+    @DisplayName("Junit test case for the bounded size")
+    public void givenFullCache_whenPut_thenLeastRecentlyUsedPageIsEvicted(){
+
+        // given
+        ReflectionTestUtils.setField(restaurantQueryCache, "maxEntries", 2);
+        cache(keyFor(Cuisine.INDIAN));
+        cache(keyFor(Cuisine.MEXICAN));
+        restaurantQueryCache.get(keyFor(Cuisine.INDIAN));
+
+        // when
+        cache(keyFor(Cuisine.ITALIAN));
+
+        // then
+        Assertions.assertThat(restaurantQueryCache.get(keyFor(Cuisine.MEXICAN))).isNull();
+        Assertions.assertThat(restaurantQueryCache.get(keyFor(Cuisine.INDIAN))).isNotNull();
+        Assertions.assertThat(restaurantQueryCache.get(keyFor(Cuisine.ITALIAN))).isNotNull();
+    }
+
+    // Junit test case for pages counting cuisines across the cuisine filter
+    @Test
+    @DisplayName("Junit test case for pages counting cuisines across the cuisine filter")
+    public void givenCachedPageWithCuisineFacet_whenOtherCuisineChanges_thenPageIsDropped(){
+
+        // given
+        RestaurantQueryCache.QueryKey facetKey = RestaurantQueryCache.QueryKey.of(RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.INDIAN)).build(), List.of(Sort.RATING), null, false, null, Set.of(Facet.CUISINE), 20, null);
+        restaurantQueryCache.put(facetKey, new PageDto<>(new ArrayList<>(), null), restaurantQueryCache.generation(facetKey.group()));
+        cache(keyFor(Cuisine.INDIAN));
+
+        // when
+        restaurantQueryCache.onRestaurantChanged(new RestaurantChangedEvent(ChangeType.CREATED, ResponseDto.builder().id(1).cuisine(Cuisine.MEXICAN).build()));
+
+        // then
+        Assertions.assertThat(restaurantQueryCache.get(facetKey)).isNull();
+        Assertions.assertThat(restaurantQueryCache.get(keyFor(Cuisine.INDIAN))).isNotNull();
+    }
+}
@@ -0,0 +1,123 @@
+package com.dishdash.restaurantservice.catalog;
+
+import com.dishdash.restaurantservice.dto.FacetGroupDto;
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.dto.RestaurantFilterDto;
+import com.dishdash.restaurantservice.enums.Cuisine;
+import com.dishdash.restaurantservice.enums.Sort;
+import com.dishdash.restaurantservice.pagination.Cursor;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+public class CatalogSnapshotTests {
+
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    public void setup(){
+        snapshot = CatalogSnapshot.of(1, List.of(
+                ResponseDto.builder().id(3).name("Tandoori Nights").cuisine(Cuisine.INDIAN).rating(4.6f).deliveryFee(30).build(),
+                ResponseDto.builder().id(1).name("Somesh Tacos").cuisine(Cuisine.MEXICAN).rating(4.6f).deliveryFee(10).build(),
+                ResponseDto.builder().id(2).name("Curry House").cuisine(Cuisine.INDIAN).rating(4.9f).deliveryFee(20).build(),
+                ResponseDto.builder().id(4).name("Taco Bell").cuisine(Cuisine.MEXICAN).rating(3.8f).deliveryFee(0).build()));
+    }
+
+    // Junit test case for copy-on-write changes
+    @Test
+    @DisplayName("Junit test case for copy-on-write changes")
+    public void givenSnapshot_whenRestaurantsChange_thenNewVersionsArePublishedAndOldOneIsUntouched(){
+
+        // when
+        CatalogSnapshot added = snapshot.with(ResponseDto.builder().id(5).name("Pasta Palace").build());
+        CatalogSnapshot updated = added.with(ResponseDto.builder().id(1).name("Somesh Burritos").build());
+        CatalogSnapshot deleted = updated.without(3);
+
+        // then
+        Assertions.assertThat(deleted.getVersion()).isEqualTo(4);
+        Assertions.assertThat(deleted.size()).isEqualTo(4);
+        Assertions.assertThat(deleted.get(1).getName()).isEqualTo("Somesh Burritos");
+        Assertions.assertThat(deleted.get(3)).isNull();
+        Assertions.assertThat(deleted.get(5).getName()).isEqualTo("Pasta Palace");
+        Assertions.assertThat(snapshot.getVersion()).isEqualTo(1);
+        Assertions.assertThat(snapshot.size()).isEqualTo(4);
+        Assertions.assertThat(snapshot.get(1).getName()).isEqualTo("Somesh Tacos");
+        Assertions.assertThat(snapshot.get(5)).isNull();
+    }
+
+    // Junit test case for keyset pages in id order
+    @Test
+    @DisplayName("Junit test case for keyset pages in id order")
+    public void givenNoSort_whenPage_thenReturnRowsAfterCursorInIdOrder(){
+
+        // when
+        List<ResponseDto> firstPage = snapshot.page(null, null, null, Collections.emptyList(), null, 2);
+        List<ResponseDto> secondPage = snapshot.page(null, null, null, Collections.emptyList(),
+                Cursor.after(Collections.emptyList(), firstPage.get(1)), 2);
+
+        // then
+        Assertions.assertThat(firstPage).extracting(ResponseDto::getId).containsExactly(1L, 2L);
+        Assertions.assertThat(secondPage).extracting(ResponseDto::getId).containsExactly(3L, 4L);
+    }
+
+    // Junit test case for filtered multi-key sorted pages
+    @Test
+    @DisplayName("Junit test case for filtered multi-key sorted pages")
+    public void givenFiltersAndSorts_whenPage_thenMatchDatabaseOrderAndSeek(){
+
+        // given
+        List<Sort> sorts = List.of(Sort.RATING, Sort.DELIVERY_FEE);
+
+        // when
+        List<ResponseDto> firstPage = snapshot.page(null, null, null, sorts, null, 2);
+        List<ResponseDto> secondPage = snapshot.page(null, null, null, sorts, Cursor.after(sorts, firstPage.get(1)), 2);
+        List<ResponseDto> indian = snapshot.page(RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.INDIAN)).build(), null, null, sorts, null, 10);
+        List<ResponseDto> tacos = snapshot.page(null, "TACO", List.of(4L, 1L, 99L), Collections.emptyList(), null, 10);
+
+        // then
+        Assertions.assertThat(firstPage).extracting(ResponseDto::getId).containsExactly(2L, 1L);
+        Assertions.assertThat(secondPage).extracting(ResponseDto::getId).containsExactly(3L, 4L);
+        Assertions.assertThat(indian).extracting(ResponseDto::getId).containsExactly(2L, 3L);
+        Assertions.assertThat(tacos).extracting(ResponseDto::getId).containsExactly(1L, 4L);
+    }
+
+    // Junit test case for counting facet groups in one pass
+    @Test
+    @DisplayName("Junit test case for counting facet groups in one pass")
+    public void givenSearch_whenCountFacetGroups_thenGroupMatchingRowsByCuisineAndBuckets(){
+
+        // when
+        List<FacetGroupDto> groups = snapshot.countFacetGroups(null, "ta", null, new int[]{0, 15}, new int[]{0});
+
+        // then
+        Assertions.assertThat(groups).extracting(FacetGroupDto::getCuisine, FacetGroupDto::getDeliveryFeeBucket, FacetGroupDto::getCount)
+                .containsExactlyInAnyOrder(
+                        Assertions.tuple(Cuisine.INDIAN, 1, 1L),
+                        Assertions.tuple(Cuisine.MEXICAN, 0, 2L));
+    }
+
+    // Junit test case for range bounds on pages and facet groups
+    @Test
+    @DisplayName("Junit test case for range bounds on pages and facet groups")
+    public void givenBounds_whenPageAndCountFacetGroups_thenKeepOnlyRowsWithinEveryBoundInclusive(){
+
+        // given
+        RestaurantFilterDto filter = RestaurantFilterDto.builder().minRating(4.6f).maxDeliveryFee(20).build();
+
+        // when
+        List<ResponseDto> page = snapshot.page(filter, null, null, List.of(Sort.RATING), null, 10);
+        List<FacetGroupDto> groups = snapshot.countFacetGroups(filter, null, null, new int[]{0}, new int[]{0});
+
+        // then
+        Assertions.assertThat(page).extracting(ResponseDto::getId).containsExactly(2L, 1L);
+        Assertions.assertThat(groups).extracting(FacetGroupDto::getCuisine, FacetGroupDto::getCount)
+                .containsExactlyInAnyOrder(
+                        Assertions.tuple(Cuisine.INDIAN, 1L),
+                        Assertions.tuple(Cuisine.MEXICAN, 1L));
+    }
+}
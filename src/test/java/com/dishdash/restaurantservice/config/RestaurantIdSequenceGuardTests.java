@@ -0,0 +1,60 @@
+package com.dishdash.restaurantservice.config;
+
+import com.dishdash.restaurantservice.entity.Restaurant;
+import com.dishdash.restaurantservice.enums.Cuisine;
+import com.dishdash.restaurantservice.enums.Currency;
+import com.dishdash.restaurantservice.repository.RestaurantRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// Not rolled back, the guard restarts the sequence and H2 commits on DDL.
+@DataJpaTest
+@Import(RestaurantIdSequenceGuard.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RestaurantIdSequenceGuardTests {
+
+    @Autowired
+    private RestaurantIdSequenceGuard restaurantIdSequenceGuard;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void cleanup(){
+        restaurantRepository.deleteAll();
+    }
+
+    // Junit test case for a table filled while ids were identity columns
+    @Test
+    @DisplayName("Junit test case for a table filled while ids were identity columns")
+    public void givenIdsAboveTheSequence_whenSeedAboveExistingIds_thenNewRestaurantsGetFreeIds(){
+
+        // given
+        jdbcTemplate.update("INSERT INTO restaurants (id, name, delivery_fee, minimum_order_amount, rating, contact_number, " +
+                "average_delivery_time_in_minutes, change_version, version) " +
+                "SELECT X, 'Restaurant ' || X, 2, 10, 4.5, 0, 30, X, 0 FROM SYSTEM_RANGE(1, 500)");
+
+        // when
+        restaurantIdSequenceGuard.seedAboveExistingIds();
+        Restaurant saved = restaurantRepository.save(Restaurant.builder()
+                .name("Thai Garden")
+                .cuisine(Cuisine.THAI)
+                .currencyUsed(Currency.GBP)
+                .build());
+
+        // then
+        Assertions.assertThat(saved.getId()).isGreaterThan(500);
+        Assertions.assertThat(restaurantRepository.count()).isEqualTo(501);
+    }
+}
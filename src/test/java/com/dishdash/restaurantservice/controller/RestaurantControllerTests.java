@@ -1,23 +1,29 @@
 package com.dishdash.restaurantservice.controller;
 
+import com.dishdash.restaurantservice.cache.RestaurantJsonCache;
+import com.dishdash.restaurantservice.dto.PageDto;
 import com.dishdash.restaurantservice.dto.RequestDto;
 import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.dto.RestaurantQueryDto;
+import com.dishdash.restaurantservice.dto.SuggestionDto;
 import com.dishdash.restaurantservice.entity.Restaurant;
 import com.dishdash.restaurantservice.enums.Cuisine;
 import com.dishdash.restaurantservice.enums.Currency;
 import com.dishdash.restaurantservice.exception.BadRequestException;
+import com.dishdash.restaurantservice.export.RestaurantExportWriter;
 import com.dishdash.restaurantservice.exception.ResourceAlreadyExistsException;
 import com.dishdash.restaurantservice.exception.ResourceNotFoundException;
 import com.dishdash.restaurantservice.service.RestaurantService;
+import com.dishdash.restaurantservice.sse.RestaurantEventBroadcaster;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
@@ -26,8 +32,18 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import java.util.ArrayList;
 import java.util.List;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import com.dishdash.restaurantservice.dto.BatchGetRequestDto;
+import com.dishdash.restaurantservice.dto.BatchGetResponseDto;
+import com.dishdash.restaurantservice.dto.ImportResponseDto;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import com.dishdash.restaurantservice.dto.NearbyRestaurantDto;
 
 @WebMvcTest
+@Import({RestaurantJsonCache.class, RestaurantExportWriter.class})
 public class RestaurantControllerTests {
 
     @Autowired
@@ -37,7 +53,7 @@ public class RestaurantControllerTests {
     private RestaurantService restaurantService;
 
     @MockBean
-    private ModelMapper modelMapper;
+    private RestaurantEventBroadcaster restaurantEventBroadcaster;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -66,8 +82,6 @@ public class RestaurantControllerTests {
 
         // Method stubbing
 
-        BDDMockito.given(modelMapper.map(requestDto, Restaurant.class)).willReturn(restaurant);
-        BDDMockito.given(modelMapper.map(restaurant, ResponseDto.class)).willReturn(responseDto);
         BDDMockito.given(restaurantService.addRestaurant(ArgumentMatchers.any(RequestDto.class)))
                 .willReturn(responseDto);
 
@@ -104,8 +118,6 @@ public class RestaurantControllerTests {
 
         // Method stubbing
 
-        BDDMockito.given(modelMapper.map(requestDto, Restaurant.class)).willReturn(restaurant);
-        BDDMockito.given(modelMapper.map(restaurant, ResponseDto.class)).willReturn(responseDto);
         BDDMockito.given(restaurantService.addRestaurant(ArgumentMatchers.any(RequestDto.class)))
                 .willThrow(new ResourceAlreadyExistsException("Restaurant", "website", restaurant.getWebsite()));
 
@@ -145,7 +157,6 @@ public class RestaurantControllerTests {
         // method stubbing
         BDDMockito.given(restaurantService.getRestaurant(ArgumentMatchers.any(long.class)))
                 .willReturn(responseDto);
-        BDDMockito.given(modelMapper.map(restaurant, ResponseDto.class)).willReturn(responseDto);
 
 
 
@@ -181,7 +192,6 @@ public class RestaurantControllerTests {
         // method stubbing
         BDDMockito.given(restaurantService.getRestaurant(ArgumentMatchers.any(long.class)))
                 .willThrow(new ResourceNotFoundException("Restaurant", "id", restaurantId));
-        BDDMockito.given(modelMapper.map(restaurant, ResponseDto.class)).willReturn(responseDto);
 
         // when
         ResultActions response = mockMvc.perform(get("/api/restaurants/{id}", restaurantId));
@@ -215,7 +225,6 @@ public class RestaurantControllerTests {
         // method stubbing
         BDDMockito.given(restaurantService.deleteRestaurant(ArgumentMatchers.any(long.class)))
                         .willReturn(responseDto);
-        BDDMockito.given(modelMapper.map(restaurant, ResponseDto.class)).willReturn(responseDto);
 
         // when
         ResultActions response = mockMvc.perform(delete("/api/restaurants/{id}", restaurantId));
@@ -249,7 +258,6 @@ public class RestaurantControllerTests {
         // method stubbing
         BDDMockito.given(restaurantService.deleteRestaurant(ArgumentMatchers.any(long.class)))
                 .willThrow(new ResourceNotFoundException("Restaurant", "id", restaurantId));
-        BDDMockito.given(modelMapper.map(restaurant, ResponseDto.class)).willReturn(responseDto);
 
         // when
         ResultActions response = mockMvc.perform(delete("/api/restaurants/{id}", restaurantId));
@@ -268,9 +276,8 @@ public class RestaurantControllerTests {
         Restaurant restaurant = new Restaurant();
 
         // method stubbing
-        BDDMockito.given(restaurantService.getAllRestaurants(null, null, null))
-                .willReturn(responseDtoList);
-        BDDMockito.given(modelMapper.map(restaurant, ResponseDto.class)).willReturn(responseDto);
+        BDDMockito.given(restaurantService.getAllRestaurants(RestaurantQueryDto.builder().build()))
+                .willReturn(new PageDto<>(responseDtoList, null));
 
         // when
         ResultActions response = mockMvc.perform(get("/api/restaurants"));
@@ -290,9 +297,8 @@ public class RestaurantControllerTests {
         Restaurant restaurant = new Restaurant();
 
         // method stubbing
-        BDDMockito.given(restaurantService.getAllRestaurants(cuisine, null, null))
-                .willReturn(responseDtoList);
-        BDDMockito.given(modelMapper.map(restaurant, ResponseDto.class)).willReturn(responseDto);
+        BDDMockito.given(restaurantService.getAllRestaurants(RestaurantQueryDto.builder().cuisine(cuisine).build()))
+                .willReturn(new PageDto<>(responseDtoList, null));
 
         // when
         ResultActions response = mockMvc.perform(get("/api/restaurants")
@@ -316,9 +322,8 @@ public class RestaurantControllerTests {
         Restaurant restaurant = new Restaurant();
 
         // method stubbing
-        BDDMockito.given(restaurantService.getAllRestaurants(cuisine, null, null))
+        BDDMockito.given(restaurantService.getAllRestaurants(RestaurantQueryDto.builder().cuisine(cuisine).build()))
                 .willThrow(new BadRequestException("Cuisine", cuisine));
-        BDDMockito.given(modelMapper.map(restaurant, ResponseDto.class)).willReturn(responseDto);
 
         // when
         ResultActions response = mockMvc.perform(get("/api/restaurants")
@@ -345,8 +350,6 @@ public class RestaurantControllerTests {
         // method stubbing
         BDDMockito.given(restaurantService.updateRestaurant(restaurantId, requestDto))
                 .willReturn(responseDto);
-        BDDMockito.given(modelMapper.map(requestDto, Restaurant.class)).willReturn(restaurant);
-        BDDMockito.given(modelMapper.map(restaurant, ResponseDto.class)).willReturn(responseDto);
 
         // when
         ResultActions response = mockMvc.perform(put("/api/restaurants/{id}", restaurantId)
@@ -372,7 +375,6 @@ public class RestaurantControllerTests {
         // method stubbing
         BDDMockito.given(restaurantService.updateRestaurant(ArgumentMatchers.eq(restaurantId), ArgumentMatchers.any(RequestDto.class)))
                 .willThrow(new ResourceNotFoundException("Restaurant", "id", restaurantId));
-        BDDMockito.given(modelMapper.map(restaurant, ResponseDto.class)).willReturn(responseDto);
 
         // when
         ResultActions response = mockMvc.perform(put("/api/restaurants/{id}", restaurantId)
@@ -383,4 +385,262 @@ public class RestaurantControllerTests {
         // then
         response.andExpect(MockMvcResultMatchers.status().isNotFound());
     }
+
+    @Test
+    @DisplayName("Junit test case for suggest Restaurants operation")
+    public void givenPrefix_whenSuggestRestaurants_thenReturnSuggestionList() throws Exception{
+
+        // given
+        List<SuggestionDto> suggestions = List.of(new SuggestionDto(3, "Tandoori Nights"));
+
+        // method stubbing
+        BDDMockito.given(restaurantService.suggestRestaurants("tan", null)).willReturn(suggestions);
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/restaurants/suggest").param("prefix", "tan"));
+
+        // then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value("Tandoori Nights"));
+    }
+
+    @Test
+    @DisplayName("Junit test case for getRestaurant operation answering a matching If-None-Match with 304")
+    public void givenMatchingIfNoneMatch_whenGetRestaurant_thenReturnNotModifiedWithoutService() throws Exception{
+
+        // given
+        long restaurantId = 4;
+        BDDMockito.given(restaurantService.getRestaurant(restaurantId))
+                .willReturn(ResponseDto.builder().id(restaurantId).name("Tandoori Nights").version(2).build());
+        String etag = mockMvc.perform(get("/api/restaurants/{id}", restaurantId))
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"4-2\""))
+                .andExpect(MockMvcResultMatchers.header().string("Cache-Control", "max-age=30, public"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/restaurants/{id}", restaurantId).header("If-None-Match", etag));
+
+        // then
+        response.andExpect(MockMvcResultMatchers.status().isNotModified());
+        BDDMockito.then(restaurantService).should(org.mockito.Mockito.times(1)).getRestaurant(restaurantId);
+    }
+
+    @Test
+    @DisplayName("Junit test case for get all Restaurants operation answering the tag of the served page with 304")
+    public void givenTagOfServedPage_whenGetAllRestaurants_thenReturnNotModified() throws Exception{
+
+        // given
+        BDDMockito.given(restaurantService.getAllRestaurants(RestaurantQueryDto.builder().build()))
+                .willReturn(new PageDto<>(new ArrayList<>(), null));
+        String etag = mockMvc.perform(get("/api/restaurants"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/restaurants").header("If-None-Match", etag));
+
+        // then
+        response.andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+
+    @Test
+    @DisplayName("Junit test case for get all Restaurants operation answering the tag of a page that changed with the new page")
+    public void givenTagOfChangedPage_whenGetAllRestaurants_thenReturnPageWithNewTag() throws Exception{
+
+        // given
+        BDDMockito.given(restaurantService.getAllRestaurants(RestaurantQueryDto.builder().build()))
+                .willReturn(new PageDto<>(new ArrayList<>(), null))
+                .willReturn(new PageDto<>(List.of(ResponseDto.builder().id(4).name("Tandoori Nights").version(1).build()), null));
+        String etag = mockMvc.perform(get("/api/restaurants"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/restaurants").header("If-None-Match", etag));
+
+        // then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", org.hamcrest.Matchers.not(etag)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name").value("Tandoori Nights"));
+    }
+
+    @Test
+    @DisplayName("Junit test case for get all Restaurants operation in streaming mode")
+    public void givenStreamParameter_whenGetAllRestaurants_thenWriteStreamedRestaurantsAsJsonArray() throws Exception{
+
+        // given
+        ResponseDto responseDto = ResponseDto.builder().id(4).name("Tandoori Nights").build();
+
+        // method stubbing
+        BDDMockito.willAnswer(invocation -> {
+            Consumer<Stream<ResponseDto>> consumer = invocation.getArgument(4);
+            consumer.accept(Stream.of(responseDto));
+            return null;
+        }).given(restaurantService).streamRestaurants(ArgumentMatchers.eq("INDIAN"), ArgumentMatchers.isNull(), ArgumentMatchers.isNull(), ArgumentMatchers.eq(false), ArgumentMatchers.any());
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/restaurants")
+                .param("cuisine", "INDIAN")
+                .param("stream", "true"));
+
+        // then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value("Tandoori Nights"));
+        BDDMockito.then(restaurantService).should(org.mockito.Mockito.never()).getAllRestaurants(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("Junit test case for batch get Restaurants operation")
+    public void givenIds_whenGetRestaurants_thenReturnFoundRestaurantsAndMissingIds() throws Exception{
+
+        // given
+        BatchGetRequestDto batchGetRequestDto = new BatchGetRequestDto(List.of(4L, 9L));
+
+        // method stubbing
+        BDDMockito.given(restaurantService.getRestaurants(List.of(4L, 9L)))
+                .willReturn(new BatchGetResponseDto(List.of(ResponseDto.builder().id(4).name("Tandoori Nights").build()), List.of(9L)));
+
+        // when
+        ResultActions response = mockMvc.perform(post("/api/restaurants/_batchGet")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batchGetRequestDto)));
+
+        // then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name").value("Tandoori Nights"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.missing[0]").value(9));
+    }
+
+    @Test
+    @DisplayName("Junit test case for import Restaurants operation with newline delimited JSON")
+    public void givenNdjsonBody_whenImportRestaurants_thenPassEveryRowToService() throws Exception{
+
+        // given
+        String body = "{\"name\":\"Somesh Tacos\",\"website\":\"tacos.com\"}\n{\"name\":\"Curry House\"}\n";
+        List<String> importedNames = new ArrayList<>();
+
+        // method stubbing
+        BDDMockito.given(restaurantService.importRestaurants(ArgumentMatchers.any())).willAnswer(invocation -> {
+            invocation.<java.util.Iterator<RequestDto>>getArgument(0).forEachRemaining(requestDto -> importedNames.add(requestDto.getName()));
+            return new ImportResponseDto(2, 0, 0, new ArrayList<>());
+        });
+
+        // when
+        ResultActions response = mockMvc.perform(post("/api/restaurants/_import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body));
+
+        // then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created").value(2));
+        org.assertj.core.api.Assertions.assertThat(importedNames).containsExactly("Somesh Tacos", "Curry House");
+    }
+
+    @Test
+    @DisplayName("Junit test case for import Restaurants operation with a malformed body")
+    public void givenMalformedArray_whenImportRestaurants_thenReturnBadRequest() throws Exception{
+
+        // method stubbing
+        BDDMockito.given(restaurantService.importRestaurants(ArgumentMatchers.any())).willAnswer(invocation -> {
+            invocation.<java.util.Iterator<RequestDto>>getArgument(0).forEachRemaining(requestDto -> {});
+            return new ImportResponseDto();
+        });
+
+        // when
+        ResultActions response = mockMvc.perform(post("/api/restaurants/_import")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"name\":\"Somesh Tacos\"}, {\"name\": ]"));
+
+        // then
+        response.andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Junit test case for export Restaurants operation with gzip")
+    public void givenAcceptEncodingGzip_whenExportRestaurants_thenWriteCompressedNdjson() throws Exception{
+
+        // method stubbing
+        BDDMockito.willAnswer(invocation -> {
+            Consumer<Stream<ResponseDto>> consumer = invocation.getArgument(1);
+            consumer.accept(Stream.of(ResponseDto.builder().id(5).name("Tandoori Nights").build(), ResponseDto.builder().id(7).name("Curry House").build()));
+            return null;
+        }).given(restaurantService).exportRestaurants(ArgumentMatchers.eq(4L), ArgumentMatchers.any());
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/restaurants/_export")
+                .param("format", "ndjson")
+                .param("afterId", "4")
+                .header("Accept-Encoding", "gzip"));
+
+        // then
+        byte[] body = response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("Content-Encoding", "gzip"))
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsByteArray();
+        String ndjson = new String(new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes(), StandardCharsets.UTF_8);
+        org.assertj.core.api.Assertions.assertThat(ndjson.split("\n")).hasSize(2);
+        org.assertj.core.api.Assertions.assertThat(objectMapper.readTree(ndjson.split("\n")[1]).get("id").asLong()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Junit test case for export Restaurants operation with gzip refused by a zero q-value")
+    public void givenGzipWithZeroQuality_whenExportRestaurants_thenWriteUncompressedNdjson() throws Exception{
+
+        // method stubbing
+        BDDMockito.willAnswer(invocation -> {
+            Consumer<Stream<ResponseDto>> consumer = invocation.getArgument(1);
+            consumer.accept(Stream.of(ResponseDto.builder().id(5).name("Tandoori Nights").build()));
+            return null;
+        }).given(restaurantService).exportRestaurants(ArgumentMatchers.isNull(), ArgumentMatchers.any());
+
+        for(String acceptEncoding : List.of("gzip;q=0", "identity, gzip;q=0", "*, gzip; q=0.0")){
+
+            // when
+            ResultActions response = mockMvc.perform(get("/api/restaurants/_export").header("Accept-Encoding", acceptEncoding));
+
+            // then
+            String ndjson = response.andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.header().doesNotExist("Content-Encoding"))
+                    .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+            org.assertj.core.api.Assertions.assertThat(objectMapper.readTree(ndjson.trim()).get("id").asLong()).isEqualTo(5);
+        }
+    }
+
+    @Test
+    @DisplayName("Junit test case for export Restaurants operation with an unknown format")
+    public void givenUnknownFormat_whenExportRestaurants_thenReturnBadRequest() throws Exception{
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/restaurants/_export").param("format", "xml"));
+
+        // then
+        response.andExpect(MockMvcResultMatchers.status().isBadRequest());
+        BDDMockito.then(restaurantService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("Junit test case for nearby Restaurants operation")
+    public void givenPoint_whenGetNearbyRestaurants_thenReturnRestaurantsWithDistance() throws Exception{
+
+        // method stubbing
+        BDDMockito.given(restaurantService.getNearbyRestaurants(51.5074, -0.1278, 3.0, "INDIAN", null))
+                .willReturn(List.of(new NearbyRestaurantDto(ResponseDto.builder().id(4).name("Curry House").latitude(51.5033).longitude(-0.1196).build(), 0.74)));
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/restaurants/nearby")
+                .param("lat", "51.5074")
+                .param("lon", "-0.1278")
+                .param("radiusKm", "3")
+                .param("cuisine", "INDIAN"));
+
+        // then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(4))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value("Curry House"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].latitude").value(51.5033))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].distanceKm").value(0.74));
+    }
 }
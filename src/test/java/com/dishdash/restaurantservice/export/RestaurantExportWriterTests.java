@@ -0,0 +1,71 @@
+package com.dishdash.restaurantservice.export;
+
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.enums.Cuisine;
+import com.dishdash.restaurantservice.enums.Currency;
+import com.dishdash.restaurantservice.enums.ExportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+public class RestaurantExportWriterTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private RestaurantExportWriter restaurantExportWriter;
+
+    @BeforeEach
+    public void setup(){
+        restaurantExportWriter = new RestaurantExportWriter();
+        ReflectionTestUtils.setField(restaurantExportWriter, "objectMapper", objectMapper);
+    }
+
+    private Stream<ResponseDto> restaurants(){
+        return Stream.of(
+                ResponseDto.builder().id(1).name("Somesh Tacos").cuisine(Cuisine.MEXICAN).rating(4.5f).currencyUsed(Currency.GBP).latitude(51.5).longitude(-0.12).build(),
+                ResponseDto.builder().id(2).name("Curry \"House\"").address("12 Spice Road,\nLondon").deliveryFee(3).build());
+    }
+
+    // Junit test case for the NDJSON export
+    @Test
+    @DisplayName("Junit test case for the NDJSON export")
+    public void givenRestaurants_whenWriteNdjson_thenWriteOneJsonObjectPerLine() throws Exception{
+
+        // given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        restaurantExportWriter.write(ExportFormat.NDJSON, restaurants(), out);
+
+        // then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        Assertions.assertThat(lines).hasSize(2);
+        Assertions.assertThat(objectMapper.readTree(lines[0]).get("name").asText()).isEqualTo("Somesh Tacos");
+        Assertions.assertThat(objectMapper.readTree(lines[1]).get("address").asText()).isEqualTo("12 Spice Road,\nLondon");
+    }
+
+    // Junit test case for the CSV export
+    @Test
+    @DisplayName("Junit test case for the CSV export")
+    public void givenRestaurants_whenWriteCsv_thenWriteHeaderAndQuoteSpecialFields() throws Exception{
+
+        // given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        restaurantExportWriter.write(ExportFormat.CSV, restaurants(), out);
+
+        // then
+        Assertions.assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,name,cuisine,address,rating,contactNumber,website,averageDeliveryTimeInMinutes,deliveryFee,minimumOrderAmount,currencyUsed,latitude,longitude\r\n" +
+                "1,Somesh Tacos,MEXICAN,,4.5,0,,0,0,0,GBP,51.5,-0.12\r\n" +
+                "2,\"Curry \"\"House\"\"\",,\"12 Spice Road,\nLondon\",0.0,0,,0,3,0,,,\r\n");
+    }
+}
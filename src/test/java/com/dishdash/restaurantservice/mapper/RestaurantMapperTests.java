@@ -0,0 +1,81 @@
+package com.dishdash.restaurantservice.mapper;
+
+import com.dishdash.restaurantservice.dto.GeoPointDto;
+import com.dishdash.restaurantservice.dto.RequestDto;
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.entity.Restaurant;
+import com.dishdash.restaurantservice.enums.Cuisine;
+import com.dishdash.restaurantservice.enums.Currency;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+public class RestaurantMapperTests {
+
+    private final RestaurantMapper restaurantMapper = new RestaurantMapperImpl();
+
+    private final RequestDto requestDto = RequestDto.builder()
+            .id(42)
+            .name("Somesh Tacos")
+            .cuisine(Cuisine.MEXICAN)
+            .address("234 Tostada Avenue, Taco Town")
+            .rating(4.6F)
+            .contactNumber(8034567890L)
+            .website("http://www.tacofiesta.com")
+            .averageDeliveryTimeInMinutes(27)
+            .deliveryFee(7)
+            .minimumOrderAmount(25)
+            .currencyUsed(Currency.GBP)
+            .latitude(51.5074)
+            .longitude(-0.1278)
+            .deliveryZones(List.of(List.of(new GeoPointDto(51.50, -0.15), new GeoPointDto(51.52, -0.15), new GeoPointDto(51.52, -0.10))))
+            .build();
+
+    // Junit test case which fails when a field of the dto classes is left unmapped
+    @Test
+    @DisplayName("Junit test case which fails when a field of the dto classes is left unmapped")
+    public void givenFullyPopulatedRequestDto_whenMapToResponseDto_thenEveryFieldIsCopied() throws Exception{
+
+        //given
+        Restaurant restaurant = restaurantMapper.toRestaurant(requestDto);
+        restaurant.setId(7);
+        restaurant.setVersion(3);
+        restaurant.setChangeVersion(11);
+
+        //when
+        ResponseDto responseDto = restaurantMapper.toResponseDto(restaurant);
+
+        //then
+        for (Field field : ResponseDto.class.getDeclaredFields()) {
+            field.setAccessible(true);
+            Object value = field.get(responseDto);
+            Assertions.assertThat(value).as("ResponseDto.%s is not mapped", field.getName())
+                    .isNotNull()
+                    .isNotIn(0, 0L, 0F);
+        }
+        Assertions.assertThat(responseDto).usingRecursiveComparison().ignoringFields("id", "version", "changeVersion").isEqualTo(requestDto);
+    }
+
+    // Junit test case for toRestaurant and updateRestaurant keeping the id under the control of the database
+    @Test
+    @DisplayName("Junit test case for toRestaurant and updateRestaurant keeping the id under the control of the database")
+    public void givenRequestDtoWithId_whenMapToRestaurant_thenIdIsNotCopied(){
+
+        //given
+        Restaurant existingRestaurant = Restaurant.builder().id(7).name("Taco Bell").version(3).changeVersion(11).build();
+
+        //when
+        Restaurant newRestaurant = restaurantMapper.toRestaurant(requestDto);
+        restaurantMapper.updateRestaurant(requestDto, existingRestaurant);
+
+        //then
+        Assertions.assertThat(newRestaurant.getId()).isEqualTo(0);
+        Assertions.assertThat(existingRestaurant.getId()).isEqualTo(7);
+        Assertions.assertThat(existingRestaurant.getVersion()).isEqualTo(3);
+        Assertions.assertThat(existingRestaurant.getChangeVersion()).isEqualTo(11);
+        Assertions.assertThat(existingRestaurant).usingRecursiveComparison().ignoringFields("id", "version", "changeVersion").isEqualTo(requestDto);
+    }
+}
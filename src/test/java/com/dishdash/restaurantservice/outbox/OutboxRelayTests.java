@@ -0,0 +1,79 @@
+package com.dishdash.restaurantservice.outbox;
+
+import com.dishdash.restaurantservice.entity.OutboxEvent;
+import com.dishdash.restaurantservice.enums.ChangeType;
+import com.dishdash.restaurantservice.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+public class OutboxRelayTests {
+
+    private final OutboxEventRepository outboxEventRepository = Mockito.mock(OutboxEventRepository.class);
+
+    private final OutboxSink outboxSink = Mockito.mock(OutboxSink.class);
+
+    private final TransactionTemplate transactionTemplate = Mockito.mock(TransactionTemplate.class);
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    public void setup(){
+        outboxRelay = new OutboxRelay();
+        ReflectionTestUtils.setField(outboxRelay, "outboxEventRepository", outboxEventRepository);
+        ReflectionTestUtils.setField(outboxRelay, "outboxSink", outboxSink);
+        ReflectionTestUtils.setField(outboxRelay, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", 2);
+        BDDMockito.given(transactionTemplate.execute(ArgumentMatchers.<TransactionCallback<Integer>>any()))
+                .willAnswer(invocation -> invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+    }
+
+    private OutboxEvent event(long id){
+        return OutboxEvent.builder().id(id).restaurantId(id).type(ChangeType.CREATED).payload("{\"id\":" + id + "}").build();
+    }
+
+    // Junit test case for draining the outbox in batches
+    @Test
+    @DisplayName("Junit test case for draining the outbox in batches")
+    public void givenPendingEvents_whenRelay_thenPublishAndDeleteEveryBatchInOrder() throws Exception{
+
+        // given
+        List<OutboxEvent> firstBatch = List.of(event(1), event(2));
+        List<OutboxEvent> secondBatch = List.of(event(3));
+        BDDMockito.given(outboxEventRepository.findBatchForUpdate(PageRequest.of(0, 2))).willReturn(firstBatch).willReturn(secondBatch);
+
+        // when
+        outboxRelay.relay();
+
+        // then
+        BDDMockito.then(outboxSink).should().publish(firstBatch);
+        BDDMockito.then(outboxSink).should().publish(secondBatch);
+        BDDMockito.then(outboxEventRepository).should().deleteAllInBatch(firstBatch);
+        BDDMockito.then(outboxEventRepository).should().deleteAllInBatch(secondBatch);
+    }
+
+    // Junit test case for keeping events the sink rejected
+    @Test
+    @DisplayName("Junit test case for keeping events the sink rejected")
+    public void givenFailingSink_whenRelay_thenEventsAreNotDeleted() throws Exception{
+
+        // given
+        BDDMockito.given(outboxEventRepository.findBatchForUpdate(PageRequest.of(0, 2))).willReturn(List.of(event(1)));
+        BDDMockito.willThrow(new IllegalStateException("broker unavailable")).given(outboxSink).publish(ArgumentMatchers.anyList());
+
+        // when
+        outboxRelay.relay();
+
+        // then
+        BDDMockito.then(outboxEventRepository).should(Mockito.never()).deleteAllInBatch(ArgumentMatchers.anyIterable());
+    }
+}
@@ -1,15 +1,23 @@
 package com.dishdash.restaurantservice.repository;
 
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.dto.RestaurantFilterDto;
 import com.dishdash.restaurantservice.entity.Restaurant;
 import com.dishdash.restaurantservice.enums.Cuisine;
 import com.dishdash.restaurantservice.enums.Currency;
+import com.dishdash.restaurantservice.enums.Sort;
+import com.dishdash.restaurantservice.pagination.Cursor;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @DataJpaTest
 public class RestaurantRepositoryTests {
@@ -169,10 +177,10 @@ public class RestaurantRepositoryTests {
         Assertions.assertThat(updatedRestaurant.getCuisine()).isEqualTo(Cuisine.AMERICAN);
     }
 
-    //Junit test case for findRestaurants operation.
+    //Junit test case for findRestaurantsPage operation.
     @Test
-    @DisplayName("Junit test case for findRestaurants by cuisine operation")
-    public void givenRestaurantObjects_whenFindRestaurantsByCuisine_thenReturnRestaurantList(){
+    @DisplayName("Junit test case for findRestaurantsPage by cuisine operation")
+    public void givenRestaurantObjects_whenFindRestaurantsPageByCuisine_thenReturnRestaurantList(){
 
         //given
         Restaurant restaurant1 = Restaurant.builder()
@@ -247,7 +255,7 @@ public class RestaurantRepositoryTests {
         restaurantRepository.save(restaurant5);
 
         //when
-        List<Restaurant> restaurantList = restaurantRepository.findRestaurants(Cuisine.AMERICAN, null);
+        List<ResponseDto> restaurantList = restaurantRepository.findRestaurantsPage(RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.AMERICAN)).build(), null, null, List.of(), null, 20);
 
         //then
         Assertions.assertThat(restaurantList).isNotNull();
@@ -257,8 +265,8 @@ public class RestaurantRepositoryTests {
     }
 
     @Test
-    @DisplayName("Junit test case for findRestaurants by search operation")
-    public void givenRestaurantObjects_whenFindRestaurantsBySearch_thenReturnRestaurantList(){
+    @DisplayName("Junit test case for findRestaurantsPage by search operation")
+    public void givenRestaurantObjects_whenFindRestaurantsPageBySearch_thenReturnRestaurantList(){
 
         //given
         Restaurant restaurant1 = Restaurant.builder()
@@ -333,7 +341,7 @@ public class RestaurantRepositoryTests {
         restaurantRepository.save(restaurant5);
 
         //when
-        List<Restaurant> restaurantList = restaurantRepository.findRestaurants(null, "Taco");
+        List<ResponseDto> restaurantList = restaurantRepository.findRestaurantsPage(null, "taco", null, List.of(), null, 20);
 
         //then
         Assertions.assertThat(restaurantList).isNotNull();
@@ -344,8 +352,8 @@ public class RestaurantRepositoryTests {
     }
 
     @Test
-    @DisplayName("Junit test case for findRestaurants by cuisine and search operation")
-    public void givenRestaurantObjects_whenFindRestaurantsByCuisineAndSearch_thenReturnRestaurantList(){
+    @DisplayName("Junit test case for findRestaurantsPage by cuisine and search operation")
+    public void givenRestaurantObjects_whenFindRestaurantsPageByCuisineAndSearch_thenReturnRestaurantList(){
 
         //given
         Restaurant restaurant1 = Restaurant.builder()
@@ -420,7 +428,7 @@ public class RestaurantRepositoryTests {
         restaurantRepository.save(restaurant5);
 
         //when
-        List<Restaurant> restaurantList = restaurantRepository.findRestaurants(Cuisine.INDIAN, "Sushi");
+        List<ResponseDto> restaurantList = restaurantRepository.findRestaurantsPage(RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.INDIAN)).build(), "Sushi", null, List.of(), null, 20);
 
         //then
         Assertions.assertThat(restaurantList).isNotNull();
@@ -431,8 +439,8 @@ public class RestaurantRepositoryTests {
     }
 
     @Test
-    @DisplayName("Junit test case for findRestaurants by cuisine and search operation")
-    public void givenRestaurantObjects_whenFindRestaurantsBySearchAndCuisine_thenReturnRestaurantList(){
+    @DisplayName("Junit test case for findRestaurantsPage by cuisine and search operation matching nothing")
+    public void givenRestaurantObjects_whenFindRestaurantsPageBySearchAndCuisine_thenReturnEmptyList(){
 
         //given
         Restaurant restaurant1 = Restaurant.builder()
@@ -507,11 +515,270 @@ public class RestaurantRepositoryTests {
         restaurantRepository.save(restaurant5);
 
         //when
-        List<Restaurant> restaurantList = restaurantRepository.findRestaurants(Cuisine.CHINESE, "Burger");
+        List<ResponseDto> restaurantList = restaurantRepository.findRestaurantsPage(RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.CHINESE)).build(), "Burger", null, List.of(), null, 20);
 
         //then
         Assertions.assertThat(restaurantList).isNotNull();
         Assertions.assertThat(restaurantList.isEmpty()).isEqualTo(true);
         Assertions.assertThat(restaurantList.size()).isEqualTo(0);
     }
-}
\ No newline at end of file
+
+    // Junit test case for findRestaurantsPage operation walking every page with a keyset cursor
+    @Test
+    @DisplayName("Junit test case for findRestaurantsPage operation walking every page with a keyset cursor")
+    public void givenRestaurantObjectsWithTiedRatings_whenFindRestaurantsPage_thenReturnEveryRestaurantOnceInOrder(){
+
+        //given
+        float[] ratings = {4.6F, 4.2F, 4.6F, 3.9F, 4.2F, 4.6F, 4.8F};
+        for (int i = 0; i < ratings.length; i++) {
+            restaurantRepository.save(Restaurant.builder()
+                    .name("Restaurant " + i)
+                    .cuisine(Cuisine.INDIAN)
+                    .rating(ratings[i])
+                    .website("http://www.restaurant" + i + ".com")
+                    .deliveryFee(5)
+                    .minimumOrderAmount(20)
+                    .currencyUsed(Currency.INR)
+                    .build());
+        }
+
+        //when
+        List<ResponseDto> walked = new ArrayList<>();
+        Cursor cursor = null;
+        List<ResponseDto> page;
+        do {
+            page = restaurantRepository.findRestaurantsPage(null, null, null, List.of(Sort.RATING), cursor, 2);
+            walked.addAll(page);
+            if (!page.isEmpty())
+                cursor = Cursor.decode(Cursor.after(List.of(Sort.RATING), page.get(page.size() - 1)).encode());
+        } while (page.size() == 2);
+
+        //then
+        Assertions.assertThat(walked).hasSize(ratings.length);
+        Assertions.assertThat(walked).extracting(ResponseDto::getId).doesNotHaveDuplicates();
+        Assertions.assertThat(walked).extracting(ResponseDto::getRating).isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+    // Junit test case for findRestaurantsPage operation with several sort keys
+    @Test
+    @DisplayName("Junit test case for findRestaurantsPage operation with several sort keys")
+    public void givenRestaurantObjects_whenFindRestaurantsPageBySeveralKeys_thenReturnRestaurantsInDatabaseOrder(){
+
+        //given
+        float[] ratings = {4.6F, 4.2F, 4.6F, 4.6F, 4.2F};
+        int[] deliveryFees = {7, 3, 2, 7, 5};
+        for (int i = 0; i < ratings.length; i++) {
+            restaurantRepository.save(Restaurant.builder()
+                    .name("Restaurant " + i)
+                    .cuisine(Cuisine.THAI)
+                    .rating(ratings[i])
+                    .website("http://www.restaurant" + i + ".com")
+                    .deliveryFee(deliveryFees[i])
+                    .minimumOrderAmount(20)
+                    .currencyUsed(Currency.GBP)
+                    .build());
+        }
+        List<Sort> sorts = List.of(Sort.RATING, Sort.DELIVERY_FEE);
+
+        //when
+        List<ResponseDto> firstPage = restaurantRepository.findRestaurantsPage(RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.THAI)).build(), null, null, sorts, null, 3);
+        Cursor cursor = Cursor.after(sorts, firstPage.get(2));
+        List<ResponseDto> secondPage = restaurantRepository.findRestaurantsPage(RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.THAI)).build(), null, null, sorts, cursor, 3);
+
+        //then
+        Assertions.assertThat(firstPage).extracting(ResponseDto::getName)
+                .containsExactly("Restaurant 2", "Restaurant 0", "Restaurant 3");
+        Assertions.assertThat(secondPage).extracting(ResponseDto::getName)
+                .containsExactly("Restaurant 1", "Restaurant 4");
+    }
+
+    // Junit test case for findRestaurantsPage operation restricted to candidate ids and a case-insensitive search
+    @Test
+    @DisplayName("Junit test case for findRestaurantsPage operation restricted to candidate ids and a case-insensitive search")
+    public void givenRestaurantObjects_whenFindRestaurantsPageByIdsOrSearch_thenReturnMatchingRestaurants(){
+
+        //given
+        String[] names = {"Taco Fiesta", "Pasta Palace", "Somesh TACOS"};
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            ids.add(restaurantRepository.save(Restaurant.builder()
+                    .name(names[i])
+                    .cuisine(Cuisine.MEXICAN)
+                    .rating(4.0F)
+                    .website("http://www.restaurant" + i + ".com")
+                    .deliveryFee(5)
+                    .minimumOrderAmount(20)
+                    .currencyUsed(Currency.GBP)
+                    .build()).getId());
+        }
+
+        //when
+        List<ResponseDto> byIds = restaurantRepository.findRestaurantsPage(null, null, List.of(ids.get(0), ids.get(1)), List.of(), null, 10);
+        List<ResponseDto> bySearch = restaurantRepository.findRestaurantsPage(null, "taco", null, List.of(), null, 10);
+
+        //then
+        Assertions.assertThat(byIds).extracting(ResponseDto::getName).containsExactly("Taco Fiesta", "Pasta Palace");
+        Assertions.assertThat(bySearch).extracting(ResponseDto::getName).containsExactly("Taco Fiesta", "Somesh TACOS");
+    }
+
+    // Junit test case for streamRestaurants operation
+    @Test
+    @DisplayName("Junit test case for streamRestaurants operation")
+    public void givenRestaurantObjects_whenStreamRestaurants_thenStreamMatchingRestaurantsInDatabaseOrder(){
+
+        //given
+        float[] ratings = {4.2F, 4.9F, 4.6F};
+        for (int i = 0; i < ratings.length; i++) {
+            restaurantRepository.save(Restaurant.builder()
+                    .name("Restaurant " + i)
+                    .cuisine(Cuisine.GREEK)
+                    .rating(ratings[i])
+                    .website("http://www.restaurant" + i + ".com")
+                    .deliveryFee(5)
+                    .minimumOrderAmount(20)
+                    .currencyUsed(Currency.EURO)
+                    .build());
+        }
+
+        //when
+        List<ResponseDto> streamed;
+        try (Stream<ResponseDto> restaurants = restaurantRepository.streamRestaurants(RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.GREEK)).build(), null, null, List.of(Sort.RATING), null, 2)) {
+            streamed = restaurants.toList();
+        }
+
+        //then
+        Assertions.assertThat(streamed).extracting(ResponseDto::getName)
+                .containsExactly("Restaurant 1", "Restaurant 2", "Restaurant 0");
+    }
+
+    // Junit test case for findResponseDtosByIdIn operation
+    @Test
+    @DisplayName("Junit test case for findResponseDtosByIdIn operation")
+    public void givenRestaurantObjects_whenFindResponseDtosByIdIn_thenReturnOnlyRequestedRestaurants(){
+
+        //given
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(restaurantRepository.save(Restaurant.builder()
+                    .name("Restaurant " + i)
+                    .cuisine(Cuisine.GREEK)
+                    .website("http://www.restaurant" + i + ".com")
+                    .deliveryFee(5)
+                    .minimumOrderAmount(20)
+                    .currencyUsed(Currency.EURO)
+                    .build()).getId());
+        }
+
+        //when
+        List<ResponseDto> restaurants = restaurantRepository.findResponseDtosByIdIn(List.of(ids.get(2), ids.get(0), -1L));
+
+        //then
+        Assertions.assertThat(restaurants).extracting(ResponseDto::getName)
+                .containsExactlyInAnyOrder("Restaurant 2", "Restaurant 0");
+    }
+
+    // Junit test case for findRestaurantsPage operation with several cuisines and currencies
+    @Test
+    @DisplayName("Junit test case for findRestaurantsPage operation with several cuisines and currencies")
+    public void givenRestaurantObjects_whenFindRestaurantsPageByCuisinesAndCurrencies_thenReturnRestaurantsMatchingBoth(){
+
+        //given
+        Cuisine[] cuisines = {Cuisine.INDIAN, Cuisine.THAI, Cuisine.GREEK, Cuisine.INDIAN};
+        Currency[] currencies = {Currency.GBP, Currency.GBP, Currency.GBP, Currency.INR};
+        for (int i = 0; i < cuisines.length; i++) {
+            restaurantRepository.save(Restaurant.builder()
+                    .name("Restaurant " + i)
+                    .cuisine(cuisines[i])
+                    .currencyUsed(currencies[i])
+                    .build());
+        }
+        RestaurantFilterDto filter = RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.INDIAN, Cuisine.THAI)).currencies(Set.of(Currency.GBP)).build();
+
+        //when
+        List<ResponseDto> page = restaurantRepository.findRestaurantsPage(filter, null, null, List.of(), null, 10);
+
+        //then
+        Assertions.assertThat(page).extracting(ResponseDto::getName).containsExactly("Restaurant 0", "Restaurant 1");
+    }
+
+    // Junit test case for findRestaurantsPage operation with range bounds
+    @Test
+    @DisplayName("Junit test case for findRestaurantsPage operation with range bounds")
+    public void givenRestaurantObjects_whenFindRestaurantsPageWithinBounds_thenReturnRestaurantsWithinEveryBoundInclusive(){
+
+        //given
+        float[] ratings = {4.5F, 4.0F, 3.5F, 4.8F};
+        int[] deliveryFees = {2, 5, 0, 9};
+        int[] deliveryTimes = {20, 30, 15, 25};
+        for (int i = 0; i < ratings.length; i++) {
+            restaurantRepository.save(Restaurant.builder()
+                    .name("Restaurant " + i)
+                    .rating(ratings[i])
+                    .deliveryFee(deliveryFees[i])
+                    .averageDeliveryTimeInMinutes(deliveryTimes[i])
+                    .minimumOrderAmount(10 * i)
+                    .build());
+        }
+        RestaurantFilterDto filter = RestaurantFilterDto.builder().minRating(4.0F).maxDeliveryFee(5).maxDeliveryTime(30).build();
+
+        //when
+        List<ResponseDto> page = restaurantRepository.findRestaurantsPage(filter, null, null, List.of(Sort.RATING), null, 10);
+        List<ResponseDto> cheapToOrder = restaurantRepository.findRestaurantsPage(RestaurantFilterDto.builder().maxMinimumOrderAmount(10).build(), null, null, List.of(), null, 10);
+
+        //then
+        Assertions.assertThat(page).extracting(ResponseDto::getName).containsExactly("Restaurant 0", "Restaurant 1");
+        Assertions.assertThat(cheapToOrder).extracting(ResponseDto::getName).containsExactly("Restaurant 0", "Restaurant 1");
+    }
+
+    // Junit test case for findInBoundingBox operation
+    @Test
+    @DisplayName("Junit test case for findInBoundingBox operation")
+    public void givenLocatedRestaurants_whenFindInBoundingBox_thenReturnRestaurantsInsideTheBoxOfTheCuisine(){
+
+        //given
+        double[][] locations = {{51.50, -0.12}, {51.52, -0.10}, {51.51, -0.11}, {48.85, 2.35}};
+        Cuisine[] cuisines = {Cuisine.INDIAN, Cuisine.THAI, Cuisine.INDIAN, Cuisine.INDIAN};
+        for (int i = 0; i < locations.length; i++) {
+            restaurantRepository.save(Restaurant.builder()
+                    .name("Restaurant " + i)
+                    .cuisine(cuisines[i])
+                    .latitude(locations[i][0])
+                    .longitude(locations[i][1])
+                    .deliveryFee(5)
+                    .minimumOrderAmount(20)
+                    .build());
+        }
+        restaurantRepository.save(Restaurant.builder().name("Unlocated").cuisine(Cuisine.INDIAN).deliveryFee(5).minimumOrderAmount(20).build());
+
+        //when
+        List<ResponseDto> london = restaurantRepository.findInBoundingBox(null, 51.4, 51.6, -0.2, 0.0);
+        List<ResponseDto> indianInLondon = restaurantRepository.findInBoundingBox(Cuisine.INDIAN, 51.4, 51.6, -0.2, 0.0);
+
+        //then
+        Assertions.assertThat(london).extracting(ResponseDto::getName).containsExactlyInAnyOrder("Restaurant 0", "Restaurant 1", "Restaurant 2");
+        Assertions.assertThat(indianInLondon).extracting(ResponseDto::getName).containsExactlyInAnyOrder("Restaurant 0", "Restaurant 2");
+    }
+
+    // Junit test case for findRestaurantsPage operation with a minimum rating equal to a stored rating
+    @Test
+    @DisplayName("Junit test case for findRestaurantsPage operation with a minimum rating equal to a stored rating")
+    public void givenRatingOnTheBound_whenFindRestaurantsPageWithMinRating_thenRestaurantIsIncluded(){
+
+        //given
+        float[] ratings = {4.6F, 4.5F, 4.7F};
+        for (int i = 0; i < ratings.length; i++) {
+            restaurantRepository.save(Restaurant.builder()
+                    .name("Restaurant " + i)
+                    .rating(ratings[i])
+                    .deliveryFee(5)
+                    .minimumOrderAmount(20)
+                    .build());
+        }
+
+        //when
+        List<ResponseDto> page = restaurantRepository.findRestaurantsPage(RestaurantFilterDto.builder().minRating(4.6F).build(), null, null, List.of(Sort.RATING), null, 10);
+
+        //then
+        Assertions.assertThat(page).extracting(ResponseDto::getName).containsExactly("Restaurant 2", "Restaurant 0");
+    }
+}
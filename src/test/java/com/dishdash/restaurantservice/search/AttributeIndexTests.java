@@ -0,0 +1,161 @@
+package com.dishdash.restaurantservice.search;
+
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.dto.RestaurantFilterDto;
+import com.dishdash.restaurantservice.enums.ChangeType;
+import com.dishdash.restaurantservice.enums.Cuisine;
+import com.dishdash.restaurantservice.enums.Currency;
+import com.dishdash.restaurantservice.enums.Facet;
+import com.dishdash.restaurantservice.event.RestaurantChangedEvent;
+import com.dishdash.restaurantservice.repository.RestaurantRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class AttributeIndexTests {
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @InjectMocks
+    private AttributeIndex attributeIndex;
+
+    @BeforeEach
+    public void setup(){
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private void rebuildWith(ResponseDto... restaurants){
+        BDDMockito.given(restaurantRepository.findRestaurantsPage(ArgumentMatchers.isNull(), ArgumentMatchers.isNull(), ArgumentMatchers.isNull(),
+                        ArgumentMatchers.anyList(), ArgumentMatchers.any(), ArgumentMatchers.anyInt()))
+                .willReturn(List.of(restaurants));
+        attributeIndex.rebuild();
+    }
+
+    private ResponseDto restaurant(long id, Cuisine cuisine, Currency currency, int deliveryFee){
+        return ResponseDto.builder().id(id).name("Restaurant " + id).cuisine(cuisine).currencyUsed(currency)
+                .deliveryFee(deliveryFee).averageDeliveryTimeInMinutes(25).build();
+    }
+
+    private ResponseDto restaurant(long id, float rating, int deliveryFee, int deliveryTime){
+        return ResponseDto.builder().id(id).name("Restaurant " + id).cuisine(Cuisine.INDIAN).currencyUsed(Currency.GBP)
+                .rating(rating).deliveryFee(deliveryFee).averageDeliveryTimeInMinutes(deliveryTime).build();
+    }
+
+    // Junit test case for matching before the index is built
+    @Test
+    @DisplayName("Junit test case for matching before the index is built")
+    public void givenIndexNotBuilt_whenMatching_thenReturnNull(){
+
+        // when
+        IdBitmap matching = attributeIndex.matching(RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.INDIAN)).build());
+
+        // then
+        Assertions.assertThat(matching).isNull();
+    }
+
+    // Junit test case for combining filters on the bitmaps
+    @Test
+    @DisplayName("Junit test case for combining filters on the bitmaps")
+    public void givenBuiltIndex_whenMatching_thenUniteValuesAndIntersectAttributes(){
+
+        // given
+        rebuildWith(
+                restaurant(1, Cuisine.INDIAN, Currency.GBP, 2),
+                restaurant(2, Cuisine.INDIAN, Currency.INR, 2),
+                restaurant(3, Cuisine.MEXICAN, Currency.GBP, 7),
+                restaurant(4, Cuisine.THAI, Currency.GBP, 12),
+                restaurant(5, null, null, 0));
+
+        // when
+        IdBitmap indianOrMexicanInGbp = attributeIndex.matching(RestaurantFilterDto.builder()
+                .cuisines(EnumSet.of(Cuisine.INDIAN, Cuisine.MEXICAN)).currencies(Set.of(Currency.GBP)).build());
+        IdBitmap inGbpOrUsd = attributeIndex.matching(RestaurantFilterDto.builder().currencies(EnumSet.of(Currency.GBP, Currency.USD)).build());
+        IdBitmap italian = attributeIndex.matching(RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.ITALIAN)).build());
+
+        // then
+        Assertions.assertThat(indianOrMexicanInGbp.toList()).containsExactly(1L, 3L);
+        Assertions.assertThat(inGbpOrUsd.toList()).containsExactly(1L, 3L, 4L);
+        Assertions.assertThat(italian.isEmpty()).isTrue();
+    }
+
+    // Junit test case for range bounds on the bucket bitmaps
+    @Test
+    @DisplayName("Junit test case for range bounds on the bucket bitmaps")
+    public void givenBuiltIndex_whenMatchingWithBounds_thenKeepTheBucketsTheBoundsReachInto(){
+
+        // given
+        rebuildWith(
+                restaurant(1, 4.9F, 2, 15),
+                restaurant(2, 4.6F, 4, 25),
+                restaurant(3, 4.4F, 2, 15),
+                restaurant(4, 3.0F, 7, 15),
+                restaurant(5, 5.0F, 12, 50));
+
+        // when
+        IdBitmap minRating = attributeIndex.matching(RestaurantFilterDto.builder().minRating(4.7F).build());
+        IdBitmap maxDeliveryFee = attributeIndex.matching(RestaurantFilterDto.builder().maxDeliveryFee(3).build());
+        IdBitmap combined = attributeIndex.matching(RestaurantFilterDto.builder()
+                .cuisines(Set.of(Cuisine.INDIAN)).minRating(4.5F).maxDeliveryFee(9).maxDeliveryTime(19).build());
+
+        // then
+        Assertions.assertThat(minRating.toList()).containsExactly(1L, 2L, 5L);
+        Assertions.assertThat(maxDeliveryFee.toList()).containsExactly(1L, 2L, 3L);
+        Assertions.assertThat(combined.toList()).containsExactly(1L);
+        Assertions.assertThat(AttributeIndex.isIndexed(RestaurantFilterDto.builder().maxMinimumOrderAmount(10).build())).isFalse();
+        Assertions.assertThat(AttributeIndex.isIndexed(RestaurantFilterDto.builder().maxDeliveryTime(30).build())).isTrue();
+    }
+
+    // Junit test case for counting facets on the bitmaps
+    @Test
+    @DisplayName("Junit test case for counting facets on the bitmaps")
+    public void givenBuiltIndex_whenCountFacets_thenCountEachFacetAcrossItsOwnFilter(){
+
+        // given
+        rebuildWith(
+                restaurant(1, Cuisine.INDIAN, Currency.GBP, 2),
+                restaurant(2, Cuisine.INDIAN, Currency.INR, 2),
+                restaurant(3, Cuisine.MEXICAN, Currency.GBP, 7),
+                restaurant(4, Cuisine.THAI, Currency.GBP, 12));
+        RestaurantFilterDto filter = RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.INDIAN)).currencies(Set.of(Currency.GBP)).build();
+
+        // when
+        Map<Facet, Map<String, Long>> counts = attributeIndex.countFacets(null, filter, EnumSet.allOf(Facet.class));
+        Map<Facet, Map<String, Long>> candidateCounts = attributeIndex.countFacets(IdBitmap.of(List.of(3L, 4L)), null, Set.of(Facet.CUISINE));
+
+        // then
+        Assertions.assertThat(counts.get(Facet.CUISINE)).containsEntry("INDIAN", 1L).containsEntry("MEXICAN", 1L).containsEntry("THAI", 1L).containsEntry("ITALIAN", 0L);
+        Assertions.assertThat(counts.get(Facet.CURRENCY)).containsEntry("GBP", 1L).containsEntry("INR", 1L).containsEntry("USD", 0L);
+        Assertions.assertThat(counts.get(Facet.DELIVERY_FEE)).containsExactly(Map.entry("0-4", 1L), Map.entry("5-9", 0L), Map.entry("10+", 0L));
+        Assertions.assertThat(candidateCounts.get(Facet.CUISINE)).containsEntry("MEXICAN", 1L).containsEntry("THAI", 1L).containsEntry("INDIAN", 0L);
+    }
+
+    // Junit test case for keeping the bitmaps current
+    @Test
+    @DisplayName("Junit test case for keeping the bitmaps current")
+    public void givenBuiltIndex_whenRestaurantsChange_thenBitmapsFollow(){
+
+        // given
+        rebuildWith(restaurant(1, Cuisine.INDIAN, Currency.GBP, 2), restaurant(2, Cuisine.INDIAN, Currency.GBP, 2));
+
+        // when
+        attributeIndex.onRestaurantChanged(new RestaurantChangedEvent(ChangeType.UPDATED, restaurant(1, Cuisine.THAI, Currency.GBP, 2)));
+        attributeIndex.onRestaurantChanged(new RestaurantChangedEvent(ChangeType.DELETED, restaurant(2, Cuisine.INDIAN, Currency.GBP, 2)));
+        attributeIndex.onRestaurantChanged(new RestaurantChangedEvent(ChangeType.CREATED, restaurant(3, Cuisine.INDIAN, Currency.GBP, 2)));
+
+        // then
+        Assertions.assertThat(attributeIndex.matching(RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.INDIAN)).build()).toList()).containsExactly(3L);
+        Assertions.assertThat(attributeIndex.matching(RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.THAI)).build()).toList()).containsExactly(1L);
+    }
+}
@@ -0,0 +1,105 @@
+package com.dishdash.restaurantservice.search;
+
+import com.dishdash.restaurantservice.dto.GeoPointDto;
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.enums.ChangeType;
+import com.dishdash.restaurantservice.event.RestaurantChangedEvent;
+import com.dishdash.restaurantservice.repository.RestaurantRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+public class DeliveryZoneIndexTests {
+
+    // L shaped zone over central London, its bounding box also covers the missing north-east corner.
+    private static final List<GeoPointDto> L_SHAPED_ZONE = List.of(
+            new GeoPointDto(51.48, -0.20), new GeoPointDto(51.56, -0.20), new GeoPointDto(51.56, -0.14),
+            new GeoPointDto(51.51, -0.14), new GeoPointDto(51.51, -0.05), new GeoPointDto(51.48, -0.05));
+
+    private static final List<GeoPointDto> PARIS_ZONE = List.of(
+            new GeoPointDto(48.80, 2.25), new GeoPointDto(48.92, 2.25), new GeoPointDto(48.92, 2.45), new GeoPointDto(48.80, 2.45));
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @InjectMocks
+    private DeliveryZoneIndex deliveryZoneIndex;
+
+    @BeforeEach
+    public void setup(){
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private void rebuildWith(ResponseDto... restaurants){
+        BDDMockito.given(restaurantRepository.findRestaurantsPage(ArgumentMatchers.isNull(), ArgumentMatchers.isNull(), ArgumentMatchers.isNull(),
+                        ArgumentMatchers.anyList(), ArgumentMatchers.any(), ArgumentMatchers.anyInt()))
+                .willReturn(List.of(restaurants));
+        deliveryZoneIndex.rebuild();
+    }
+
+    private ResponseDto restaurant(long id, List<List<GeoPointDto>> deliveryZones){
+        return ResponseDto.builder().id(id).name("Restaurant " + id).deliveryZones(deliveryZones).build();
+    }
+
+    // Junit test case for the delivery lookup before the index is built
+    @Test
+    @DisplayName("Junit test case for the delivery lookup before the index is built")
+    public void givenIndexNotBuilt_whenDeliveringTo_thenReturnNull(){
+
+        // when
+        List<Long> ids = deliveryZoneIndex.deliveringTo(51.50, -0.12);
+
+        // then
+        Assertions.assertThat(ids).isNull();
+    }
+
+    // Junit test case for the point-in-polygon test
+    @Test
+    @DisplayName("Junit test case for the point-in-polygon test")
+    public void givenBuiltIndex_whenDeliveringTo_thenReturnOnlyRestaurantsWhosePolygonContainsThePoint(){
+
+        // given
+        rebuildWith(
+                restaurant(1, List.of(L_SHAPED_ZONE)),
+                restaurant(2, List.of(PARIS_ZONE, L_SHAPED_ZONE)),
+                restaurant(3, List.of(PARIS_ZONE)),
+                restaurant(4, null));
+
+        // when
+        List<Long> insideLondon = deliveryZoneIndex.deliveringTo(51.50, -0.10);
+        List<Long> inMissingCorner = deliveryZoneIndex.deliveringTo(51.54, -0.08);
+        List<Long> insideParis = deliveryZoneIndex.deliveringTo(48.85, 2.35);
+
+        // then
+        Assertions.assertThat(insideLondon).containsExactly(1L, 2L);
+        Assertions.assertThat(inMissingCorner).isEmpty();
+        Assertions.assertThat(insideParis).containsExactly(2L, 3L);
+    }
+
+    // Junit test case for keeping the zones current on writes
+    @Test
+    @DisplayName("Junit test case for keeping the zones current on writes")
+    public void givenBuiltIndex_whenZonesChangeAndRestaurantIsDeleted_thenDeliveringToReflectsTheChanges(){
+
+        // given
+        rebuildWith(
+                restaurant(1, List.of(L_SHAPED_ZONE)),
+                restaurant(2, List.of(L_SHAPED_ZONE)));
+
+        // when
+        deliveryZoneIndex.onRestaurantChanged(new RestaurantChangedEvent(ChangeType.UPDATED, restaurant(1, List.of(PARIS_ZONE))));
+        deliveryZoneIndex.onRestaurantChanged(new RestaurantChangedEvent(ChangeType.DELETED, restaurant(2, List.of(L_SHAPED_ZONE))));
+
+        // then
+        Assertions.assertThat(deliveryZoneIndex.deliveringTo(51.50, -0.10)).isEmpty();
+        Assertions.assertThat(deliveryZoneIndex.deliveringTo(48.85, 2.35)).containsExactly(1L);
+    }
+}
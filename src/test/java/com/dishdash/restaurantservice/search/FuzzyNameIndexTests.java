@@ -0,0 +1,102 @@
+package com.dishdash.restaurantservice.search;
+
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.enums.ChangeType;
+import com.dishdash.restaurantservice.event.RestaurantChangedEvent;
+import com.dishdash.restaurantservice.repository.RestaurantRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+public class FuzzyNameIndexTests {
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @InjectMocks
+    private FuzzyNameIndex fuzzyNameIndex;
+
+    @BeforeEach
+    public void setup(){
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private void rebuildWith(ResponseDto... restaurants){
+        BDDMockito.given(restaurantRepository.findRestaurantsPage(ArgumentMatchers.isNull(), ArgumentMatchers.isNull(), ArgumentMatchers.isNull(),
+                        ArgumentMatchers.anyList(), ArgumentMatchers.any(), ArgumentMatchers.anyInt()))
+                .willReturn(List.of(restaurants));
+        fuzzyNameIndex.rebuild();
+    }
+
+    // Junit test case for fuzzy search before the index is built
+    @Test
+    @DisplayName("Junit test case for fuzzy search before the index is built")
+    public void givenIndexNotBuilt_whenSearch_thenReturnNull(){
+
+        // when
+        List<Long> ids = fuzzyNameIndex.search("piza");
+
+        // then
+        Assertions.assertThat(ids).isNull();
+    }
+
+    // Junit test case for fuzzy search tolerating typos
+    @Test
+    @DisplayName("Junit test case for fuzzy search tolerating typos")
+    public void givenBuiltIndex_whenSearchWithTypos_thenReturnIdsOfNamesWithinEditDistance(){
+
+        // given
+        rebuildWith(
+                ResponseDto.builder().id(1).name("Pizza Hut").build(),
+                ResponseDto.builder().id(2).name("Pizza Palace").build(),
+                ResponseDto.builder().id(3).name("Tandoori Nights").build(),
+                ResponseDto.builder().id(4).name("Pita Pit").build());
+
+        // then
+        Assertions.assertThat(fuzzyNameIndex.search("piza hut")).containsExactly(1L);
+        Assertions.assertThat(fuzzyNameIndex.search("PIZZA")).containsExactly(1L, 2L);
+        Assertions.assertThat(fuzzyNameIndex.search("tandrooi")).containsExactly(3L);
+        Assertions.assertThat(fuzzyNameIndex.search("tndoory nights")).containsExactly(3L);
+        Assertions.assertThat(fuzzyNameIndex.search("pit")).containsExactly(4L);
+        Assertions.assertThat(fuzzyNameIndex.search("burger")).isEmpty();
+    }
+
+    // Junit test case for the edit distance allowed per word length
+    @Test
+    @DisplayName("Junit test case for the edit distance allowed per word length")
+    public void givenWordsOfDifferentLengths_whenAllowedDistance_thenLongerWordsTolerateMoreEdits(){
+
+        // then
+        Assertions.assertThat(FuzzyNameIndex.allowedDistance("hu")).isZero();
+        Assertions.assertThat(FuzzyNameIndex.allowedDistance("pizza")).isEqualTo(1);
+        Assertions.assertThat(FuzzyNameIndex.allowedDistance("tandoori")).isEqualTo(2);
+        Assertions.assertThat(FuzzyNameIndex.distance("tandoori", "tandoroi")).isEqualTo(1);
+        Assertions.assertThat(FuzzyNameIndex.distance("piza", "pizza")).isEqualTo(1);
+    }
+
+    // Junit test case for change events keeping the fuzzy index current
+    @Test
+    @DisplayName("Junit test case for change events keeping the fuzzy index current")
+    public void givenBuiltIndex_whenRestaurantsChange_thenFuzzySearchReflectsChanges(){
+
+        // given
+        rebuildWith(ResponseDto.builder().id(1).name("Pizza Hut").build());
+
+        // when
+        fuzzyNameIndex.onRestaurantChanged(new RestaurantChangedEvent(ChangeType.CREATED, ResponseDto.builder().id(2).name("Pizza Palace").build()));
+        fuzzyNameIndex.onRestaurantChanged(new RestaurantChangedEvent(ChangeType.UPDATED, ResponseDto.builder().id(1).name("Burger Hut").build()));
+        fuzzyNameIndex.onRestaurantChanged(new RestaurantChangedEvent(ChangeType.DELETED, ResponseDto.builder().id(2).name("Pizza Palace").build()));
+
+        // then
+        Assertions.assertThat(fuzzyNameIndex.search("piza")).isEmpty();
+        Assertions.assertThat(fuzzyNameIndex.search("burgr hut")).containsExactly(1L);
+    }
+}
@@ -0,0 +1,120 @@
+package com.dishdash.restaurantservice.search;
+
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.enums.ChangeType;
+import com.dishdash.restaurantservice.enums.Cuisine;
+import com.dishdash.restaurantservice.event.RestaurantChangedEvent;
+import com.dishdash.restaurantservice.repository.RestaurantRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+public class GeoIndexTests {
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @InjectMocks
+    private GeoIndex geoIndex;
+
+    @BeforeEach
+    public void setup(){
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private void rebuildWith(ResponseDto... restaurants){
+        BDDMockito.given(restaurantRepository.findRestaurantsPage(ArgumentMatchers.isNull(), ArgumentMatchers.isNull(), ArgumentMatchers.isNull(),
+                        ArgumentMatchers.anyList(), ArgumentMatchers.any(), ArgumentMatchers.anyInt()))
+                .willReturn(List.of(restaurants));
+        geoIndex.rebuild();
+    }
+
+    private ResponseDto restaurant(long id, Cuisine cuisine, Double latitude, Double longitude){
+        return ResponseDto.builder().id(id).name("Restaurant " + id).cuisine(cuisine).latitude(latitude).longitude(longitude).build();
+    }
+
+    private List<Long> ids(List<GeoIndex.Hit> hits){
+        return hits.stream().map(GeoIndex.Hit::id).toList();
+    }
+
+    // Junit test case for nearby search before the index is built
+    @Test
+    @DisplayName("Junit test case for nearby search before the index is built")
+    public void givenIndexNotBuilt_whenNearby_thenReturnNull(){
+
+        // when
+        List<GeoIndex.Hit> hits = geoIndex.nearby(51.5074, -0.1278, 5, null, 10);
+
+        // then
+        Assertions.assertThat(hits).isNull();
+    }
+
+    // Junit test case for nearby search ordering by distance
+    @Test
+    @DisplayName("Junit test case for nearby search ordering by distance")
+    public void givenBuiltIndex_whenNearby_thenReturnRestaurantsWithinRadiusNearestFirst(){
+
+        // given
+        rebuildWith(
+                restaurant(1, Cuisine.INDIAN, 51.5155, -0.1410),
+                restaurant(2, Cuisine.ITALIAN, 51.5080, -0.1281),
+                restaurant(3, Cuisine.INDIAN, 51.4545, -2.5879),
+                restaurant(4, Cuisine.INDIAN, 51.5033, -0.1196),
+                restaurant(5, Cuisine.INDIAN, null, null));
+
+        // when
+        List<GeoIndex.Hit> hits = geoIndex.nearby(51.5074, -0.1278, 5, null, 10);
+        List<GeoIndex.Hit> indianHits = geoIndex.nearby(51.5074, -0.1278, 5, Cuisine.INDIAN, 1);
+
+        // then
+        Assertions.assertThat(ids(hits)).containsExactly(2L, 4L, 1L);
+        Assertions.assertThat(hits.get(0).distanceKm()).isLessThan(0.1);
+        Assertions.assertThat(ids(indianHits)).containsExactly(4L);
+    }
+
+    // Junit test case for keeping the grid current on writes
+    @Test
+    @DisplayName("Junit test case for keeping the grid current on writes")
+    public void givenBuiltIndex_whenRestaurantsMoveAndAreDeleted_thenNearbyReflectsTheChanges(){
+
+        // given
+        rebuildWith(
+                restaurant(1, Cuisine.INDIAN, 51.5155, -0.1410),
+                restaurant(2, Cuisine.ITALIAN, 51.5080, -0.1281));
+
+        // when
+        geoIndex.onRestaurantChanged(new RestaurantChangedEvent(ChangeType.UPDATED, restaurant(1, Cuisine.INDIAN, 48.8566, 2.3522)));
+        geoIndex.onRestaurantChanged(new RestaurantChangedEvent(ChangeType.DELETED, restaurant(2, Cuisine.ITALIAN, 51.5080, -0.1281)));
+        geoIndex.onRestaurantChanged(new RestaurantChangedEvent(ChangeType.CREATED, restaurant(3, Cuisine.MEXICAN, 51.5033, -0.1196)));
+
+        // then
+        Assertions.assertThat(ids(geoIndex.nearby(51.5074, -0.1278, 5, null, 10))).containsExactly(3L);
+        Assertions.assertThat(ids(geoIndex.nearby(48.8566, 2.3522, 1, null, 10))).containsExactly(1L);
+    }
+
+    // Junit test case for circles crossing the antimeridian
+    @Test
+    @DisplayName("Junit test case for circles crossing the antimeridian")
+    public void givenRestaurantsOnBothSidesOfTheAntimeridian_whenNearby_thenReturnBoth(){
+
+        // given
+        rebuildWith(
+                restaurant(1, Cuisine.INDIAN, -16.80, 179.98),
+                restaurant(2, Cuisine.INDIAN, -16.80, -179.98),
+                restaurant(3, Cuisine.INDIAN, -16.80, 178.00));
+
+        // when
+        List<GeoIndex.Hit> hits = geoIndex.nearby(-16.80, 179.99, 10, null, 10);
+
+        // then
+        Assertions.assertThat(ids(hits)).containsExactlyInAnyOrder(1L, 2L);
+    }
+}
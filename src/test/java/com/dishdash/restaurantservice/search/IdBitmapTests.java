@@ -0,0 +1,79 @@
+package com.dishdash.restaurantservice.search;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+public class IdBitmapTests {
+
+    // Junit test case for adding and removing ids across sparse and dense chunks
+    @Test
+    @DisplayName("Junit test case for adding and removing ids across sparse and dense chunks")
+    public void givenIdsCrossingTheDenseThreshold_whenAddAndRemove_thenBitmapHoldsExactlyTheRemainingIds(){
+
+        // given
+        IdBitmap bitmap = new IdBitmap();
+        TreeSet<Long> expected = new TreeSet<>();
+        for(long id = 1; id <= 10000; id += 2){
+            bitmap.add(id);
+            expected.add(id);
+        }
+        bitmap.add(70000);
+        expected.add(70000L);
+
+        // when
+        for(long id = 1; id <= 10000; id += 4){
+            bitmap.remove(id);
+            expected.remove(id);
+        }
+        bitmap.remove(70000);
+        expected.remove(70000L);
+        bitmap.remove(12345);
+
+        // then
+        Assertions.assertThat(bitmap.cardinality()).isEqualTo(expected.size());
+        Assertions.assertThat(bitmap.toList()).containsExactlyElementsOf(expected);
+        Assertions.assertThat(bitmap.contains(3)).isTrue();
+        Assertions.assertThat(bitmap.contains(5)).isFalse();
+        Assertions.assertThat(bitmap.contains(70000)).isFalse();
+    }
+
+    // Junit test case for intersections and unions
+    @Test
+    @DisplayName("Junit test case for intersections and unions")
+    public void givenRandomBitmaps_whenAndOr_thenMatchTheSetOperations(){
+
+        // given
+        Random random = new Random(42);
+        TreeSet<Long> dense = new TreeSet<>();
+        TreeSet<Long> sparse = new TreeSet<>();
+        for(int i = 0; i < 20000; i++)
+            dense.add((long) random.nextInt(150000));
+        for(int i = 0; i < 500; i++)
+            sparse.add((long) random.nextInt(150000));
+        IdBitmap denseBitmap = IdBitmap.of(dense);
+        IdBitmap sparseBitmap = IdBitmap.of(sparse);
+
+        // when
+        List<Long> and = denseBitmap.and(sparseBitmap).toList();
+        List<Long> denseAnd = denseBitmap.and(denseBitmap).toList();
+        List<Long> or = denseBitmap.or(sparseBitmap).toList();
+        List<Long> sparseOr = sparseBitmap.or(IdBitmap.of(List.of(3L, 200000L))).toList();
+
+        // then
+        Assertions.assertThat(and).containsExactlyElementsOf(dense.stream().filter(sparse::contains).collect(Collectors.toList()));
+        Assertions.assertThat(denseAnd).containsExactlyElementsOf(dense);
+        TreeSet<Long> union = new TreeSet<>(dense);
+        union.addAll(sparse);
+        Assertions.assertThat(or).containsExactlyElementsOf(union);
+        TreeSet<Long> sparseUnion = new TreeSet<>(sparse);
+        sparseUnion.addAll(List.of(3L, 200000L));
+        Assertions.assertThat(sparseOr).containsExactlyElementsOf(sparseUnion);
+        Assertions.assertThat(new IdBitmap().and(denseBitmap).isEmpty()).isTrue();
+    }
+}
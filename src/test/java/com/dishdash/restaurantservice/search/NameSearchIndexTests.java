@@ -0,0 +1,89 @@
+package com.dishdash.restaurantservice.search;
+
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.enums.ChangeType;
+import com.dishdash.restaurantservice.event.RestaurantChangedEvent;
+import com.dishdash.restaurantservice.repository.RestaurantRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+public class NameSearchIndexTests {
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @InjectMocks
+    private NameSearchIndex nameSearchIndex;
+
+    @BeforeEach
+    public void setup(){
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private void rebuildWith(ResponseDto... restaurants){
+        BDDMockito.given(restaurantRepository.findRestaurantsPage(ArgumentMatchers.isNull(), ArgumentMatchers.isNull(), ArgumentMatchers.isNull(),
+                        ArgumentMatchers.anyList(), ArgumentMatchers.any(), ArgumentMatchers.anyInt()))
+                .willReturn(List.of(restaurants));
+        nameSearchIndex.rebuild();
+    }
+
+    // Junit test case for search before the index is built
+    @Test
+    @DisplayName("Junit test case for search before the index is built")
+    public void givenIndexNotBuilt_whenSearch_thenReturnNull(){
+
+        // when
+        List<Long> ids = nameSearchIndex.search("taco");
+
+        // then
+        Assertions.assertThat(ids).isNull();
+    }
+
+    // Junit test case for case-insensitive substring search
+    @Test
+    @DisplayName("Junit test case for case-insensitive substring search")
+    public void givenBuiltIndex_whenSearch_thenReturnIdsOfNamesContainingTermIgnoringCase(){
+
+        // given
+        rebuildWith(
+                ResponseDto.builder().id(1).name("Somesh Tacos").build(),
+                ResponseDto.builder().id(2).name("Taco Bell").build(),
+                ResponseDto.builder().id(3).name("Pasta Palace").build(),
+                ResponseDto.builder().id(4).name("Cosa Tac Shack").build());
+
+        // then
+        Assertions.assertThat(nameSearchIndex.search("TACO")).containsExactly(1L, 2L);
+        Assertions.assertThat(nameSearchIndex.search("acos")).containsExactly(1L);
+        Assertions.assertThat(nameSearchIndex.search("a tac")).containsExactly(4L);
+        Assertions.assertThat(nameSearchIndex.search("ta")).containsExactly(1L, 2L, 3L, 4L);
+        Assertions.assertThat(nameSearchIndex.search("burger")).isEmpty();
+    }
+
+    // Junit test case for change events keeping the index current
+    @Test
+    @DisplayName("Junit test case for change events keeping the index current")
+    public void givenBuiltIndex_whenRestaurantsChange_thenSearchReflectsChanges(){
+
+        // given
+        rebuildWith(ResponseDto.builder().id(1).name("Somesh Tacos").build());
+
+        // when
+        nameSearchIndex.onRestaurantChanged(new RestaurantChangedEvent(ChangeType.CREATED, ResponseDto.builder().id(2).name("Taco Bell").build()));
+        nameSearchIndex.onRestaurantChanged(new RestaurantChangedEvent(ChangeType.UPDATED, ResponseDto.builder().id(1).name("Somesh Burgers").build()));
+        nameSearchIndex.onRestaurantChanged(new RestaurantChangedEvent(ChangeType.DELETED, ResponseDto.builder().id(2).name("Taco Bell").build()));
+        nameSearchIndex.onRestaurantChanged(new RestaurantChangedEvent(ChangeType.CREATED, ResponseDto.builder().id(3).name("Burger Barn").build()));
+
+        // then
+        Assertions.assertThat(nameSearchIndex.search("taco")).isEmpty();
+        Assertions.assertThat(nameSearchIndex.search("burger")).containsExactly(1L, 3L);
+    }
+}
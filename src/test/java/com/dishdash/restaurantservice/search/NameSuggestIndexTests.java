@@ -0,0 +1,89 @@
+package com.dishdash.restaurantservice.search;
+
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.dto.SuggestionDto;
+import com.dishdash.restaurantservice.enums.ChangeType;
+import com.dishdash.restaurantservice.event.RestaurantChangedEvent;
+import com.dishdash.restaurantservice.repository.RestaurantRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+public class NameSuggestIndexTests {
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @InjectMocks
+    private NameSuggestIndex nameSuggestIndex;
+
+    @BeforeEach
+    public void setup(){
+        MockitoAnnotations.openMocks(this);
+        BDDMockito.given(restaurantRepository.findRestaurantsPage(ArgumentMatchers.isNull(), ArgumentMatchers.isNull(), ArgumentMatchers.isNull(),
+                        ArgumentMatchers.anyList(), ArgumentMatchers.any(), ArgumentMatchers.anyInt()))
+                .willReturn(List.of(
+                        ResponseDto.builder().id(1).name("Taco Fiesta").rating(4.1F).build(),
+                        ResponseDto.builder().id(2).name("Taco Bell").rating(4.4F).build(),
+                        ResponseDto.builder().id(3).name("Tandoori Nights").rating(4.8F).build(),
+                        ResponseDto.builder().id(4).name("Pasta Palace").rating(4.9F).build(),
+                        ResponseDto.builder().id(5).name("Taco").rating(3.2F).build()));
+    }
+
+    // Junit test case for suggest before the index is built
+    @Test
+    @DisplayName("Junit test case for suggest before the index is built")
+    public void givenIndexNotBuilt_whenSuggest_thenReturnNull(){
+
+        // when
+        List<SuggestionDto> suggestions = nameSuggestIndex.suggest("ta", 5);
+
+        // then
+        Assertions.assertThat(suggestions).isNull();
+    }
+
+    // Junit test case for suggest ranking prefix matches by rating
+    @Test
+    @DisplayName("Junit test case for suggest ranking prefix matches by rating")
+    public void givenBuiltIndex_whenSuggest_thenReturnPrefixMatchesBestRatedFirst(){
+
+        // given
+        nameSuggestIndex.rebuild();
+
+        // then
+        Assertions.assertThat(nameSuggestIndex.suggest("TA", 10)).extracting(SuggestionDto::getId).containsExactly(3L, 2L, 1L, 5L);
+        Assertions.assertThat(nameSuggestIndex.suggest("ta", 2)).extracting(SuggestionDto::getName).containsExactly("Tandoori Nights", "Taco Bell");
+        Assertions.assertThat(nameSuggestIndex.suggest("taco b", 10)).extracting(SuggestionDto::getId).containsExactly(2L);
+        Assertions.assertThat(nameSuggestIndex.suggest("tac", 10)).extracting(SuggestionDto::getId).containsExactly(2L, 1L, 5L);
+        Assertions.assertThat(nameSuggestIndex.suggest("tax", 10)).isEmpty();
+        Assertions.assertThat(nameSuggestIndex.suggest("taco bells", 10)).isEmpty();
+    }
+
+    // Junit test case for change events keeping the suggestions current
+    @Test
+    @DisplayName("Junit test case for change events keeping the suggestions current")
+    public void givenBuiltIndex_whenRestaurantsChange_thenSuggestReflectsChanges(){
+
+        // given
+        nameSuggestIndex.rebuild();
+
+        // when
+        nameSuggestIndex.onRestaurantChanged(new RestaurantChangedEvent(ChangeType.DELETED, ResponseDto.builder().id(3).name("Tandoori Nights").build()));
+        nameSuggestIndex.onRestaurantChanged(new RestaurantChangedEvent(ChangeType.UPDATED, ResponseDto.builder().id(1).name("Taco Fiesta").rating(4.7F).build()));
+        nameSuggestIndex.onRestaurantChanged(new RestaurantChangedEvent(ChangeType.UPDATED, ResponseDto.builder().id(2).name("Burrito Bell").rating(4.4F).build()));
+        nameSuggestIndex.onRestaurantChanged(new RestaurantChangedEvent(ChangeType.CREATED, ResponseDto.builder().id(6).name("Tapas Bar").rating(4.0F).build()));
+
+        // then
+        Assertions.assertThat(nameSuggestIndex.suggest("ta", 10)).extracting(SuggestionDto::getId).containsExactly(1L, 6L, 5L);
+        Assertions.assertThat(nameSuggestIndex.suggest("bu", 10)).extracting(SuggestionDto::getId).containsExactly(2L);
+        Assertions.assertThat(nameSuggestIndex.suggest("tan", 10)).isEmpty();
+    }
+}
@@ -1,29 +1,75 @@
 package com.dishdash.restaurantservice.service;
 
+import com.dishdash.restaurantservice.cache.RestaurantQueryCache;
+import com.dishdash.restaurantservice.catalog.CatalogReadModel;
+import com.dishdash.restaurantservice.catalog.CatalogSnapshot;
+import com.dishdash.restaurantservice.dto.FacetGroupDto;
+import com.dishdash.restaurantservice.dto.PageDto;
 import com.dishdash.restaurantservice.dto.RequestDto;
 import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.dto.RestaurantFilterDto;
+import com.dishdash.restaurantservice.dto.RestaurantQueryDto;
+import com.dishdash.restaurantservice.dto.SuggestionDto;
 import com.dishdash.restaurantservice.entity.Restaurant;
+import com.dishdash.restaurantservice.enums.ChangeType;
 import com.dishdash.restaurantservice.enums.Cuisine;
 import com.dishdash.restaurantservice.enums.Currency;
+import com.dishdash.restaurantservice.enums.Facet;
+import com.dishdash.restaurantservice.enums.Sort;
+import com.dishdash.restaurantservice.event.RestaurantChangedEvent;
+import com.dishdash.restaurantservice.exception.BadRequestException;
 import com.dishdash.restaurantservice.exception.ResourceAlreadyExistsException;
 import com.dishdash.restaurantservice.exception.ResourceNotFoundException;
+import com.dishdash.restaurantservice.exception.ServiceUnavailableException;
+import com.dishdash.restaurantservice.mapper.RestaurantMapper;
+import com.dishdash.restaurantservice.pagination.Cursor;
 import com.dishdash.restaurantservice.repository.RestaurantRepository;
+import com.dishdash.restaurantservice.search.AttributeIndex;
+import com.dishdash.restaurantservice.search.FuzzyNameIndex;
+import com.dishdash.restaurantservice.search.NameSearchIndex;
+import com.dishdash.restaurantservice.search.NameSuggestIndex;
 import com.dishdash.restaurantservice.service.impl.RestaurantServiceImpl;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.modelmapper.ModelMapper;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import com.dishdash.restaurantservice.dto.BatchGetResponseDto;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.stream.LongStream;
+import com.dishdash.restaurantservice.dto.ImportResponseDto;
+import com.dishdash.restaurantservice.dto.ImportRowResultDto;
+import com.dishdash.restaurantservice.enums.ImportStatus;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.Set;
+import java.util.function.Consumer;
+import com.dishdash.restaurantservice.dto.ChangesDto;
+import com.dishdash.restaurantservice.entity.RestaurantTombstone;
+import com.dishdash.restaurantservice.repository.RestaurantTombstoneRepository;
+import com.dishdash.restaurantservice.sync.ChangeVersions;
+import com.dishdash.restaurantservice.dto.RestaurantEventDto;
+import com.dishdash.restaurantservice.dto.NearbyRestaurantDto;
+import com.dishdash.restaurantservice.search.GeoIndex;
+import com.dishdash.restaurantservice.dto.GeoPointDto;
+import com.dishdash.restaurantservice.search.DeliveryZoneIndex;
+import com.dishdash.restaurantservice.search.IdBitmap;
+import java.util.EnumSet;
 
 @SpringBootTest
 public class RestaurantServiceTests {
@@ -32,7 +78,43 @@ public class RestaurantServiceTests {
     private RestaurantRepository restaurantRepository;
 
     @Mock
-    private ModelMapper modelMapper;
+    private RestaurantMapper restaurantMapper;
+
+    @Mock
+    private NameSearchIndex nameSearchIndex;
+
+    @Mock
+    private NameSuggestIndex nameSuggestIndex;
+
+    @Mock
+    private FuzzyNameIndex fuzzyNameIndex;
+
+    @Mock
+    private GeoIndex geoIndex;
+
+    @Mock
+    private DeliveryZoneIndex deliveryZoneIndex;
+
+    @Mock
+    private AttributeIndex attributeIndex;
+
+    @Mock
+    private CatalogReadModel catalogReadModel;
+
+    @Mock
+    private RestaurantQueryCache restaurantQueryCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ChangeVersions changeVersions;
+
+    @Mock
+    private RestaurantTombstoneRepository restaurantTombstoneRepository;
 
     @InjectMocks
     private RestaurantServiceImpl restaurantService;
@@ -89,8 +171,8 @@ public class RestaurantServiceTests {
 
         //Method stubbing
         BDDMockito.given(restaurantRepository.findByWebsite(responseDto.getWebsite())).willReturn(Optional.empty());
-        BDDMockito.given(modelMapper.map(requestDto, Restaurant.class)).willReturn(restaurant);
-        BDDMockito.given(modelMapper.map(restaurant, ResponseDto.class)).willReturn(responseDto);
+        BDDMockito.given(restaurantMapper.toRestaurant(requestDto)).willReturn(restaurant);
+        BDDMockito.given(restaurantMapper.toResponseDto(restaurant)).willReturn(responseDto);
         BDDMockito.given(restaurantRepository.save(restaurant)).willReturn(restaurant);
 
         //when
@@ -99,6 +181,8 @@ public class RestaurantServiceTests {
         //then
         Assertions.assertThat(savedResponseDto).isNotNull();
         Assertions.assertThat(savedResponseDto.getWebsite()).isEqualTo(requestDto.getWebsite());
+        BDDMockito.then(eventPublisher).should().publishEvent(ArgumentMatchers.<RestaurantChangedEvent>argThat(event ->
+                event.getType() == ChangeType.CREATED && event.getRestaurant() == responseDto));
     }
 
     @Test
@@ -137,7 +221,7 @@ public class RestaurantServiceTests {
     public void givenRestaurantId_whenGetRestaurant_thenReturnResponseDto(){
         // given
         long restaurantId = 2;
-        Restaurant restaurant = Restaurant.builder()
+        ResponseDto responseDto = ResponseDto.builder()
                 .name("Somesh Tacos")
                 .cuisine(Cuisine.MEXICAN)
                 .address("234 Tostada Avenue, Taco Town")
@@ -150,15 +234,18 @@ public class RestaurantServiceTests {
                 .currencyUsed(Currency.GBP)
                 .build();
 
+        Restaurant restaurant = Restaurant.builder().id(restaurantId).website("http://www.tacofiesta.com").build();
+
         // method stubbing
         BDDMockito.given(restaurantRepository.findById(restaurantId)).willReturn(Optional.of(restaurant));
-        BDDMockito.given(modelMapper.map(restaurant, ResponseDto.class)).willReturn(new ResponseDto());
+        BDDMockito.given(restaurantMapper.toResponseDto(restaurant)).willReturn(responseDto);
 
         // when
-        ResponseDto responseDto = restaurantService.getRestaurant(restaurantId);
+        ResponseDto retrievedResponseDto = restaurantService.getRestaurant(restaurantId);
 
         // then
-        Assertions.assertThat(responseDto).isNotNull();
+        Assertions.assertThat(retrievedResponseDto).isNotNull();
+        Assertions.assertThat(retrievedResponseDto.getWebsite()).isEqualTo(responseDto.getWebsite());
 
     }
 
@@ -202,13 +289,16 @@ public class RestaurantServiceTests {
 
         //method stubbing
         BDDMockito.given(restaurantRepository.findById(restaurantId)).willReturn(Optional.of(restaurant));
-        BDDMockito.given(modelMapper.map(restaurant, ResponseDto.class)).willReturn(ResponseDto.builder().build());
+        BDDMockito.given(restaurantMapper.toResponseDto(restaurant)).willReturn(ResponseDto.builder().build());
+        BDDMockito.given(changeVersions.next(1)).willReturn(12L);
+        BDDMockito.given(restaurantTombstoneRepository.save(ArgumentMatchers.any(RestaurantTombstone.class))).willAnswer(invocation -> invocation.getArgument(0));
 
         //when
         ResponseDto deletedRestaurant = restaurantService.deleteRestaurant(restaurantId);
 
         //then
         Assertions.assertThat(deletedRestaurant).isNotNull();
+        Assertions.assertThat(deletedRestaurant.getChangeVersion()).isEqualTo(12L);
     }
 
     //Junit test case for delete operation which throws exception
@@ -264,7 +354,7 @@ public class RestaurantServiceTests {
         //method stubbing
         BDDMockito.given(restaurantRepository.findById(restaurantId)).willReturn(Optional.of(restaurant));
         BDDMockito.given(restaurantRepository.save(restaurant)).willReturn(restaurant);
-        BDDMockito.given(modelMapper.map(restaurant, ResponseDto.class)).willReturn(ResponseDto.builder().build());
+        BDDMockito.given(restaurantMapper.toResponseDto(restaurant)).willReturn(ResponseDto.builder().build());
 
         //when
         ResponseDto responseDto = restaurantService.updateRestaurant(restaurantId, RequestDto.builder().build());
@@ -313,13 +403,13 @@ public class RestaurantServiceTests {
         String sortBy = null;
         String search = null;
 
-        List<Restaurant> mockRestaurantList = Collections.singletonList(new Restaurant());
+        List<ResponseDto> mockRestaurantList = Collections.singletonList(new ResponseDto());
 
         // method stubbing
-        BDDMockito.given(restaurantRepository.findRestaurants(null, search)).willReturn(mockRestaurantList);
+        BDDMockito.given(restaurantRepository.findRestaurantsPage(null, search, null, Collections.emptyList(), null, 21)).willReturn(mockRestaurantList);
 
         // when
-        List<ResponseDto> restaurantList = restaurantService.getAllRestaurants(cuisine, sortBy, search);
+        List<ResponseDto> restaurantList = restaurantService.getAllRestaurants(RestaurantQueryDto.builder().cuisine(cuisine).sortBy(sortBy).search(search).build()).getContent();
 
         // then
         Assertions.assertThat(restaurantList).isNotNull();
@@ -335,7 +425,7 @@ public class RestaurantServiceTests {
         String sortBy = null;
         String search = null;
 
-        Restaurant restaurant1 = Restaurant.builder()
+        ResponseDto restaurant1 = ResponseDto.builder()
                 .name("Somesh Tacos")
                 .cuisine(Cuisine.MEXICAN)
                 .address("234 Tostada Avenue, Taco Town")
@@ -348,7 +438,7 @@ public class RestaurantServiceTests {
                 .currencyUsed(Currency.GBP)
                 .build();
 
-        Restaurant restaurant2 = Restaurant.builder()
+        ResponseDto restaurant2 = ResponseDto.builder()
                 .name("Taco Bell")
                 .cuisine(Cuisine.MEXICAN)
                 .address("123 Burrito Street, Mexicoville")
@@ -361,7 +451,7 @@ public class RestaurantServiceTests {
                 .currencyUsed(Currency.GBP)
                 .build();
 
-        Restaurant restaurant3 = Restaurant.builder()
+        ResponseDto restaurant3 = ResponseDto.builder()
                 .name("El Charro")
                 .cuisine(Cuisine.MEXICAN)
                 .address("456 Enchilada Lane, Salsatown")
@@ -374,7 +464,7 @@ public class RestaurantServiceTests {
                 .currencyUsed(Currency.GBP)
                 .build();
 
-        Restaurant restaurant4 = Restaurant.builder()
+        ResponseDto restaurant4 = ResponseDto.builder()
                 .name("Senor Taco")
                 .cuisine(Cuisine.MEXICAN)
                 .address("789 Guacamole Avenue, Toppingsville")
@@ -387,7 +477,7 @@ public class RestaurantServiceTests {
                 .currencyUsed(Currency.GBP)
                 .build();
 
-        Restaurant restaurant5 = Restaurant.builder()
+        ResponseDto restaurant5 = ResponseDto.builder()
                 .name("Mexican Fiesta")
                 .cuisine(Cuisine.MEXICAN)
                 .address("567 Nacho Street, Salsaville")
@@ -401,7 +491,7 @@ public class RestaurantServiceTests {
                 .build();
 
 
-        List<Restaurant> mockedRestaurantList = Arrays.asList(
+        List<ResponseDto> mockedRestaurantList = Arrays.asList(
                 restaurant1,
                 restaurant2,
                 restaurant3,
@@ -410,14 +500,14 @@ public class RestaurantServiceTests {
         );
 
         // method stubbing
-        BDDMockito.given(restaurantRepository.findRestaurants(Cuisine.valueOf(cuisine), sortBy)).willReturn(mockedRestaurantList);
+        BDDMockito.given(restaurantRepository.findRestaurantsPage(RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.valueOf(cuisine))).build(), search, null, Collections.emptyList(), null, 21)).willReturn(mockedRestaurantList);
 
         // when
-        List<ResponseDto> restaurantList = restaurantService.getAllRestaurants(cuisine, sortBy, search);
+        List<ResponseDto> restaurantList = restaurantService.getAllRestaurants(RestaurantQueryDto.builder().cuisine(cuisine).sortBy(sortBy).search(search).build()).getContent();
 
         // then
         Assertions.assertThat(restaurantList).isNotNull();
-        for(Restaurant restaurant : mockedRestaurantList){
+        for(ResponseDto restaurant : mockedRestaurantList){
             Assertions.assertThat(restaurant.getCuisine().toString()).isEqualTo(cuisine);
         }
     }
@@ -430,7 +520,7 @@ public class RestaurantServiceTests {
         String sortBy = null;
         String search = "tacos";
 
-        Restaurant restaurant1 = Restaurant.builder()
+        ResponseDto restaurant1 = ResponseDto.builder()
                 .name("Somesh Tacos")
                 .cuisine(Cuisine.MEXICAN)
                 .address("234 Tostada Avenue, Taco Town")
@@ -443,7 +533,7 @@ public class RestaurantServiceTests {
                 .currencyUsed(Currency.GBP)
                 .build();
 
-        Restaurant restaurant2 = Restaurant.builder()
+        ResponseDto restaurant2 = ResponseDto.builder()
                 .name("Tacos Bell")
                 .cuisine(Cuisine.MEXICAN)
                 .address("123 Burrito Street, Mexicoville")
@@ -456,7 +546,7 @@ public class RestaurantServiceTests {
                 .currencyUsed(Currency.GBP)
                 .build();
 
-        Restaurant restaurant3 = Restaurant.builder()
+        ResponseDto restaurant3 = ResponseDto.builder()
                 .name("El Charro tacos")
                 .cuisine(Cuisine.MEXICAN)
                 .address("456 Enchilada Lane, Salsatown")
@@ -469,7 +559,7 @@ public class RestaurantServiceTests {
                 .currencyUsed(Currency.GBP)
                 .build();
 
-        Restaurant restaurant4 = Restaurant.builder()
+        ResponseDto restaurant4 = ResponseDto.builder()
                 .name("Senor Tacos")
                 .cuisine(Cuisine.MEXICAN)
                 .address("789 Guacamole Avenue, Toppingsville")
@@ -482,7 +572,7 @@ public class RestaurantServiceTests {
                 .currencyUsed(Currency.GBP)
                 .build();
 
-        Restaurant restaurant5 = Restaurant.builder()
+        ResponseDto restaurant5 = ResponseDto.builder()
                 .name("Mexican Fiesta tacos")
                 .cuisine(Cuisine.MEXICAN)
                 .address("567 Nacho Street, Salsaville")
@@ -496,7 +586,7 @@ public class RestaurantServiceTests {
                 .build();
 
 
-        List<Restaurant> mockedRestaurantList = Arrays.asList(
+        List<ResponseDto> mockedRestaurantList = Arrays.asList(
                 restaurant1,
                 restaurant2,
                 restaurant3,
@@ -505,16 +595,728 @@ public class RestaurantServiceTests {
         );
 
         // method stubbing
-        BDDMockito.given(restaurantRepository.findRestaurants(Cuisine.valueOf(cuisine), sortBy)).willReturn(mockedRestaurantList);
+        BDDMockito.given(nameSearchIndex.search(search)).willReturn(null);
+        BDDMockito.given(restaurantRepository.findRestaurantsPage(RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.valueOf(cuisine))).build(), search, null, Collections.emptyList(), null, 21)).willReturn(mockedRestaurantList);
 
         // when
-        List<ResponseDto> restaurantList = restaurantService.getAllRestaurants(cuisine, sortBy, search);
+        List<ResponseDto> restaurantList = restaurantService.getAllRestaurants(RestaurantQueryDto.builder().cuisine(cuisine).sortBy(sortBy).search(search).build()).getContent();
 
         // then
         Assertions.assertThat(restaurantList).isNotNull();
-        for(Restaurant restaurant : mockedRestaurantList){
+        for(ResponseDto restaurant : mockedRestaurantList){
             Assertions.assertThat(restaurant.getCuisine().toString()).isEqualTo(cuisine);
             Assertions.assertThat(restaurant.getName()).containsIgnoringCase(search);
         }
     }
+
+    // Junit test case for getAllRestaurants operation which returns a next cursor when more rows exist
+    @Test
+    @DisplayName("junit test case for getAllRestaurants operation which returns a next cursor when more rows exist")
+    public void givenMoreRowsThanLimit_whenGetAllRestaurants_thenReturnPageWithNextCursor(){
+
+        // given
+        ResponseDto restaurant1 = ResponseDto.builder().id(1).name("Somesh Tacos").rating(4.6F).build();
+        ResponseDto restaurant2 = ResponseDto.builder().id(2).name("Taco Bell").rating(4.4F).build();
+        ResponseDto restaurant3 = ResponseDto.builder().id(3).name("El Charro").rating(4.2F).build();
+
+        // method stubbing
+        BDDMockito.given(restaurantRepository.findRestaurantsPage(null, null, null, List.of(Sort.RATING), null, 3))
+                .willReturn(Arrays.asList(restaurant1, restaurant2, restaurant3));
+
+        // when
+        PageDto<ResponseDto> page = restaurantService.getAllRestaurants(RestaurantQueryDto.builder().sortBy("RATING").limit(2).build());
+
+        // then
+        Assertions.assertThat(page.getContent()).hasSize(2);
+        Assertions.assertThat(page.getNext()).isNotNull();
+        Cursor cursor = Cursor.decode(page.getNext());
+        Assertions.assertThat(cursor.getSorts()).containsExactly(Sort.RATING);
+        Assertions.assertThat(cursor.getLastId()).isEqualTo(2);
+        Assertions.assertThat(cursor.getKeys()).containsExactly("4.4");
+    }
+
+    // Junit test case for getAllRestaurants operation with an out of range limit
+    @Test
+    @DisplayName("junit test case for getAllRestaurants operation with an out of range limit")
+    public void givenInvalidLimit_whenGetAllRestaurants_thenThrowsBadRequestException(){
+
+        // when
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> restaurantService.getAllRestaurants(RestaurantQueryDto.builder().limit(0).build()));
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> restaurantService.getAllRestaurants(RestaurantQueryDto.builder().limit(1000).build()));
+    }
+
+    // Junit test case for getAllRestaurants operation with a cursor issued for another sort
+    @Test
+    @DisplayName("junit test case for getAllRestaurants operation with a cursor issued for another sort")
+    public void givenCursorForOtherSort_whenGetAllRestaurants_thenThrowsBadRequestException(){
+
+        // given
+        String next = new Cursor(List.of(Sort.NAME), List.of("Taco Bell"), 2).encode();
+
+        // when
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> restaurantService.getAllRestaurants(RestaurantQueryDto.builder().sortBy("RATING").next(next).build()));
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> restaurantService.getAllRestaurants(RestaurantQueryDto.builder().sortBy("RATING").next("not-a-cursor").build()));
+    }
+
+    // Junit test case for getAllRestaurants operation with several sort keys
+    @Test
+    @DisplayName("junit test case for getAllRestaurants operation with several sort keys")
+    public void givenSeveralSortKeys_whenGetAllRestaurants_thenPassSortKeysInOrderToRepository(){
+
+        // given
+        ResponseDto restaurant = ResponseDto.builder().id(1).name("Somesh Tacos").rating(4.6F).deliveryFee(7).build();
+
+        // method stubbing
+        BDDMockito.given(restaurantRepository.findRestaurantsPage(null, null, null, List.of(Sort.RATING, Sort.DELIVERY_FEE), null, 21))
+                .willReturn(List.of(restaurant));
+
+        // when
+        PageDto<ResponseDto> page = restaurantService.getAllRestaurants(RestaurantQueryDto.builder().sortBy("RATING,DELIVERY_FEE").build());
+
+        // then
+        Assertions.assertThat(page.getContent()).hasSize(1);
+        Assertions.assertThat(page.getNext()).isNull();
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> restaurantService.getAllRestaurants(RestaurantQueryDto.builder().sortBy("RATING,RATING").build()));
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> restaurantService.getAllRestaurants(RestaurantQueryDto.builder().sortBy("RATING,UNKNOWN").build()));
+    }
+
+    // Junit test case for getAllRestaurants operation answering the search from the name index
+    @Test
+    @DisplayName("junit test case for getAllRestaurants operation answering the search from the name index")
+    public void givenBuiltNameIndex_whenGetAllRestaurantsWithSearch_thenQueryRepositoryByCandidateIds(){
+
+        // given
+        ResponseDto restaurant = ResponseDto.builder().id(3).name("El Charro tacos").build();
+
+        // method stubbing
+        BDDMockito.given(nameSearchIndex.search("tacos")).willReturn(List.of(1L, 3L));
+        BDDMockito.given(restaurantRepository.findRestaurantsPage(null, null, List.of(1L, 3L), Collections.emptyList(), null, 21))
+                .willReturn(List.of(restaurant));
+
+        // when
+        PageDto<ResponseDto> page = restaurantService.getAllRestaurants(RestaurantQueryDto.builder().search(" tacos ").build());
+
+        // then
+        Assertions.assertThat(page.getContent()).extracting(ResponseDto::getName).containsExactly("El Charro tacos");
+    }
+
+    // Junit test case for getAllRestaurants operation answered from the query cache
+    @Test
+    @DisplayName("junit test case for getAllRestaurants operation answered from the query cache")
+    public void givenCachedPage_whenGetAllRestaurants_thenReturnCachedPageWithoutQuery(){
+
+        // given
+        PageDto<ResponseDto> cachedPage = new PageDto<>(List.of(ResponseDto.builder().id(1).name("Somesh Tacos").build()), null);
+
+        // method stubbing
+        BDDMockito.given(restaurantQueryCache.get(RestaurantQueryCache.QueryKey.of(RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.MEXICAN)).build(), List.of(Sort.RATING), null, false, null, Set.of(), 20, null)))
+                .willReturn(cachedPage);
+
+        // when
+        PageDto<ResponseDto> page = restaurantService.getAllRestaurants(RestaurantQueryDto.builder().cuisine("MEXICAN").sortBy("RATING").build());
+
+        // then
+        Assertions.assertThat(page).isSameAs(cachedPage);
+        BDDMockito.then(restaurantRepository).shouldHaveNoInteractions();
+    }
+
+    // Junit test case for getAllRestaurants operation storing computed pages in the query cache
+    @Test
+    @DisplayName("junit test case for getAllRestaurants operation storing computed pages in the query cache")
+    public void givenUncachedQuery_whenGetAllRestaurants_thenPutPageWithGenerationReadBeforeQuery(){
+
+        // method stubbing
+        BDDMockito.given(restaurantQueryCache.generation(Cuisine.MEXICAN)).willReturn(7L);
+        BDDMockito.given(restaurantRepository.findRestaurantsPage(RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.MEXICAN)).build(), null, null, List.of(Sort.RATING), null, 21))
+                .willReturn(List.of(ResponseDto.builder().id(1).name("Somesh Tacos").build()));
+
+        // when
+        PageDto<ResponseDto> page = restaurantService.getAllRestaurants(RestaurantQueryDto.builder().cuisine("MEXICAN").sortBy("RATING").build());
+
+        // then
+        BDDMockito.then(restaurantQueryCache).should()
+                .put(RestaurantQueryCache.QueryKey.of(RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.MEXICAN)).build(), List.of(Sort.RATING), null, false, null, Set.of(), 20, null), page, 7L);
+    }
+
+    // Junit test case for reads served from the catalog read model
+    @Test
+    @DisplayName("junit test case for reads served from the catalog read model")
+    public void givenLoadedReadModel_whenGetRestaurantAndGetAllRestaurants_thenRepositoryIsNotQueried(){
+
+        // given
+        CatalogSnapshot snapshot = CatalogSnapshot.of(1, List.of(
+                ResponseDto.builder().id(1).name("Somesh Tacos").rating(4.2f).build(),
+                ResponseDto.builder().id(2).name("Curry House").rating(4.9f).build()));
+
+        // method stubbing
+        BDDMockito.given(catalogReadModel.snapshot()).willReturn(snapshot);
+
+        // when
+        ResponseDto restaurant = restaurantService.getRestaurant(1);
+        PageDto<ResponseDto> page = restaurantService.getAllRestaurants(RestaurantQueryDto.builder().sortBy("RATING").limit(1).build());
+
+        // then
+        Assertions.assertThat(restaurant.getName()).isEqualTo("Somesh Tacos");
+        Assertions.assertThat(page.getContent()).extracting(ResponseDto::getName).containsExactly("Curry House");
+        Assertions.assertThat(page.getNext()).isNotNull();
+        BDDMockito.then(restaurantRepository).shouldHaveNoInteractions();
+    }
+
+    // Junit test case for getAllRestaurants operation with a fuzzy search
+    @Test
+    @DisplayName("junit test case for getAllRestaurants operation with a fuzzy search")
+    public void givenFuzzySearch_whenGetAllRestaurants_thenQueryRepositoryByFuzzyCandidateIds(){
+
+        // given
+        ResponseDto restaurant = ResponseDto.builder().id(7).name("Pizza Hut").build();
+
+        // method stubbing
+        BDDMockito.given(fuzzyNameIndex.search("piza hut")).willReturn(List.of(7L));
+        BDDMockito.given(restaurantRepository.findRestaurantsPage(null, null, List.of(7L), Collections.emptyList(), null, 21))
+                .willReturn(List.of(restaurant));
+
+        // when
+        PageDto<ResponseDto> page = restaurantService.getAllRestaurants(RestaurantQueryDto.builder().search("piza hut").fuzzy(true).build());
+
+        // then
+        Assertions.assertThat(page.getContent()).extracting(ResponseDto::getName).containsExactly("Pizza Hut");
+        BDDMockito.then(nameSearchIndex).shouldHaveNoInteractions();
+    }
+
+    // Junit test case for getAllRestaurants operation with more fuzzy matches than fit an IN list
+    @Test
+    @DisplayName("junit test case for getAllRestaurants operation with more fuzzy matches than fit an IN list")
+    public void givenMoreFuzzyMatchesThanMaxCandidates_whenGetAllRestaurants_thenFilterScannedRowsByFuzzyMatches(){
+
+        // given
+        ReflectionTestUtils.setField(restaurantService, "maxSearchCandidates", 2);
+        ReflectionTestUtils.setField(restaurantService, "maxScannedRows", 4);
+
+        // method stubbing
+        BDDMockito.given(fuzzyNameIndex.search("piza")).willReturn(List.of(1L, 3L, 6L));
+        BDDMockito.given(restaurantRepository.findRestaurantsPage(ArgumentMatchers.isNull(), ArgumentMatchers.isNull(), ArgumentMatchers.isNull(),
+                        ArgumentMatchers.anyList(), ArgumentMatchers.isNull(), ArgumentMatchers.eq(2)))
+                .willReturn(List.of(ResponseDto.builder().id(1).name("Pizza Hut").build(), ResponseDto.builder().id(2).name("Curry House").build()));
+        BDDMockito.given(restaurantRepository.findRestaurantsPage(ArgumentMatchers.isNull(), ArgumentMatchers.isNull(), ArgumentMatchers.isNull(),
+                        ArgumentMatchers.anyList(), ArgumentMatchers.notNull(), ArgumentMatchers.eq(2)))
+                .willReturn(List.of(ResponseDto.builder().id(3).name("Pizza Express").build(), ResponseDto.builder().id(4).name("Thai Garden").build()));
+
+        // when
+        PageDto<ResponseDto> page = restaurantService.getAllRestaurants(RestaurantQueryDto.builder().search("piza").fuzzy(true).limit(2).build());
+
+        // then
+        Assertions.assertThat(page.getContent()).extracting(ResponseDto::getName).containsExactly("Pizza Hut", "Pizza Express");
+        Assertions.assertThat(Cursor.decode(page.getNext()).getLastId()).isEqualTo(4L);
+        BDDMockito.then(nameSearchIndex).shouldHaveNoInteractions();
+    }
+
+    // Junit test case for getAllRestaurants operation when the name index has no match
+    @Test
+    @DisplayName("junit test case for getAllRestaurants operation when the name index has no match")
+    public void givenNoIndexMatch_whenGetAllRestaurantsWithSearch_thenReturnEmptyPageWithoutQuery(){
+
+        // method stubbing
+        BDDMockito.given(nameSearchIndex.search("burger")).willReturn(Collections.emptyList());
+
+        // when
+        PageDto<ResponseDto> page = restaurantService.getAllRestaurants(RestaurantQueryDto.builder().search("burger").build());
+
+        // then
+        Assertions.assertThat(page.getContent()).isEmpty();
+        Assertions.assertThat(page.getNext()).isNull();
+        BDDMockito.then(restaurantRepository).shouldHaveNoInteractions();
+    }
+
+    // Junit test case for suggestRestaurants operation served from the prefix index
+    @Test
+    @DisplayName("junit test case for suggestRestaurants operation served from the prefix index")
+    public void givenBuiltSuggestIndex_whenSuggestRestaurants_thenReturnIndexSuggestions(){
+
+        // method stubbing
+        BDDMockito.given(nameSuggestIndex.suggest("ta", 5)).willReturn(List.of(new SuggestionDto(3, "Tandoori Nights")));
+
+        // when
+        List<SuggestionDto> suggestions = restaurantService.suggestRestaurants("ta", null);
+
+        // then
+        Assertions.assertThat(suggestions).extracting(SuggestionDto::getName).containsExactly("Tandoori Nights");
+        BDDMockito.then(restaurantRepository).shouldHaveNoInteractions();
+    }
+
+    // Junit test case for suggestRestaurants operation before the prefix index is built
+    @Test
+    @DisplayName("junit test case for suggestRestaurants operation before the prefix index is built")
+    public void givenSuggestIndexNotBuilt_whenSuggestRestaurants_thenQueryRepository(){
+
+        // method stubbing
+        BDDMockito.given(nameSuggestIndex.suggest("ta", 3)).willReturn(null);
+        BDDMockito.given(restaurantRepository.findSuggestions("ta", PageRequest.of(0, 3))).willReturn(List.of(new SuggestionDto(2, "Taco Bell")));
+
+        // when
+        List<SuggestionDto> suggestions = restaurantService.suggestRestaurants("ta", 3);
+
+        // then
+        Assertions.assertThat(suggestions).extracting(SuggestionDto::getName).containsExactly("Taco Bell");
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> restaurantService.suggestRestaurants(" ", null));
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> restaurantService.suggestRestaurants("ta", 50));
+    }
+
+    // Junit test case for streamRestaurants operation
+    @Test
+    @DisplayName("junit test case for streamRestaurants operation")
+    public void givenValidQuery_whenStreamRestaurants_thenHandRepositoryStreamToConsumerAndCloseIt(){
+
+        // given
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<ResponseDto> restaurants = Stream.of(ResponseDto.builder().id(1).name("Somesh Tacos").build()).onClose(() -> closed.set(true));
+        List<ResponseDto> consumed = new ArrayList<>();
+
+        // method stubbing
+        BDDMockito.given(restaurantRepository.streamRestaurants(RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.MEXICAN)).build(), null, null, List.of(Sort.RATING), null, 500))
+                .willReturn(restaurants);
+
+        // when
+        restaurantService.streamRestaurants("MEXICAN", "RATING", null, false, stream -> stream.forEach(consumed::add));
+
+        // then
+        Assertions.assertThat(consumed).extracting(ResponseDto::getName).containsExactly("Somesh Tacos");
+        Assertions.assertThat(closed).isTrue();
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> restaurantService.streamRestaurants("randomString", null, null, false, stream -> consumed.clear()));
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> restaurantService.streamRestaurants(null, "UNKNOWN", null, false, stream -> consumed.clear()));
+        Assertions.assertThat(consumed).hasSize(1);
+    }
+
+    // Junit test case for getRestaurants operation
+    @Test
+    @DisplayName("junit test case for getRestaurants operation")
+    public void givenIds_whenGetRestaurants_thenReturnRestaurantsInRequestOrderAndReportMissingIds(){
+
+        // given
+        ReflectionTestUtils.setField(restaurantService, "batchGetChunkSize", 2);
+        ResponseDto first = ResponseDto.builder().id(1).name("Somesh Tacos").build();
+        ResponseDto third = ResponseDto.builder().id(3).name("Curry House").build();
+        ResponseDto fourth = ResponseDto.builder().id(4).name("Tandoori Nights").build();
+
+        // method stubbing
+        BDDMockito.given(restaurantRepository.findResponseDtosByIdIn(List.of(4L, 2L))).willReturn(List.of(fourth));
+        BDDMockito.given(restaurantRepository.findResponseDtosByIdIn(List.of(3L, 1L))).willReturn(List.of(first, third));
+
+        // when
+        BatchGetResponseDto batchGetResponseDto = restaurantService.getRestaurants(List.of(4L, 2L, 3L, 4L, 1L));
+
+        // then
+        Assertions.assertThat(batchGetResponseDto.getContent()).extracting(ResponseDto::getName)
+                .containsExactly("Tandoori Nights", "Curry House", "Somesh Tacos");
+        Assertions.assertThat(batchGetResponseDto.getMissing()).containsExactly(2L);
+        BDDMockito.then(restaurantRepository).should(org.mockito.Mockito.times(2)).findResponseDtosByIdIn(ArgumentMatchers.anyCollection());
+        BDDMockito.then(restaurantRepository).should(org.mockito.Mockito.never()).findById(ArgumentMatchers.anyLong());
+    }
+
+    // Junit test case for getRestaurants operation with too many or no ids
+    @Test
+    @DisplayName("junit test case for getRestaurants operation with too many or no ids")
+    public void givenTooManyOrNoIds_whenGetRestaurants_thenThrowsBadRequestException(){
+
+        // given
+        List<Long> ids = LongStream.rangeClosed(1, 101).boxed().toList();
+
+        // when
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> restaurantService.getRestaurants(ids));
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> restaurantService.getRestaurants(Collections.emptyList()));
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> restaurantService.getRestaurants(null));
+
+        // then
+        BDDMockito.then(restaurantRepository).shouldHaveNoInteractions();
+    }
+
+    // Junit test case for importRestaurants operation
+    @Test
+    @DisplayName("junit test case for importRestaurants operation")
+    public void givenRows_whenImportRestaurants_thenImportNewRowsPerChunkAndReportEveryRow(){
+
+        // given
+        ReflectionTestUtils.setField(restaurantService, "importChunkSize", 2);
+        List<RequestDto> rows = Arrays.asList(
+                RequestDto.builder().name("Somesh Tacos").website("tacos.com").build(),
+                RequestDto.builder().name("Curry House").website("curry.com").build(),
+                RequestDto.builder().name("Curry House again").website("curry.com").build(),
+                RequestDto.builder().website("nameless.com").build(),
+                RequestDto.builder().name("Tandoori Nights").build());
+
+        // method stubbing
+        BDDMockito.willAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).given(transactionTemplate).executeWithoutResult(ArgumentMatchers.any());
+        BDDMockito.given(restaurantRepository.findExistingWebsites(ArgumentMatchers.anyCollection())).willReturn(Set.of("tacos.com"));
+        BDDMockito.given(restaurantMapper.toRestaurant(ArgumentMatchers.any(RequestDto.class)))
+                .willAnswer(invocation -> Restaurant.builder().name(invocation.<RequestDto>getArgument(0).getName()).build());
+        BDDMockito.given(restaurantRepository.saveAll(ArgumentMatchers.<List<Restaurant>>any())).willAnswer(invocation -> {
+            List<Restaurant> restaurants = invocation.getArgument(0);
+            restaurants.forEach(restaurant -> restaurant.setId(restaurant.getName().length()));
+            return restaurants;
+        });
+        BDDMockito.given(restaurantMapper.toResponseDto(ArgumentMatchers.any(Restaurant.class)))
+                .willAnswer(invocation -> ResponseDto.builder().id(invocation.<Restaurant>getArgument(0).getId()).build());
+
+        // when
+        ImportResponseDto importResponseDto = restaurantService.importRestaurants(rows.iterator());
+
+        // then
+        Assertions.assertThat(importResponseDto.getResults()).extracting(ImportRowResultDto::getStatus).containsExactly(
+                ImportStatus.DUPLICATE, ImportStatus.CREATED, ImportStatus.DUPLICATE, ImportStatus.INVALID, ImportStatus.CREATED);
+        Assertions.assertThat(importResponseDto.getResults()).extracting(ImportRowResultDto::getRow).containsExactly(1, 2, 3, 4, 5);
+        Assertions.assertThat(importResponseDto.getResults().get(1).getId()).isEqualTo(11L);
+        Assertions.assertThat(importResponseDto.getCreated()).isEqualTo(2);
+        Assertions.assertThat(importResponseDto.getDuplicates()).isEqualTo(2);
+        Assertions.assertThat(importResponseDto.getInvalid()).isEqualTo(1);
+        BDDMockito.then(transactionTemplate).should(org.mockito.Mockito.times(3)).executeWithoutResult(ArgumentMatchers.any());
+        BDDMockito.then(restaurantRepository).should(org.mockito.Mockito.never()).findByWebsite(ArgumentMatchers.anyString());
+        BDDMockito.then(eventPublisher).should(org.mockito.Mockito.times(2)).publishEvent(ArgumentMatchers.any(RestaurantChangedEvent.class));
+    }
+
+    // Junit test case for exportRestaurants operation resuming after a watermark
+    @Test
+    @DisplayName("junit test case for exportRestaurants operation resuming after a watermark")
+    public void givenAfterId_whenExportRestaurants_thenStreamRowsAfterTheWatermarkInIdOrder(){
+
+        // given
+        List<ResponseDto> exported = new ArrayList<>();
+
+        // method stubbing
+        BDDMockito.given(restaurantRepository.streamRestaurants(ArgumentMatchers.isNull(), ArgumentMatchers.isNull(), ArgumentMatchers.isNull(),
+                        ArgumentMatchers.eq(Collections.emptyList()), ArgumentMatchers.argThat(after -> after.getLastId() == 42 && after.getSorts().isEmpty()), ArgumentMatchers.eq(1000)))
+                .willReturn(Stream.of(ResponseDto.builder().id(43).name("Somesh Tacos").build()));
+
+        // when
+        restaurantService.exportRestaurants(42L, stream -> stream.forEach(exported::add));
+
+        // then
+        Assertions.assertThat(exported).extracting(ResponseDto::getId).containsExactly(43L);
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> restaurantService.exportRestaurants(-1L, stream -> {}));
+    }
+
+    // Junit test case for getChanges operation
+    @Test
+    @DisplayName("junit test case for getChanges operation")
+    public void givenWritesAndDeletesAfterWatermark_whenGetChanges_thenMergeThemByVersionUpToLimit(){
+
+        // given
+        ResponseDto fifth = ResponseDto.builder().id(1).name("Somesh Tacos").changeVersion(5).build();
+        ResponseDto eighth = ResponseDto.builder().id(2).name("Curry House").changeVersion(8).build();
+
+        // method stubbing
+        BDDMockito.given(changeVersions.current()).willReturn(9L);
+        BDDMockito.given(restaurantRepository.findChanged(4L, 9L, PageRequest.of(0, 2))).willReturn(List.of(fifth, eighth));
+        BDDMockito.given(restaurantTombstoneRepository.findTombstones(4L, 9L, PageRequest.of(0, 2))).willReturn(List.of(new RestaurantTombstone(3, 6)));
+
+        // when
+        ChangesDto changesDto = restaurantService.getChanges(4L, 2);
+
+        // then
+        Assertions.assertThat(changesDto.getChanged()).extracting(ResponseDto::getName).containsExactly("Somesh Tacos");
+        Assertions.assertThat(changesDto.getDeleted()).containsExactly(3L);
+        Assertions.assertThat(changesDto.getNext()).isEqualTo(6L);
+        Assertions.assertThat(changesDto.isHasMore()).isTrue();
+    }
+
+    // Junit test case for getChanges operation with nothing left to read
+    @Test
+    @DisplayName("junit test case for getChanges operation with nothing left to read")
+    public void givenNoChangesAfterWatermark_whenGetChanges_thenAdvanceWatermarkToLastCommittedVersion(){
+
+        // method stubbing
+        BDDMockito.given(changeVersions.current()).willReturn(12L);
+        BDDMockito.given(restaurantRepository.findChanged(ArgumentMatchers.eq(9L), ArgumentMatchers.eq(12L), ArgumentMatchers.any())).willReturn(List.of());
+        BDDMockito.given(restaurantTombstoneRepository.findTombstones(ArgumentMatchers.eq(9L), ArgumentMatchers.eq(12L), ArgumentMatchers.any())).willReturn(List.of());
+
+        // when
+        ChangesDto changesDto = restaurantService.getChanges(9L, null);
+
+        // then
+        Assertions.assertThat(changesDto.getChanged()).isEmpty();
+        Assertions.assertThat(changesDto.getNext()).isEqualTo(12L);
+        Assertions.assertThat(changesDto.isHasMore()).isFalse();
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> restaurantService.getChanges(-1L, null));
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> restaurantService.getChanges(0L, 1001));
+    }
+
+    // Junit test case for getChangeEvents operation
+    @Test
+    @DisplayName("junit test case for getChangeEvents operation")
+    public void givenNewUpdatedAndDeletedRestaurants_whenGetChangeEvents_thenReturnTypedEventsInVersionOrder(){
+
+        // method stubbing
+        BDDMockito.given(changeVersions.current()).willReturn(9L);
+        BDDMockito.given(restaurantRepository.findChanged(0L, 9L, PageRequest.of(0, 10))).willReturn(List.of(
+                ResponseDto.builder().id(1).version(0).changeVersion(2).build(),
+                ResponseDto.builder().id(2).version(3).changeVersion(7).build()));
+        BDDMockito.given(restaurantTombstoneRepository.findTombstones(0L, 9L, PageRequest.of(0, 10))).willReturn(List.of(new RestaurantTombstone(4, 5)));
+
+        // when
+        List<RestaurantEventDto> events = restaurantService.getChangeEvents(0L, 10);
+
+        // then
+        Assertions.assertThat(events).extracting(RestaurantEventDto::getType).containsExactly(ChangeType.CREATED, ChangeType.DELETED, ChangeType.UPDATED);
+        Assertions.assertThat(events).extracting(RestaurantEventDto::getId).containsExactly(1L, 4L, 2L);
+    }
+
+    // Junit test case for nearby restaurants served from the geohash grid
+    @Test
+    @DisplayName("Junit test case for nearby restaurants served from the geohash grid")
+    public void givenBuiltGeoIndex_whenGetNearbyRestaurants_thenResolveHitsInDistanceOrder(){
+
+        // given
+        BDDMockito.given(geoIndex.nearby(51.5074, -0.1278, 5, Cuisine.INDIAN, 20))
+                .willReturn(List.of(new GeoIndex.Hit(4, 0.9), new GeoIndex.Hit(9, 1.5), new GeoIndex.Hit(1, 1.8)));
+        BDDMockito.given(restaurantRepository.findResponseDtosByIdIn(List.of(4L, 9L, 1L)))
+                .willReturn(List.of(ResponseDto.builder().id(1).name("Tandoori Nights").build(), ResponseDto.builder().id(4).name("Curry House").build()));
+
+        // when
+        List<NearbyRestaurantDto> nearbyRestaurants = restaurantService.getNearbyRestaurants(51.5074, -0.1278, null, "INDIAN", null);
+
+        // then
+        Assertions.assertThat(nearbyRestaurants).extracting(nearbyRestaurant -> nearbyRestaurant.getRestaurant().getId()).containsExactly(4L, 1L);
+        Assertions.assertThat(nearbyRestaurants).extracting(NearbyRestaurantDto::getDistanceKm).containsExactly(0.9, 1.8);
+        BDDMockito.then(restaurantRepository).should(org.mockito.Mockito.never()).findInBoundingBox(ArgumentMatchers.any(), ArgumentMatchers.anyDouble(),
+                ArgumentMatchers.anyDouble(), ArgumentMatchers.anyDouble(), ArgumentMatchers.anyDouble());
+    }
+
+    // Junit test case for nearby restaurants while the geohash grid is being built
+    @Test
+    @DisplayName("Junit test case for nearby restaurants while the geohash grid is being built")
+    public void givenGeoIndexNotBuilt_whenGetNearbyRestaurants_thenTrimBoundingBoxRowsToTheCircle(){
+
+        // given
+        BDDMockito.given(geoIndex.nearby(ArgumentMatchers.anyDouble(), ArgumentMatchers.anyDouble(), ArgumentMatchers.anyDouble(), ArgumentMatchers.any(), ArgumentMatchers.anyInt()))
+                .willReturn(null);
+        BDDMockito.given(restaurantRepository.findInBoundingBox(ArgumentMatchers.isNull(), ArgumentMatchers.anyDouble(), ArgumentMatchers.anyDouble(),
+                        ArgumentMatchers.anyDouble(), ArgumentMatchers.anyDouble()))
+                .willReturn(List.of(
+                        ResponseDto.builder().id(1).latitude(51.5155).longitude(-0.1410).build(),
+                        ResponseDto.builder().id(2).latitude(51.5080).longitude(-0.1281).build(),
+                        ResponseDto.builder().id(3).latitude(51.5520).longitude(-0.0600).build()));
+
+        // when
+        List<NearbyRestaurantDto> nearbyRestaurants = restaurantService.getNearbyRestaurants(51.5074, -0.1278, 2.0, null, null);
+
+        // then
+        Assertions.assertThat(nearbyRestaurants).extracting(nearbyRestaurant -> nearbyRestaurant.getRestaurant().getId()).containsExactly(2L, 1L);
+    }
+
+    // Junit test case for nearby restaurants with invalid coordinates
+    @Test
+    @DisplayName("Junit test case for nearby restaurants with invalid coordinates")
+    public void givenOutOfRangeCoordinatesOrRadius_whenGetNearbyRestaurants_thenThrowsBadRequestException(){
+
+        // when
+        org.junit.jupiter.api.function.Executable[] calls = {
+                () -> restaurantService.getNearbyRestaurants(null, -0.1278, null, null, null),
+                () -> restaurantService.getNearbyRestaurants(91.0, -0.1278, null, null, null),
+                () -> restaurantService.getNearbyRestaurants(51.5074, 180.5, null, null, null),
+                () -> restaurantService.getNearbyRestaurants(51.5074, -0.1278, 500.0, null, null)
+        };
+
+        // then
+        for(org.junit.jupiter.api.function.Executable call : calls)
+            org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, call);
+        BDDMockito.then(geoIndex).shouldHaveNoInteractions();
+    }
+
+    // Junit test case for getAllRestaurants operation filtered by delivery zone
+    @Test
+    @DisplayName("Junit test case for getAllRestaurants operation filtered by delivery zone")
+    public void givenDeliversToAndSearch_whenGetAllRestaurants_thenQueryOnlyIdsMatchingBoth(){
+
+        // given
+        BDDMockito.given(nameSearchIndex.search("curry")).willReturn(List.of(1L, 3L, 5L, 8L));
+        BDDMockito.given(deliveryZoneIndex.deliveringTo(51.5, -0.1)).willReturn(List.of(2L, 3L, 8L, 9L));
+        BDDMockito.given(restaurantRepository.findRestaurantsPage(null, null, List.of(3L, 8L), Collections.emptyList(), null, 21))
+                .willReturn(List.of(ResponseDto.builder().id(3).name("Curry House").build()));
+
+        // when
+        PageDto<ResponseDto> page = restaurantService.getAllRestaurants(RestaurantQueryDto.builder().search("curry").deliversTo("51.5, -0.1").build());
+
+        // then
+        Assertions.assertThat(page.getContent()).extracting(ResponseDto::getId).containsExactly(3L);
+        BDDMockito.then(restaurantQueryCache).should().get(RestaurantQueryCache.QueryKey.of(null, Collections.emptyList(), "curry", false, new GeoPointDto(51.5, -0.1), Set.of(), 20, null));
+    }
+
+    // Junit test case for getAllRestaurants operation filtered by delivery zone while the zone grid is being built
+    @Test
+    @DisplayName("Junit test case for getAllRestaurants operation filtered by delivery zone while the zone grid is being built")
+    public void givenDeliveryZoneIndexNotBuilt_whenGetAllRestaurants_thenThrowsServiceUnavailableException(){
+
+        // given
+        BDDMockito.given(deliveryZoneIndex.deliveringTo(51.5, -0.1)).willReturn(null);
+
+        // when / then
+        org.junit.jupiter.api.Assertions.assertThrows(ServiceUnavailableException.class,
+                () -> restaurantService.getAllRestaurants(RestaurantQueryDto.builder().deliversTo("51.5,-0.1").build()));
+        BDDMockito.then(restaurantRepository).shouldHaveNoInteractions();
+    }
+
+    // Junit test case for getAllRestaurants operation with more restaurants delivering to the point than fit an IN list
+    @Test
+    @DisplayName("Junit test case for getAllRestaurants operation with more restaurants delivering to the point than fit an IN list")
+    public void givenMoreDeliveringRestaurantsThanMaxCandidates_whenGetAllRestaurants_thenFilterScannedRowsAndStopAtTheScanLimit(){
+
+        // given
+        ReflectionTestUtils.setField(restaurantService, "maxSearchCandidates", 2);
+        ReflectionTestUtils.setField(restaurantService, "maxScannedRows", 4);
+        BDDMockito.given(deliveryZoneIndex.deliveringTo(51.5, -0.1)).willReturn(List.of(1L, 2L, 3L, 5L));
+        BDDMockito.given(restaurantRepository.findRestaurantsPage(ArgumentMatchers.isNull(), ArgumentMatchers.isNull(), ArgumentMatchers.isNull(),
+                        ArgumentMatchers.anyList(), ArgumentMatchers.isNull(), ArgumentMatchers.eq(2)))
+                .willReturn(List.of(ResponseDto.builder().id(1).build(), ResponseDto.builder().id(4).build()));
+        BDDMockito.given(restaurantRepository.findRestaurantsPage(ArgumentMatchers.isNull(), ArgumentMatchers.isNull(), ArgumentMatchers.isNull(),
+                        ArgumentMatchers.anyList(), ArgumentMatchers.notNull(), ArgumentMatchers.eq(2)))
+                .willReturn(List.of(ResponseDto.builder().id(6).build(), ResponseDto.builder().id(7).build()));
+
+        // when
+        PageDto<ResponseDto> page = restaurantService.getAllRestaurants(RestaurantQueryDto.builder().deliversTo("51.5,-0.1").limit(2).build());
+
+        // then
+        Assertions.assertThat(page.getContent()).extracting(ResponseDto::getId).containsExactly(1L);
+        Assertions.assertThat(Cursor.decode(page.getNext()).getLastId()).isEqualTo(7L);
+        BDDMockito.then(restaurantRepository).should(org.mockito.Mockito.times(2)).findRestaurantsPage(ArgumentMatchers.isNull(), ArgumentMatchers.isNull(),
+                ArgumentMatchers.isNull(), ArgumentMatchers.anyList(), ArgumentMatchers.any(), ArgumentMatchers.eq(2));
+    }
+
+    // Junit test case for getAllRestaurants operation with an invalid delivery point
+    @Test
+    @DisplayName("Junit test case for getAllRestaurants operation with an invalid delivery point")
+    public void givenMalformedDeliversTo_whenGetAllRestaurants_thenThrowsBadRequestException(){
+
+        // when / then
+        for(String deliversTo : List.of("51.5", "51.5,-0.1,3", "north,south", "95,0"))
+            org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class,
+                    () -> restaurantService.getAllRestaurants(RestaurantQueryDto.builder().deliversTo(deliversTo).build()));
+        BDDMockito.then(deliveryZoneIndex).shouldHaveNoInteractions();
+    }
+
+    // Junit test case for addRestaurant operation with an invalid delivery zone
+    @Test
+    @DisplayName("Junit test case for addRestaurant operation with an invalid delivery zone")
+    public void givenDeliveryZoneWithTwoPoints_whenAddRestaurant_thenThrowsBadRequestException(){
+
+        // given
+        RequestDto requestDto = RequestDto.builder().name("Curry House").website("curryhouse")
+                .deliveryZones(List.of(List.of(new GeoPointDto(51.4, -0.2), new GeoPointDto(51.6, -0.2)))).build();
+        BDDMockito.given(restaurantRepository.findByWebsite("curryhouse")).willReturn(Optional.empty());
+
+        // when / then
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> restaurantService.addRestaurant(requestDto));
+        BDDMockito.then(restaurantRepository).should(org.mockito.Mockito.never()).save(ArgumentMatchers.any());
+    }
+
+    // Junit test case for getAllRestaurants operation with facet counts
+    @Test
+    @DisplayName("Junit test case for getAllRestaurants operation with facet counts")
+    public void givenFacetsAndCuisineFilter_whenGetAllRestaurants_thenCountCuisinesAcrossFilterAndOtherFacetsWithinIt(){
+
+        // given
+        BDDMockito.given(restaurantRepository.findRestaurantsPage(RestaurantFilterDto.builder().cuisines(Set.of(Cuisine.INDIAN)).build(), null, null, Collections.emptyList(), null, 21))
+                .willReturn(List.of(ResponseDto.builder().id(3).name("Curry House").cuisine(Cuisine.INDIAN).build()));
+        BDDMockito.given(attributeIndex.countFacets(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any())).willReturn(null);
+        BDDMockito.given(restaurantRepository.countFacetGroups(ArgumentMatchers.any(), ArgumentMatchers.isNull(), ArgumentMatchers.isNull(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .willReturn(List.of(
+                        new FacetGroupDto(Cuisine.INDIAN, Currency.GBP, 0, 1, 2),
+                        new FacetGroupDto(Cuisine.INDIAN, Currency.INR, 2, 3, 1),
+                        new FacetGroupDto(Cuisine.MEXICAN, Currency.GBP, 1, 1, 4)));
+
+        // when
+        PageDto<ResponseDto> page = restaurantService.getAllRestaurants(RestaurantQueryDto.builder().cuisine("INDIAN").facets("CUISINE, CURRENCY,DELIVERY_FEE").build());
+
+        // then
+        Assertions.assertThat(page.getContent()).hasSize(1);
+        Assertions.assertThat(page.getFacets()).containsOnlyKeys(Facet.CUISINE, Facet.CURRENCY, Facet.DELIVERY_FEE);
+        Assertions.assertThat(page.getFacets().get(Facet.CUISINE)).hasSize(Cuisine.values().length)
+                .containsEntry("INDIAN", 3L).containsEntry("MEXICAN", 4L).containsEntry("ITALIAN", 0L);
+        Assertions.assertThat(page.getFacets().get(Facet.CURRENCY)).containsEntry("GBP", 2L).containsEntry("INR", 1L).containsEntry("USD", 0L);
+        Assertions.assertThat(page.getFacets().get(Facet.DELIVERY_FEE)).containsExactly(
+                org.assertj.core.api.Assertions.entry("0-4", 2L), org.assertj.core.api.Assertions.entry("5-9", 0L), org.assertj.core.api.Assertions.entry("10+", 1L));
+        BDDMockito.then(restaurantQueryCache).should().generation(null);
+    }
+
+    // Junit test case for getAllRestaurants operation with an unknown facet
+    @Test
+    @DisplayName("Junit test case for getAllRestaurants operation with an unknown facet")
+    public void givenUnknownFacet_whenGetAllRestaurants_thenThrowsBadRequestException(){
+
+        // when / then
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class,
+                () -> restaurantService.getAllRestaurants(RestaurantQueryDto.builder().facets("CUISINE,STARS").build()));
+    }
+
+    // Junit test case for getAllRestaurants operation narrowed down by the bitmap index
+    @Test
+    @DisplayName("Junit test case for getAllRestaurants operation narrowed down by the bitmap index")
+    public void givenBuiltAttributeIndex_whenGetAllRestaurantsWithFilters_thenQueryOnlyTheMatchingIds(){
+
+        // given
+        RestaurantFilterDto filter = RestaurantFilterDto.builder().cuisines(EnumSet.of(Cuisine.INDIAN, Cuisine.THAI)).currencies(EnumSet.of(Currency.GBP)).build();
+        BDDMockito.given(attributeIndex.matching(filter)).willReturn(IdBitmap.of(List.of(2L, 5L, 9L)));
+        BDDMockito.given(restaurantRepository.findRestaurantsPage(filter, null, List.of(2L, 5L, 9L), Collections.emptyList(), null, 21))
+                .willReturn(List.of(ResponseDto.builder().id(2).name("Curry House").build()));
+
+        // when
+        PageDto<ResponseDto> page = restaurantService.getAllRestaurants(RestaurantQueryDto.builder().cuisine("INDIAN, THAI").currency("GBP").build());
+
+        // then
+        Assertions.assertThat(page.getContent()).extracting(ResponseDto::getId).containsExactly(2L);
+        BDDMockito.then(restaurantQueryCache).should().generation(null);
+    }
+
+    // Junit test case for getAllRestaurants operation with filters matching nothing
+    @Test
+    @DisplayName("Junit test case for getAllRestaurants operation with filters matching nothing")
+    public void givenFiltersMatchingNoRestaurant_whenGetAllRestaurants_thenRepositoryIsNotQueried(){
+
+        // given
+        BDDMockito.given(attributeIndex.matching(ArgumentMatchers.any())).willReturn(new IdBitmap());
+
+        // when
+        PageDto<ResponseDto> page = restaurantService.getAllRestaurants(RestaurantQueryDto.builder().cuisine("ITALIAN").currency("INR").build());
+
+        // then
+        Assertions.assertThat(page.getContent()).isEmpty();
+        Assertions.assertThat(page.getNext()).isNull();
+        BDDMockito.then(restaurantRepository).shouldHaveNoInteractions();
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class,
+                () -> restaurantService.getAllRestaurants(RestaurantQueryDto.builder().currency("EUR").build()));
+    }
+
+    // Junit test case for getAllRestaurants operation with range bounds
+    @Test
+    @DisplayName("Junit test case for getAllRestaurants operation with range bounds")
+    public void givenRangeBounds_whenGetAllRestaurants_thenNarrowOnBucketsAndPassBoundsToTheQuery(){
+
+        // given
+        RestaurantFilterDto filter = RestaurantFilterDto.builder().minRating(4.5f).maxDeliveryFee(5).maxDeliveryTime(30).maxMinimumOrderAmount(20).build();
+        BDDMockito.given(attributeIndex.matching(filter)).willReturn(IdBitmap.of(List.of(2L, 7L)));
+        BDDMockito.given(restaurantRepository.findRestaurantsPage(filter, null, List.of(2L, 7L), List.of(Sort.RATING), null, 21))
+                .willReturn(List.of(ResponseDto.builder().id(2).name("Curry House").rating(4.9f).build()));
+
+        // when
+        PageDto<ResponseDto> page = restaurantService.getAllRestaurants(RestaurantQueryDto.builder()
+                .minRating(4.5f).maxDeliveryFee(5).maxDeliveryTime(30).maxMinOrder(20).sortBy("RATING").build());
+
+        // then
+        Assertions.assertThat(page.getContent()).extracting(ResponseDto::getId).containsExactly(2L);
+        BDDMockito.then(attributeIndex).should().matching(filter);
+        BDDMockito.then(attributeIndex).shouldHaveNoMoreInteractions();
+    }
+
+    // Junit test case for getAllRestaurants operation with invalid range bounds
+    @Test
+    @DisplayName("Junit test case for getAllRestaurants operation with invalid range bounds")
+    public void givenInvalidRangeBounds_whenGetAllRestaurants_thenThrowsBadRequestException(){
+
+        // when / then
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> restaurantService.getAllRestaurants(RestaurantQueryDto.builder().minRating(5.5f).build()));
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> restaurantService.getAllRestaurants(RestaurantQueryDto.builder().minRating(-1f).build()));
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> restaurantService.getAllRestaurants(RestaurantQueryDto.builder().maxDeliveryFee(-1).build()));
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> restaurantService.getAllRestaurants(RestaurantQueryDto.builder().maxDeliveryTime(-5).build()));
+        BDDMockito.then(restaurantRepository).shouldHaveNoInteractions();
+    }
 }
@@ -0,0 +1,133 @@
+package com.dishdash.restaurantservice.sse;
+
+import com.dishdash.restaurantservice.dto.ResponseDto;
+import com.dishdash.restaurantservice.dto.RestaurantEventDto;
+import com.dishdash.restaurantservice.enums.ChangeType;
+import com.dishdash.restaurantservice.event.RestaurantChangedEvent;
+import com.dishdash.restaurantservice.service.RestaurantService;
+import com.dishdash.restaurantservice.sync.ChangeVersions;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.LongStream;
+
+public class RestaurantEventBroadcasterTests {
+
+    private final RestaurantService restaurantService = Mockito.mock(RestaurantService.class);
+
+    private final ChangeVersions changeVersions = Mockito.mock(ChangeVersions.class);
+
+    private RestaurantEventBroadcaster restaurantEventBroadcaster;
+
+    @BeforeEach
+    public void setup(){
+        restaurantEventBroadcaster = new RestaurantEventBroadcaster();
+        ReflectionTestUtils.setField(restaurantEventBroadcaster, "restaurantService", restaurantService);
+        ReflectionTestUtils.setField(restaurantEventBroadcaster, "changeVersions", changeVersions);
+        restaurantEventBroadcaster.start();
+    }
+
+    @AfterEach
+    public void tearDown(){
+        restaurantEventBroadcaster.stop();
+    }
+
+    private RestaurantEventDto created(long version, long id){
+        return new RestaurantEventDto(version, ChangeType.CREATED, id, ResponseDto.builder().id(id).name("Somesh Tacos").build());
+    }
+
+    // Junit test case for disconnecting a slow subscriber
+    @Test
+    @DisplayName("Junit test case for disconnecting a slow subscriber")
+    public void givenSubscriberNotKeepingUp_whenHeartbeatFindsNoProgress_thenSubscriberIsDisconnected(){
+
+        // given
+        ReflectionTestUtils.setField(restaurantEventBroadcaster, "bufferSize", 1);
+        ReflectionTestUtils.setField(restaurantEventBroadcaster, "senders", Mockito.mock(ExecutorService.class));
+        BDDMockito.given(changeVersions.current()).willReturn(3L);
+        BDDMockito.given(restaurantService.getChangeEvents(3L, 500)).willReturn(List.of(created(4, 1), created(5, 2)));
+        restaurantEventBroadcaster.subscribe(null);
+
+        // when
+        restaurantEventBroadcaster.poll();
+        int subscribersAfterOverflow = restaurantEventBroadcaster.subscriberCount();
+        restaurantEventBroadcaster.heartbeat();
+
+        // then
+        Assertions.assertThat(subscribersAfterOverflow).isEqualTo(1);
+        Assertions.assertThat(restaurantEventBroadcaster.subscriberCount()).isZero();
+    }
+
+    // Junit test case for a burst larger than the subscriber buffer
+    @Test
+    @DisplayName("Junit test case for a burst larger than the subscriber buffer")
+    public void givenBurstLargerThanBuffer_whenPoll_thenSubscriberCatchesUpFromTheChangeLogAndStaysConnected(){
+
+        // given
+        ExecutorService senders = Mockito.mock(ExecutorService.class);
+        ReflectionTestUtils.setField(restaurantEventBroadcaster, "bufferSize", 4);
+        ReflectionTestUtils.setField(restaurantEventBroadcaster, "senders", senders);
+        BDDMockito.given(changeVersions.current()).willReturn(0L);
+        BDDMockito.given(restaurantService.getChangeEvents(ArgumentMatchers.anyLong(), ArgumentMatchers.eq(500))).willAnswer(invocation -> {
+            long since = invocation.getArgument(0);
+            return LongStream.rangeClosed(since + 1, 10).mapToObj(version -> created(version, version)).toList();
+        });
+        restaurantEventBroadcaster.subscribe(null);
+
+        // when
+        restaurantEventBroadcaster.poll();
+        ArgumentCaptor<Runnable> drain = ArgumentCaptor.forClass(Runnable.class);
+        BDDMockito.then(senders).should().execute(drain.capture());
+        drain.getValue().run();
+        restaurantEventBroadcaster.heartbeat();
+
+        // then
+        Assertions.assertThat(restaurantEventBroadcaster.subscriberCount()).isEqualTo(1);
+        BDDMockito.then(restaurantService).should(Mockito.times(2)).getChangeEvents(0L, 500);
+    }
+
+    // Junit test case for coalescing the polls triggered by commits
+    @Test
+    @DisplayName("Junit test case for coalescing the polls triggered by commits")
+    public void givenManyCommits_whenPollIsAlreadyQueued_thenOnlyOnePollIsQueued(){
+
+        // given
+        ExecutorService poller = Mockito.mock(ExecutorService.class);
+        ReflectionTestUtils.setField(restaurantEventBroadcaster, "poller", poller);
+        restaurantEventBroadcaster.subscribe(null);
+
+        // when
+        for (int i = 0; i < 1000; i++)
+            restaurantEventBroadcaster.onRestaurantChanged(new RestaurantChangedEvent(ChangeType.CREATED, ResponseDto.builder().id(i).build()));
+
+        // then
+        BDDMockito.then(poller).should(Mockito.times(1)).execute(ArgumentMatchers.any());
+    }
+
+    // Junit test case for resuming after the Last-Event-ID
+    @Test
+    @DisplayName("Junit test case for resuming after the Last-Event-ID")
+    public void givenLastEventId_whenSubscribe_thenMissedChangesAreReplayedFromTheChangeLog(){
+
+        // given
+        BDDMockito.given(changeVersions.current()).willReturn(9L);
+        BDDMockito.given(restaurantService.getChangeEvents(5L, 500)).willReturn(List.of(created(6, 1)));
+
+        // when
+        restaurantEventBroadcaster.subscribe(5L);
+
+        // then
+        BDDMockito.then(restaurantService).should(Mockito.timeout(1000)).getChangeEvents(5L, 500);
+        Assertions.assertThat(restaurantEventBroadcaster.subscriberCount()).isEqualTo(1);
+    }
+}
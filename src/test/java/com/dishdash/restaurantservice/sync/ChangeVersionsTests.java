@@ -0,0 +1,77 @@
+package com.dishdash.restaurantservice.sync;
+
+import com.dishdash.restaurantservice.repository.ChangeCounterRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+// Not rolled back, every writer commits in a transaction of its own.
+@DataJpaTest
+@Import(ChangeVersions.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ChangeVersionsTests {
+
+    private static final int ROUNDS = 30;
+    private static final int WRITERS = 8;
+
+    @Autowired
+    private ChangeVersions changeVersions;
+
+    @Autowired
+    private ChangeCounterRepository changeCounterRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    public void cleanup(){
+        changeCounterRepository.deleteAll();
+    }
+
+    // Junit test case for concurrent first writes creating the counter row
+    @Test
+    @DisplayName("Junit test case for concurrent first writes creating the counter row")
+    public void givenNoCounterRow_whenConcurrentNext_thenEveryWriterGetsItsOwnVersion() throws Exception{
+
+//      One round rarely overlaps the writers, the race shows within a few.
+        for (int round = 0; round < ROUNDS; round++) {
+
+            // given
+            changeCounterRepository.deleteAll();
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+            List<Future<Long>> versions = new ArrayList<>();
+
+            // when
+            for (int i = 0; i < WRITERS; i++)
+                versions.add(executor.submit(() -> {
+                    start.await();
+                    return transactionTemplate.execute(status -> changeVersions.next(1));
+                }));
+            start.countDown();
+            List<Long> handedOut = new ArrayList<>();
+            for (Future<Long> version : versions)
+                handedOut.add(version.get());
+            executor.shutdown();
+
+            // then
+            Assertions.assertThat(handedOut).containsExactlyInAnyOrderElementsOf(LongStream.rangeClosed(1, WRITERS).boxed().toList());
+            Assertions.assertThat(changeVersions.current()).isEqualTo(WRITERS);
+        }
+    }
+}